@@ -1,2 +1,2 @@
 @echo off
-java -cp target/chess-game-1.0.0-SNAPSHOT.jar hwr.oop.chess.cli.Main %*
\ No newline at end of file
+java %JAVA_OPTS% -cp target/chess-game-1.0.0-SNAPSHOT.jar hwr.oop.chess.cli.Main %*
\ No newline at end of file
@@ -0,0 +1,78 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Perft;
+import hwr.oop.chess.persistence.FenNotation;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Run with: ./mvnw -P build-default,jmh package -DskipTests && java -jar target/benchmarks.jar
+// The "nodes" counter shows the visited leaf nodes per second.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+  @State(Scope.Thread)
+  public static class Position {
+    @Param({"start", "kiwipete", "position3", "position4", "position5", "position6"})
+    public String name;
+
+    @Param({"4"})
+    public int depth;
+
+    Perft perft;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      Board board = new Board(false);
+      FenNotation.parseFEN(board, fen(name));
+      perft = new Perft(board, depth);
+    }
+
+    private static String fen(String name) {
+      return switch (name) {
+        case "start" -> "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+        case "kiwipete" -> "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        case "position3" -> "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+        case "position4" -> "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+        case "position5" -> "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+        case "position6" ->
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+        default -> throw new IllegalArgumentException("Unknown perft position " + name);
+      };
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Nodes {
+    public long nodes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      nodes = 0;
+    }
+  }
+
+  @Benchmark
+  public long perft(Position position, Nodes counter) {
+    long nodes = position.perft.count(position.depth);
+    counter.nodes += nodes;
+    return nodes;
+  }
+}
@@ -0,0 +1,95 @@
+package hwr.oop.chess.application;
+
+import static hwr.oop.chess.application.Bitboard.FILE_A;
+import static hwr.oop.chess.application.Bitboard.FILE_H;
+import static hwr.oop.chess.application.Bitboard.bit;
+
+import hwr.oop.chess.application.figures.FigureColor;
+
+public class AttackTables {
+  private static final long FILE_AB = FILE_A | (FILE_A << 1);
+  private static final long FILE_GH = FILE_H | (FILE_H >>> 1);
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  private static final long[] KING_ATTACKS = new long[64];
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+  private static final int[][] DIRECTIONS = {
+    {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+  };
+  private static final long[][] BETWEEN = new long[64][64];
+  private static final long[][] LINE = new long[64][64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      long b = bit(square);
+      KNIGHT_ATTACKS[square] =
+          ((b << 17) & ~FILE_A)
+              | ((b << 15) & ~FILE_H)
+              | ((b << 10) & ~FILE_AB)
+              | ((b << 6) & ~FILE_GH)
+              | ((b >>> 17) & ~FILE_H)
+              | ((b >>> 15) & ~FILE_A)
+              | ((b >>> 10) & ~FILE_GH)
+              | ((b >>> 6) & ~FILE_AB);
+
+      long row = b | ((b << 1) & ~FILE_A) | ((b >>> 1) & ~FILE_H);
+      KING_ATTACKS[square] = (row | (row << 8) | (row >>> 8)) & ~b;
+
+      PAWN_ATTACKS[FigureColor.WHITE.ordinal()][square] =
+          ((b << 7) & ~FILE_H) | ((b << 9) & ~FILE_A);
+      PAWN_ATTACKS[FigureColor.BLACK.ordinal()][square] =
+          ((b >>> 9) & ~FILE_H) | ((b >>> 7) & ~FILE_A);
+
+      for (int[] direction : DIRECTIONS) {
+        long line =
+            b | ray(square, direction[0], direction[1]) | ray(square, -direction[0], -direction[1]);
+        long between = 0L;
+        int x = square % 8 + direction[0];
+        int y = square / 8 + direction[1];
+        while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+          BETWEEN[square][y * 8 + x] = between;
+          LINE[square][y * 8 + x] = line;
+          between |= bit(y * 8 + x);
+          x += direction[0];
+          y += direction[1];
+        }
+      }
+    }
+  }
+
+  private static long ray(int square, int dx, int dy) {
+    long ray = 0L;
+    int x = square % 8 + dx;
+    int y = square / 8 + dy;
+    while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+      ray |= bit(y * 8 + x);
+      x += dx;
+      y += dy;
+    }
+    return ray;
+  }
+
+  private AttackTables() {}
+
+  public static long knightAttacks(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  public static long kingAttacks(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  // Cells a pawn of the given color on the square could capture on
+  public static long pawnAttacks(int square, FigureColor color) {
+    return PAWN_ATTACKS[color.ordinal()][square];
+  }
+
+  // Cells strictly between two cells on a common rank, file or diagonal (otherwise empty)
+  public static long between(int from, int to) {
+    return BETWEEN[from][to];
+  }
+
+  // The whole rank, file or diagonal through both cells (otherwise empty)
+  public static long line(int from, int to) {
+    return LINE[from][to];
+  }
+}
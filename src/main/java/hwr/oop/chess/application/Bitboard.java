@@ -0,0 +1,126 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.Figure;
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+public class Bitboard {
+  public static final long FILE_A = 0x0101010101010101L;
+  public static final long FILE_H = FILE_A << 7;
+  public static final long RANK_1 = 0xFFL;
+  public static final long RANK_8 = RANK_1 << 56;
+
+  // one long per figure type and color (index = color * 6 + type) and one per color
+  private final long[] pieces = new long[12];
+  private final long[] colors = new long[2];
+  private long enPassant;
+  // Zobrist key of the figures and the en passant cell, updated with every change
+  private long key;
+  // Zobrist key of the pawns only, the pawn structure is cached under it
+  private long pawnKey;
+  // material and piece-square values from the view of white, also updated with every change
+  private int middlegameScore;
+  private int endgameScore;
+  private int phase;
+
+  public static long bit(int square) {
+    return 1L << square;
+  }
+
+  private static int pieceIndex(FigureColor color, FigureType type) {
+    return color.ordinal() * 6 + type.ordinal();
+  }
+
+  public void place(int square, Figure figure) {
+    pieces[pieceIndex(figure.color(), figure.type())] |= bit(square);
+    colors[figure.color().ordinal()] |= bit(square);
+    key ^= Zobrist.piece(figure.color(), figure.type(), square);
+    if (figure.type() == FigureType.PAWN) {
+      pawnKey ^= Zobrist.piece(figure.color(), figure.type(), square);
+    }
+    middlegameScore += PieceSquareTables.middlegame(figure.color(), figure.type(), square);
+    endgameScore += PieceSquareTables.endgame(figure.color(), figure.type(), square);
+    phase += PieceSquareTables.phaseWeight(figure.type());
+  }
+
+  public void remove(int square, Figure figure) {
+    pieces[pieceIndex(figure.color(), figure.type())] &= ~bit(square);
+    colors[figure.color().ordinal()] &= ~bit(square);
+    key ^= Zobrist.piece(figure.color(), figure.type(), square);
+    if (figure.type() == FigureType.PAWN) {
+      pawnKey ^= Zobrist.piece(figure.color(), figure.type(), square);
+    }
+    middlegameScore -= PieceSquareTables.middlegame(figure.color(), figure.type(), square);
+    endgameScore -= PieceSquareTables.endgame(figure.color(), figure.type(), square);
+    phase -= PieceSquareTables.phaseWeight(figure.type());
+  }
+
+  public void setEnPassant(int square, boolean isEnPassant) {
+    if (((enPassant & bit(square)) != 0) != isEnPassant) {
+      enPassant ^= bit(square);
+      key ^= Zobrist.enPassant(square);
+    }
+  }
+
+  public long key() {
+    return key;
+  }
+
+  public long pawnKey() {
+    return pawnKey;
+  }
+
+  public int middlegameScore() {
+    return middlegameScore;
+  }
+
+  public int endgameScore() {
+    return endgameScore;
+  }
+
+  // MAX_PHASE in the opening, 0 with only kings and pawns left (more after promotions)
+  public int phase() {
+    return phase;
+  }
+
+  public long enPassant() {
+    return enPassant;
+  }
+
+  public long pieces(FigureColor color, FigureType type) {
+    return pieces[pieceIndex(color, type)];
+  }
+
+  public long pieces(FigureType type) {
+    return pieces(FigureColor.WHITE, type) | pieces(FigureColor.BLACK, type);
+  }
+
+  public long occupancy(FigureColor color) {
+    return colors[color.ordinal()];
+  }
+
+  public long occupancy() {
+    return colors[0] | colors[1];
+  }
+
+  // Cells with figures of the given color which attack the square, probed outwards from the square.
+  // Figures which are not part of the occupancy are treated as already removed from the board.
+  public long attackersOf(int square, FigureColor byColor) {
+    return attackersOf(square, byColor, occupancy());
+  }
+
+  public long attackersOf(int square, FigureColor byColor, long occupancy) {
+    long rooksAndQueens = pieces(byColor, FigureType.ROOK) | pieces(byColor, FigureType.QUEEN);
+    long bishopsAndQueens = pieces(byColor, FigureType.BISHOP) | pieces(byColor, FigureType.QUEEN);
+    return ((AttackTables.pawnAttacks(square, byColor.ofOpponent())
+                & pieces(byColor, FigureType.PAWN))
+        | (AttackTables.knightAttacks(square) & pieces(byColor, FigureType.KNIGHT))
+        | (AttackTables.kingAttacks(square) & pieces(byColor, FigureType.KING))
+        | (MagicBitboards.rookAttacks(square, occupancy) & rooksAndQueens)
+        | (MagicBitboards.bishopAttacks(square, occupancy) & bishopsAndQueens)) & occupancy;
+  }
+
+  public boolean isAttacked(int square, FigureColor byColor) {
+    return attackersOf(square, byColor) != 0;
+  }
+}
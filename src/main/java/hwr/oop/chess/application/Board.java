@@ -4,15 +4,32 @@ import static hwr.oop.chess.application.figures.FigureType.*;
 
 import hwr.oop.chess.application.figures.*;
 import hwr.oop.chess.cli.InvalidUserInputException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Predicate;
 
 public class Board {
-  private Cell firstCell;
+  private static final FigureType[] EXCHANGE_ORDER = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+  private static final int KING_EXCHANGE_VALUE = 20_000;
+  private final Cell[] cells = new Cell[64];
+  private final Bitboard bitboard = new Bitboard();
   private int halfMove = 0;
   private int fullMove = 0;
   private FigureColor currentTurnColor = FigureColor.WHITE;
+  private final Deque<Undo> history = new ArrayDeque<>();
+
+  // everything makeMove changes that cannot be recomputed from the move itself
+  private record Undo(
+      int move,
+      Figure movedFigure,
+      Figure capturedFigure,
+      int capturedIndex,
+      boolean hadMoved,
+      long enPassant,
+      int halfMove) {}
 
   public Board(boolean setFigures) {
     initializeBoard();
@@ -22,33 +39,22 @@ public class Board {
   }
 
   private void initializeBoard() {
-    Cell bottomCellRowStart = null;
-
     // create the board row by row
-    // starts at the bottom left
-    // if a row is complete the next row will also be connected from the left
+    // starts at the bottom left and connects every cell to its neighbours on the left and below
     for (Coordinate y : Coordinate.values()) {
-      Cell leftCell = null;
-      Cell bottomCell =
-          bottomCellRowStart =
-              (bottomCellRowStart == null) ? firstCell : bottomCellRowStart.topCell();
-
       for (Coordinate x : Coordinate.values()) {
-        Cell currentCell = new Cell(x, y);
+        Cell currentCell = new Cell(x, y, this);
+        int index = currentCell.index();
+        cells[index] = currentCell;
 
-        if (y == Coordinate.ONE && x == Coordinate.ONE) {
-          firstCell = currentCell;
-          bottomCell = bottomCellRowStart = null;
+        if (x != Coordinate.ONE) {
+          connectCells(currentCell, cells[index - 1]);
         }
-
-        connectCells(currentCell, leftCell);
-        leftCell = currentCell;
-
-        if (bottomCell != null) {
+        if (y != Coordinate.ONE) {
+          Cell bottomCell = cells[index - 8];
           connectCells(currentCell, bottomCell);
           connectCells(currentCell, bottomCell.leftCell());
           connectCells(currentCell, bottomCell.rightCell());
-          bottomCell = bottomCell.rightCell();
         }
       }
     }
@@ -69,19 +75,12 @@ public class Board {
   }
 
   public List<Cell> allCells() {
-    List<Cell> cells = new ArrayList<>();
-    Cell cell = firstCell.allCellsInDirection(CellDirection.TOP).getLast();
-    Cell rowStart = cell;
-
-    while (cell != null) {
-      cells.add(cell);
-      if (cell.hasRightCell()) {
-        cell = cell.rightCell();
-      } else {
-        cell = rowStart = rowStart.bottomCell();
-      }
+    // from the top left (A8) to the bottom right (H1), row by row
+    List<Cell> list = new ArrayList<>(cells.length);
+    for (int rowStart = 56; rowStart >= 0; rowStart -= 8) {
+      list.addAll(Arrays.asList(cells).subList(rowStart, rowStart + 8));
     }
-    return cells;
+    return list;
   }
 
   public Cell findCell(String cell) {
@@ -99,19 +98,52 @@ public class Board {
   }
 
   public Cell findCell(Coordinate x, Coordinate y) {
-    return allCells().stream()
-        .filter(cell -> cell.x() == x && cell.y() == y)
-        .findFirst()
-        .orElse(null);
+    return cells[(y.toInt() - 1) * 8 + x.toInt() - 1];
   }
 
-  public Cell findKingCell(FigureColor playerColor) {
-    for (Cell cell : allCells()) {
-      if (cell.isOccupiedBy(playerColor, FigureType.KING)) {
-        return cell;
+  public Cell cellAt(int index) {
+    return cells[index];
+  }
+
+  public Bitboard bitboard() {
+    return bitboard;
+  }
+
+  // An independent board with the same position, e.g. for a search on another thread. The moves
+  // which led to the position are not copied, so they cannot be taken back on the copy.
+  public Board copy() {
+    Board copy = new Board(false);
+    for (Cell cell : cells) {
+      Cell copiedCell = copy.cells[cell.index()];
+      Figure figure = cell.figure();
+      if (figure != null) {
+        Figure copiedFigure = Figure.fromChar(figure.symbol());
+        if (hasMoved(figure)) {
+          markAsMoved(copiedFigure);
+        }
+        copiedCell.setFigure(copiedFigure);
       }
+      copiedCell.setIsEnPassant(cell.isEnPassant());
     }
-    throw new InvalidUserInputException("Impossible state! There is no king on the field.");
+    copy.initializeWith(currentTurnColor, halfMove, fullMove);
+    return copy;
+  }
+
+  public List<Cell> cellsOf(long bitboardCells) {
+    List<Cell> list = new ArrayList<>(Long.bitCount(bitboardCells));
+    while (bitboardCells != 0) {
+      list.add(cells[Long.numberOfTrailingZeros(bitboardCells)]);
+      bitboardCells &= bitboardCells - 1;
+    }
+    return list;
+  }
+
+  public Cell findKingCell(FigureColor playerColor) {
+    long king = bitboard.pieces(playerColor, KING);
+    if (king == 0) {
+      throw new InvalidUserInputException("Impossible state! There is no king on the field.");
+    }
+    return cells[Long.numberOfTrailingZeros(king)];
   }
 
   public List<Cell> cellsWhere(Predicate<Cell> filter) {
@@ -119,15 +151,15 @@ public class Board {
   }
 
   public int countCellsWhere(Predicate<Cell> filter) {
-    return cellsWhere(filter).size();
+    return (int) Arrays.stream(cells).filter(filter).count();
   }
 
   public boolean cellExistsWhere(Predicate<Cell> filter) {
-    return allCells().stream().anyMatch(filter);
+    return Arrays.stream(cells).anyMatch(filter);
   }
 
   public void addFiguresToBoard() {
-    for (Cell cell : allCells()) {
+    for (Cell cell : cells) {
       FigureColor figureColor = cell.y().toInt() <= 2 ? FigureColor.WHITE : FigureColor.BLACK;
 
       if (cell.y() == Coordinate.ONE || cell.y() == Coordinate.EIGHT) {
@@ -154,20 +186,125 @@ public class Board {
   }
 
   public void moveFigure(Cell startCell, Cell endCell) {
-    MoveType moveType = moveType(startCell, endCell);
-    if (moveType != MoveType.EN_PASSANT) {
-      // reset EN_PASSANT because the next move is not an en passant move
-      allCells().forEach(cell -> cell.setIsEnPassant(false));
-    }
+    makeMove(validMove(startCell, endCell));
+  }
+
+  // Performs the move without validating it, so that it can be taken back with unmakeMove
+  public void makeMove(int move) {
+    Cell startCell = cells[Move.from(move)];
+    Cell endCell = cells[Move.to(move)];
+    Figure figure = startCell.figure();
+    Cell capturedCell = Move.isEnPassant(move) ? findCell(endCell.x(), startCell.y()) : endCell;
+    history.push(
+        new Undo(
+            move,
+            figure,
+            capturedCell.figure(),
+            capturedCell.index(),
+            hasMoved(figure),
+            bitboard.enPassant(),
+            halfMove));
+
+    // reset EN_PASSANT because it is only possible directly after the double step
+    replaceEnPassantCells(0L);
+    MoveType moveType = Move.type(move);
     switch (moveType) {
       case EN_PASSANT -> handleEnPassant(startCell, endCell);
       case KING_CASTLING, QUEEN_CASTLING -> handleCastling(startCell, endCell, moveType);
       default -> handleNormalMove(startCell, endCell);
     }
+    if (Move.isPromotion(move)) {
+      endCell.setFigure(Figure.fromTypeAndColor(Move.promotion(move), figure.color()));
+    }
 
     changeTurnAndCountMoves();
   }
 
+  public void unmakeMove() {
+    if (history.isEmpty()) {
+      throw new IllegalStateException("There is no move which can be taken back.");
+    }
+    Undo undo = history.pop();
+    Cell startCell = cells[Move.from(undo.move())];
+    Cell endCell = cells[Move.to(undo.move())];
+
+    currentTurnColor = currentTurnColor.ofOpponent();
+    if (currentTurnColor == FigureColor.BLACK) {
+      this.fullMove--;
+    }
+    this.halfMove = undo.halfMove();
+
+    if (Move.isCastling(undo.move())) {
+      // the rook had not moved before, otherwise castling would not have been possible
+      MoveType type = Move.type(undo.move());
+      Cell startRookCell = castlingRookCell(startCell, type);
+      Cell endRookCell = castlingRookTargetCell(endCell, type);
+      Rook rook = (Rook) endRookCell.figure();
+      rook.figureNotMoved();
+      endRookCell.setFigure(null);
+      startRookCell.setFigure(rook);
+    }
+
+    endCell.setFigure(null);
+    startCell.setFigure(undo.movedFigure());
+    cells[undo.capturedIndex()].setFigure(undo.capturedFigure());
+    if (!undo.hadMoved()) {
+      markAsNotMoved(undo.movedFigure());
+    }
+    replaceEnPassantCells(undo.enPassant());
+  }
+
+  public boolean canUnmakeMove() {
+    return !history.isEmpty();
+  }
+
+  private void replaceEnPassantCells(long enPassantCells) {
+    for (long current = bitboard.enPassant(); current != 0; current &= current - 1) {
+      cells[Long.numberOfTrailingZeros(current)].setIsEnPassant(false);
+    }
+    for (; enPassantCells != 0; enPassantCells &= enPassantCells - 1) {
+      cells[Long.numberOfTrailingZeros(enPassantCells)].setIsEnPassant(true);
+    }
+  }
+
+  // Encodes the move with its flags, detected from the figures alone and without validation
+  public int createMove(Cell startCell, Cell endCell) {
+    Figure figure = startCell.figure();
+    int flags = endCell.isOccupied() ? Move.CAPTURE : 0;
+    int distance = endCell.x().toInt() - startCell.x().toInt();
+    if (figure.type() == KING && Math.abs(distance) == 2) {
+      flags |= Move.CASTLING;
+    } else if (figure.type() == PAWN && distance != 0 && endCell.isFree()) {
+      flags |= Move.EN_PASSANT | Move.CAPTURE;
+    } else if (figure.type() == PAWN && Math.abs(endCell.index() - startCell.index()) == 16) {
+      flags |= Move.DOUBLE_PUSH;
+    }
+    return Move.of(startCell.index(), endCell.index(), flags);
+  }
+
+  private static boolean hasMoved(Figure figure) {
+    if (figure instanceof King king) {
+      return king.hasMoved();
+    }
+    return figure instanceof Rook rook && rook.hasMoved();
+  }
+
+  private static void markAsMoved(Figure figure) {
+    if (figure instanceof King king) {
+      king.figureMoved();
+    } else if (figure instanceof Rook rook) {
+      rook.figureMoved();
+    }
+  }
+
+  private static void markAsNotMoved(Figure figure) {
+    if (figure instanceof King king) {
+      king.figureNotMoved();
+    } else if (figure instanceof Rook rook) {
+      rook.figureNotMoved();
+    }
+  }
+
   public List<Cell> availableCellsWithoutCheckMoves(Cell startCell) {
     List<Cell> availableCells = startCell.figure().availableCells(startCell);
     availableCells.removeIf(endCell -> wouldBeCheckAfterMove(startCell, endCell));
@@ -176,23 +313,84 @@ public class Board {
 
   public boolean wouldBeCheckAfterMove(Cell startCell, Cell endCell) {
     Figure movingFigure = startCell.figure();
-    Figure capturedFigure = endCell.figure();
-    startCell.setFigure(null);
-    endCell.setFigure(movingFigure);
-    boolean wouldBeCheck = isCheck(movingFigure.color());
-    startCell.setFigure(movingFigure);
-    endCell.setFigure(capturedFigure);
-    return wouldBeCheck;
+    FigureColor color = movingFigure.color();
+    long capturedCells = Bitboard.bit(endCell.index());
+    if (Move.isEnPassant(createMove(startCell, endCell))) {
+      // en passant: the captured pawn is next to the start cell
+      capturedCells |= Bitboard.bit(findCell(endCell.x(), startCell.y()).index());
+    }
+    long occupancyAfterMove =
+        (bitboard.occupancy() & ~Bitboard.bit(startCell.index()) & ~capturedCells)
+            | Bitboard.bit(endCell.index());
+    int kingIndex = movingFigure.type() == KING ? endCell.index() : findKingCell(color).index();
+    long attackers = bitboard.attackersOf(kingIndex, color.ofOpponent(), occupancyAfterMove);
+    return (attackers & ~capturedCells) != 0;
   }
 
   public boolean isCheck(FigureColor playerColor) {
     Cell kingCell = findKingCell(playerColor);
-    for (Cell opponentCell : cellsWithColor(playerColor.ofOpponent())) {
-      if (opponentCell.figure().canMoveTo(opponentCell, kingCell)) {
-        return true;
+    return bitboard.isAttacked(kingCell.index(), playerColor.ofOpponent());
+  }
+
+  public List<Cell> attackersOf(Cell cell, FigureColor color) {
+    return cellsOf(bitboard.attackersOf(cell.index(), color));
+  }
+
+  public int staticExchange(Cell startCell, Cell endCell) {
+    return staticExchange(startCell.index(), endCell.index());
+  }
+
+  // Material won (or lost if negative) by the capture sequence on the end cell, with both players
+  // recapturing with their least valuable figure and stopping once it would lose. No move is made:
+  // figures are only taken out of the occupancy, which uncovers the sliders behind them.
+  public int staticExchange(int from, int to) {
+    Figure movingFigure = cells[from].figure();
+    FigureColor side = movingFigure.color();
+    long occupancy = bitboard.occupancy();
+    int[] gains = new int[32];
+    int depth = 0;
+    if (cells[to].figure() != null) {
+      gains[0] = PieceSquareTables.value(cells[to].figure().type());
+    } else if (movingFigure.type() == PAWN && (bitboard.enPassant() & Bitboard.bit(to)) != 0) {
+      gains[0] = PieceSquareTables.value(PAWN);
+      occupancy &= ~Bitboard.bit(side == FigureColor.WHITE ? to - 8 : to + 8);
+    }
+
+    long attacker = Bitboard.bit(from);
+    int attackerValue = exchangeValue(movingFigure.type());
+    while (attacker != 0) {
+      depth++;
+      // what the player gains if the figure which just captured is taken back
+      gains[depth] = attackerValue - gains[depth - 1];
+      if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+        break;
+      }
+      occupancy &= ~attacker;
+      side = side.ofOpponent();
+      attacker = 0;
+      long attackers = bitboard.attackersOf(to, side, occupancy);
+      for (FigureType type : EXCHANGE_ORDER) {
+        long ofType = attackers & bitboard.pieces(side, type);
+        if (ofType != 0) {
+          attacker = Long.lowestOneBit(ofType);
+          attackerValue = exchangeValue(type);
+          break;
+        }
+      }
+      // the king must not capture onto a cell which is still defended
+      if (attackerValue == KING_EXCHANGE_VALUE
+          && bitboard.attackersOf(to, side.ofOpponent(), occupancy & ~attacker) != 0) {
+        attacker = 0;
       }
     }
-    return false;
+    while (--depth > 0) {
+      gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+    }
+    return gains[0];
+  }
+
+  private static int exchangeValue(FigureType type) {
+    return type == KING ? KING_EXCHANGE_VALUE : PieceSquareTables.value(type);
   }
 
   public boolean isCheckmate(FigureColor playerColor) {
@@ -204,18 +402,52 @@ public class Board {
   }
 
   public boolean playerCannotMoveAnyFigure(FigureColor playerColor) {
-    for (Cell startCell : cellsWithColor(playerColor)) {
-      if (!availableCellsWithoutCheckMoves(startCell).isEmpty()) {
-        return false;
-      }
+    return legalMoves(playerColor).isEmpty();
+  }
+
+  public MoveList legalMoves(FigureColor playerColor) {
+    MoveList moves = new MoveList();
+    MoveGenerator.generateLegalMoves(this, playerColor, moves);
+    return moves;
+  }
+
+  public List<Cell> cellsWithMovableFigures(FigureColor playerColor) {
+    MoveList moves = legalMoves(playerColor);
+    long startCells = 0L;
+    for (int i = 0; i < moves.size(); i++) {
+      startCells |= Bitboard.bit(Move.from(moves.get(i)));
     }
-    return true;
+    return cellsOf(startCells);
+  }
+
+  // Zobrist key of the position: figures, player to move, castling rights and en passant cell
+  public long zobristKey() {
+    long key = bitboard.key() ^ Zobrist.castling(castlingRights());
+    return currentTurnColor == FigureColor.BLACK ? key ^ Zobrist.blackToMove() : key;
+  }
+
+  // the castling rights live in the hasMoved flags of king and rooks, so they are read on demand
+  public int castlingRights() {
+    int rights = 0;
+    rights |= hasCastlingRight(FigureColor.WHITE, true) ? Zobrist.WHITE_KING_SIDE : 0;
+    rights |= hasCastlingRight(FigureColor.WHITE, false) ? Zobrist.WHITE_QUEEN_SIDE : 0;
+    rights |= hasCastlingRight(FigureColor.BLACK, true) ? Zobrist.BLACK_KING_SIDE : 0;
+    rights |= hasCastlingRight(FigureColor.BLACK, false) ? Zobrist.BLACK_QUEEN_SIDE : 0;
+    return rights;
+  }
+
+  // The king and the rook on the given side are still on their start cells and have not moved
+  public boolean hasCastlingRight(FigureColor color, boolean kingSide) {
+    Cell kingCell = cells[color == FigureColor.WHITE ? 4 : 60];
+    Cell rookCell = cells[kingCell.index() + (kingSide ? 3 : -4)];
+    return kingCell.isOccupiedBy(color, KING)
+        && !((King) kingCell.figure()).hasMoved()
+        && rookCell.isOccupiedBy(color, ROOK)
+        && !((Rook) rookCell.figure()).hasMoved();
   }
 
   public List<Cell> cellsWithColor(FigureColor myColor) {
-    List<Cell> cells = allCells();
-    cells.removeIf(cell -> !cell.isOccupiedBy(myColor));
-    return cells;
+    return cellsOf(bitboard.occupancy(myColor));
   }
 
   private void changeTurnAndCountMoves() {
@@ -227,6 +459,11 @@ public class Board {
   }
 
   public MoveType moveType(Cell startCell, Cell endCell) {
+    return Move.type(validMove(startCell, endCell));
+  }
+
+  // Encodes the move and throws if it is not allowed
+  public int validMove(Cell startCell, Cell endCell) {
     if (startCell.isFree()) {
       throw new InvalidUserInputException("On the starting cell is no figure");
     }
@@ -246,24 +483,7 @@ public class Board {
           "This move is not allowed as your king would be in check! Move a figure so that your king is not in check (anymore).");
     }
 
-    if (figure.type() == FigureType.KING) {
-      King king = (King) figure;
-      if (king.canPerformKingSideCastling(startCell)
-          && king.kingSideCastlingCell(startCell).isEqualTo(endCell)) {
-        return MoveType.KING_CASTLING;
-      }
-      if (king.canPerformQueenSideCastling(startCell)
-          && king.queenSideCastlingCell(startCell).isEqualTo(endCell)) {
-        return MoveType.QUEEN_CASTLING;
-      }
-    }
-
-    if (figure.type() == FigureType.PAWN
-        && ((Pawn) figure).canPerformEnPassant(startCell, endCell)) {
-      return MoveType.EN_PASSANT;
-    }
-
-    return MoveType.NORMAL;
+    return createMove(startCell, endCell);
   }
 
   public EndType endType(FigureColor color) {
@@ -293,6 +513,7 @@ public class Board {
     }
     startCell.setFigure(null);
     endCell.setFigure(figure);
+    markAsMoved(figure);
 
     if (figure.type() == FigureType.PAWN
         && Math.abs(startCell.y().toInt() - endCell.y().toInt()) == 2) {
@@ -318,19 +539,8 @@ public class Board {
       throw new UnsupportedOperationException("A castling move can only be done by a king.");
     }
 
-    Cell startRookCell;
-    Cell endRookCell;
-    switch (type) {
-      case KING_CASTLING -> {
-        startRookCell = findCell(Coordinate.fromChar('h'), startKingCell.y());
-        endRookCell = endKingCell.leftCell();
-      }
-      case QUEEN_CASTLING -> {
-        startRookCell = findCell(Coordinate.fromChar('a'), startKingCell.y());
-        endRookCell = endKingCell.rightCell();
-      }
-      default -> throw new UnsupportedOperationException("This is not a valid castling move.");
-    }
+    Cell startRookCell = castlingRookCell(startKingCell, type);
+    Cell endRookCell = castlingRookTargetCell(endKingCell, type);
 
     King king = (King) startKingCell.figure();
     king.figureMoved();
@@ -343,6 +553,18 @@ public class Board {
     endRookCell.setFigure(rook);
   }
 
+  private Cell castlingRookCell(Cell startKingCell, MoveType type) {
+    return switch (type) {
+      case KING_CASTLING -> findCell(Coordinate.fromChar('h'), startKingCell.y());
+      case QUEEN_CASTLING -> findCell(Coordinate.fromChar('a'), startKingCell.y());
+      default -> throw new UnsupportedOperationException("This is not a valid castling move.");
+    };
+  }
+
+  private Cell castlingRookTargetCell(Cell endKingCell, MoveType type) {
+    return type == MoveType.KING_CASTLING ? endKingCell.leftCell() : endKingCell.rightCell();
+  }
+
   public FigureColor turn() {
     return this.currentTurnColor;
   }
@@ -366,21 +588,18 @@ public class Board {
   }
 
   public boolean isPawnPromotionPossible() {
-    Predicate<Cell> pawnCanPromote = cell -> ((Pawn) cell.figure()).isAbleToPromote(cell);
-    return cellExistsWhere(isOccupiedBy(PAWN).and(pawnCanPromote));
-  }
-
-  private Predicate<Cell> isOccupiedBy(FigureType type) {
-    return cell -> cell.isOccupiedBy(type);
+    long whitePawnsAtLastRank = bitboard.pieces(FigureColor.WHITE, PAWN) & Bitboard.RANK_8;
+    long blackPawnsAtLastRank = bitboard.pieces(FigureColor.BLACK, PAWN) & Bitboard.RANK_1;
+    return (whitePawnsAtLastRank | blackPawnsAtLastRank) != 0;
   }
 
   public boolean isDeadPosition() {
     // while any major figure is on the board checkmate is still possible.
-    if (cellExistsWhere(isOccupiedBy(ROOK).or(isOccupiedBy(QUEEN).or(isOccupiedBy(PAWN))))) {
+    if ((bitboard.pieces(ROOK) | bitboard.pieces(QUEEN) | bitboard.pieces(PAWN)) != 0) {
       return false;
     }
 
-    int countOfMinorFigures = countCellsWhere(isOccupiedBy(BISHOP).or(isOccupiedBy(KNIGHT)));
+    int countOfMinorFigures = Long.bitCount(bitboard.pieces(BISHOP) | bitboard.pieces(KNIGHT));
     // if there are more than 2 minor figures on the board checkmate is still possible.
     if (countOfMinorFigures > 2) return false;
     // if there are less than 2 minor figures on the board it is a dead position.
@@ -388,12 +607,11 @@ public class Board {
 
     // there is one bishop of each color
     // both are on *cells of the same color* -> this is a dead position.
-    List<Cell> bishopCells = cellsWhere(isOccupiedBy(BISHOP));
-    List<FigureColor> bishopColors =
-        bishopCells.stream().map(cell -> cell.figure().color()).toList();
-    if (bishopColors.contains(FigureColor.WHITE) && bishopColors.contains(FigureColor.BLACK)) {
-      return bishopCells.getFirst().isCellBackgroundColorWhite()
-          == bishopCells.getLast().isCellBackgroundColorWhite();
+    long whiteBishop = bitboard.pieces(FigureColor.WHITE, BISHOP);
+    long blackBishop = bitboard.pieces(FigureColor.BLACK, BISHOP);
+    if (whiteBishop != 0 && blackBishop != 0) {
+      return cells[Long.numberOfTrailingZeros(whiteBishop)].isCellBackgroundColorWhite()
+          == cells[Long.numberOfTrailingZeros(blackBishop)].isCellBackgroundColorWhite();
     }
     return false;
   }
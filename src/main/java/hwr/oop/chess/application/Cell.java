@@ -10,6 +10,7 @@ import java.util.List;
 public class Cell {
   private final Coordinate y;
   private final Coordinate x;
+  private final Board board;
   private Figure figure;
   private Cell topCell;
   private Cell bottomCell;
@@ -22,12 +23,25 @@ public class Cell {
   private boolean isEnPassant = false;
 
   public Cell(Coordinate x, Coordinate y) {
+    this(x, y, null);
+  }
+
+  Cell(Coordinate x, Coordinate y, Board board) {
     this.x = x;
     this.y = y;
+    this.board = board;
   }
 
-  // Method to set the figure
+  // Method to set the figure and keep the bitboards of the board in sync
   public void setFigure(Figure figure) {
+    if (board != null) {
+      if (this.figure != null) {
+        board.bitboard().remove(index(), this.figure);
+      }
+      if (figure != null) {
+        board.bitboard().place(index(), figure);
+      }
+    }
     this.figure = figure;
   }
 
@@ -36,6 +50,10 @@ public class Cell {
     return figure;
   }
 
+  public Board board() {
+    return board;
+  }
+
   public boolean isOccupiedBy(FigureColor color) {
     return isOccupied() && figure.color() == color;
   }
@@ -139,6 +157,11 @@ public class Cell {
     return y;
   }
 
+  // Index of the cell on the board, from 0 (A1) to 63 (H8)
+  public int index() {
+    return (y.toInt() - 1) * 8 + x.toInt() - 1;
+  }
+
   public Cell cellInDirection(CellDirection direction) {
     return switch (direction) {
       case LEFT -> leftCell();
@@ -156,17 +179,6 @@ public class Cell {
     return cellInDirection(direction) != null;
   }
 
-  public void addAvailableCellsInDirectionToList(List<Cell> list, CellDirection direction) {
-    for (Cell cell : allCellsInDirection(direction)) {
-      if (cell.isFree() || cell.isOccupiedByOpponentOf(figure)) {
-        list.add(cell);
-      }
-      if (cell.isOccupied()) {
-        break;
-      }
-    }
-  }
-
   public boolean isEqualTo(Cell pos1) {
     Cell pos2 = this;
     return (pos1.x() == pos2.x()) && (pos1.y() == pos2.y());
@@ -239,25 +251,26 @@ public class Cell {
   }
 
   public Cell findCellInDirection(int count, CellDirection direction) {
-    for (Cell cell : allCellsInDirection(direction)) {
-      if (--count == 0) {
-        return cell;
-      }
+    Cell cell = this;
+    for (int i = 0; i < count && cell != null; i++) {
+      cell = cell.cellInDirection(direction);
     }
-    throw new IllegalArgumentException(
-        "The cell is not reachable in direction " + direction.name());
+    if (cell == null || count <= 0) {
+      throw new IllegalArgumentException(
+          "The cell is not reachable in direction " + direction.name());
+    }
+    return cell;
   }
 
   public boolean isFreeInDirection(int count, CellDirection direction) {
-    for (Cell cell : allCellsInDirection(direction)) {
-      if (cell.isOccupied()) {
+    Cell cell = this;
+    for (int i = 0; i < count; i++) {
+      cell = cell.cellInDirection(direction);
+      if (cell == null || cell.isOccupied()) {
         return false;
       }
-      if (--count == 0) {
-        return true;
-      }
     }
-    return false;
+    return count > 0;
   }
 
   public boolean isEnPassant() {
@@ -265,6 +278,9 @@ public class Cell {
   }
 
   public void setIsEnPassant(boolean enPassant) {
+    if (board != null) {
+      board.bitboard().setEnPassant(index(), enPassant);
+    }
     isEnPassant = enPassant;
   }
 
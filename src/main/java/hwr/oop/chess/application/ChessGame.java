@@ -3,6 +3,9 @@ package hwr.oop.chess.application;
 import hwr.oop.chess.application.figures.FigureColor;
 import hwr.oop.chess.application.figures.FigureType;
 import hwr.oop.chess.cli.InvalidUserInputException;
+import hwr.oop.chess.engine.ParallelSearch;
+import hwr.oop.chess.engine.PolyglotBook;
+import hwr.oop.chess.engine.SearchLimits;
 import hwr.oop.chess.persistence.*;
 
 import java.util.*;
@@ -16,6 +19,14 @@ public class ChessGame implements Game {
   private boolean isDrawOffered;
   private EndType endType = EndType.NOT_END;
   private final AlgebraicNotation algebraicNotation = new AlgebraicNotation();
+  // Zobrist keys of the positions in the fen history, so that they are compared as numbers
+  private long[] positionKeys = new long[16];
+  private int positionKeyCount;
+  // tells a stored position apart from the same position reached again after a cycle of moves
+  private int fullMoveOfLastPosition;
+  // the color played by the engine, or null if both players are humans
+  private FigureColor engineColor;
+  private long engineMillisPerMove;
 
   public ChessGame(Persistence persistence, boolean isNew) {
     this.persistence = persistence;
@@ -46,7 +57,12 @@ public class ChessGame implements Game {
     endType = EndType.valueOf(persistence.loadState(State.END_TYPE));
     isDrawOffered = "1".equals(persistence.loadState(State.IS_DRAW_OFFERED));
     parseIntoList(fenHistory, persistence.loadState(State.FEN_HISTORY));
+    for (String fen : fenHistory) {
+      FenNotation.parseFEN(board, fen);
+      addPositionOfBoard();
+    }
     parseIntoList(pgnHistory, persistence.loadState(State.PGN_HISTORY));
+    parseEngineOpponent(persistence.loadState(State.ENGINE_OPPONENT));
 
     players.put(
         FigureColor.WHITE,
@@ -89,10 +105,21 @@ public class ChessGame implements Game {
     Collections.addAll(list, listAsString.split(","));
   }
 
+  // games saved before the engine existed have no engine opponent
+  private void parseEngineOpponent(String engineOpponent) {
+    if (engineOpponent == null || engineOpponent.isEmpty()) {
+      return;
+    }
+    String[] colorAndMillis = engineOpponent.split(" ");
+    engineColor = FigureColor.valueOf(colorAndMillis[0]);
+    engineMillisPerMove = Long.parseLong(colorAndMillis[1]);
+  }
+
   private String fenHistoryOfBoard() {
     String currentFen = FenNotation.generateFen(board);
     if (fenHistory.isEmpty() || !currentFen.equals(fenHistory.getLast())) {
       fenHistory.add(currentFen);
+      addPositionOfBoard();
     }
     return String.join(",", fenHistory);
   }
@@ -108,6 +135,9 @@ public class ChessGame implements Game {
     persistence.storeState(State.IS_DRAW_OFFERED, isDrawOffered ? "1" : "0");
     persistence.storeState(State.FEN_HISTORY, fenHistoryOfBoard());
     persistence.storeState(State.PGN_HISTORY, pgnHistoryOfMoves());
+    persistence.storeState(
+        State.ENGINE_OPPONENT,
+        engineColor == null ? "" : engineColor.name() + " " + engineMillisPerMove);
 
     Player whitePlayer = players.get(FigureColor.WHITE);
     persistence.storeState(State.WHITE_SCORE, String.valueOf(whitePlayer.score()));
@@ -192,7 +222,7 @@ public class ChessGame implements Game {
 
   @Override
   public List<String> fenHistory() {
-    return this.fenHistory;
+    return Collections.unmodifiableList(fenHistory);
   }
 
   @Override
@@ -202,20 +232,26 @@ public class ChessGame implements Game {
 
   @Override
   public boolean isThreeFoldRepetition() {
-    String currentFen = FenNotation.generateFen(board);
-    if (!fenHistory.isEmpty() && !fenHistory.getLast().equals(currentFen)) {
-      fenHistory.add(FenNotation.generateFen(board));
-      boolean isThreeFoldRepetition = isThreeFoldRepetition();
-      fenHistory.removeLast();
-      return isThreeFoldRepetition;
+    long currentKey = board.zobristKey();
+    boolean isCurrentPositionStored =
+        positionKeyCount > 0
+            && positionKeys[positionKeyCount - 1] == currentKey
+            && fullMoveOfLastPosition == board.fullMove();
+    int repetitions = isCurrentPositionStored ? 0 : 1;
+    for (int i = 0; i < positionKeyCount; i++) {
+      if (positionKeys[i] == currentKey) {
+        repetitions++;
+      }
     }
+    return repetitions >= 3;
+  }
 
-    Map<String, Integer> positionCount = new HashMap<>();
-    for (String fenString : fenHistory) {
-      String key = FenNotation.extractFenKeyParts(fenString);
-      positionCount.put(key, positionCount.getOrDefault(key, 0) + 1);
+  private void addPositionOfBoard() {
+    if (positionKeyCount == positionKeys.length) {
+      positionKeys = Arrays.copyOf(positionKeys, positionKeys.length * 2);
     }
-    return positionCount.values().stream().anyMatch(x -> x >= 3);
+    positionKeys[positionKeyCount++] = board.zobristKey();
+    fullMoveOfLastPosition = board.fullMove();
   }
 
   @Override
@@ -227,11 +263,51 @@ public class ChessGame implements Game {
 
   @Override
   public void rememberAndPerformMove(Cell from, Cell to) {
-    algebraicNotation.recordAction(board, from, to);
-    board.moveFigure(from, to);
+    int move = board.validMove(from, to);
+    algebraicNotation.recordAction(board, move);
+    board.makeMove(move);
     algebraicNotation.actionFinished();
     if (from.isFree()) {
       pgnHistory.add(algebraicNotation.toString());
     }
   }
+
+  @Override
+  public void playAgainstEngine(FigureColor engineColor, long millisPerMove) {
+    if (millisPerMove <= 0) {
+      throw new IllegalArgumentException("The engine needs a positive time per move.");
+    }
+    this.engineColor = engineColor;
+    this.engineMillisPerMove = millisPerMove;
+  }
+
+  @Override
+  public void stopPlayingAgainstEngine() {
+    engineColor = null;
+  }
+
+  @Override
+  public boolean isEngineToMove() {
+    return board.turn() == engineColor && !board.isPawnPromotionPossible() && !isOver();
+  }
+
+  @Override
+  public int performEngineMove() {
+    if (!isEngineToMove()) {
+      throw new IllegalStateException("The engine is not allowed to move right now.");
+    }
+    // positions of the opening book need no search
+    PolyglotBook book = PolyglotBook.configured();
+    int move = book == null ? Move.NONE : book.pick(board, new Random());
+    if (move == Move.NONE) {
+      SearchLimits limits = SearchLimits.millis(engineMillisPerMove);
+      move = ParallelSearch.withConfiguredSettings(board).search(limits).bestMove();
+    }
+    Cell to = board.cellAt(Move.to(move));
+    rememberAndPerformMove(board.cellAt(Move.from(move)), to);
+    if (Move.isPromotion(move)) {
+      rememberAndPerformPawnPromotion(to, Move.promotion(move));
+    }
+    return move;
+  }
 }
@@ -38,4 +38,12 @@ public interface Game {
   void rememberAndPerformPawnPromotion(Cell startCell, FigureType toFigure);
 
   void rememberAndPerformMove(Cell from, Cell to);
+
+  void playAgainstEngine(FigureColor engineColor, long millisPerMove);
+
+  void stopPlayingAgainstEngine();
+
+  boolean isEngineToMove();
+
+  int performEngineMove();
 }
@@ -0,0 +1,205 @@
+package hwr.oop.chess.application;
+
+import static hwr.oop.chess.application.Bitboard.bit;
+
+public class MagicBitboards {
+  private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+  // found with the search in Table.findMagic, so that startup only has to fill the tables
+  private static final long[] ROOK_MAGICS = {
+    0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L,
+    0x0880100008000480L, 0x4200100420080200L, 0x8100020100080400L,
+    0x0200040110886200L, 0x0200008040220411L, 0x0404800084400220L,
+    0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+    0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L,
+    0x0442000102105084L, 0x9080010020804100L, 0x0040404000201009L,
+    0x0000808010002009L, 0x2200090021D00100L, 0x0008008008040080L,
+    0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+    0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L,
+    0x1000100080080080L, 0x0442000A00049020L, 0x2100040080020080L,
+    0x0800120400900148L, 0x0010040A00128541L, 0x2800804000800030L,
+    0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+    0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L,
+    0x0182085882000401L, 0x0220204000808000L, 0x2860100040024022L,
+    0x0001002004110040L, 0x99101042000A0020L, 0x0004080004008080L,
+    0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+    0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L,
+    0x0801100280080480L, 0x0242009008200600L, 0x1002000489500200L,
+    0x0040800200010080L, 0x0091800041000080L, 0x0000209300488001L,
+    0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+    0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L,
+    0x4000002840840112L
+  };
+
+  private static final long[] BISHOP_MAGICS = {
+    0x2048017020910100L, 0x0044410424008008L, 0x040828A400900000L,
+    0x8002209200022000L, 0x0002021000540002L, 0x0021018840000000L,
+    0x00009E8420204002L, 0x00A0920110084480L, 0x4003062018010110L,
+    0x0221046812004E09L, 0x01E11002958912A0L, 0x0000044410804000L,
+    0x0000821210000080L, 0x080201102210A800L, 0x0080040411045004L,
+    0x00704A1842021000L, 0x1005061070322800L, 0x0018001010410444L,
+    0x0010000800401420L, 0x2204002844000800L, 0x2052020412022280L,
+    0x000A020101008208L, 0x0040400201042000L, 0x03E1082040480410L,
+    0x1004200004208414L, 0x08700400984808C8L, 0x0088080004004410L,
+    0x008C0240140100A2L, 0x0008840001822000L, 0x0050088001080100L,
+    0x98140840040A2200L, 0x3002020900210110L, 0x1004040640206000L,
+    0x1090909000840400L, 0x9002444810100020L, 0x4000020080080080L,
+    0x0028020400011010L, 0x0290808300020100L, 0x8010020882004410L,
+    0x0604010040082C20L, 0x20040104C0801008L, 0x6004208424001050L,
+    0x1002840041000800L, 0x0200042018000102L, 0xA8002000A0821C00L,
+    0x0040080802201910L, 0x0222620444000100L, 0x0002080041020088L,
+    0x1500820110401050L, 0x0000492090100080L, 0x0900410041100000L,
+    0x0302000420880000L, 0x0010501202020020L, 0x0008200490049040L,
+    0x0462080214A40120L, 0x2421310102008100L, 0x2400420080884060L,
+    0x0800804406184208L, 0x0B0080124A084400L, 0x082E082300840412L,
+    0x6051049040082200L, 0xC610211002102101L, 0x0000048808010433L,
+    0x0010200804405440L
+  };
+
+  private static final Table ROOK = new Table(ROOK_DIRECTIONS, ROOK_MAGICS);
+  private static final Table BISHOP = new Table(BISHOP_DIRECTIONS, BISHOP_MAGICS);
+
+  private MagicBitboards() {}
+
+  public static long rookAttacks(int square, long occupancy) {
+    return ROOK.attacks(square, occupancy);
+  }
+
+  public static long bishopAttacks(int square, long occupancy) {
+    return BISHOP.attacks(square, occupancy);
+  }
+
+  public static long queenAttacks(int square, long occupancy) {
+    return ROOK.attacks(square, occupancy) | BISHOP.attacks(square, occupancy);
+  }
+
+  // Walks the rays cell by cell, only used to fill the tables and to verify them
+  static long slidingAttacks(int square, long occupancy, int[][] directions) {
+    long attacks = 0L;
+    for (int[] direction : directions) {
+      int x = square % 8 + direction[0];
+      int y = square / 8 + direction[1];
+      while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+        long b = bit(y * 8 + x);
+        attacks |= b;
+        if ((occupancy & b) != 0) {
+          break;
+        }
+        x += direction[0];
+        y += direction[1];
+      }
+    }
+    return attacks;
+  }
+
+  static long rookAttacksSlow(int square, long occupancy) {
+    return slidingAttacks(square, occupancy, ROOK_DIRECTIONS);
+  }
+
+  static long bishopAttacksSlow(int square, long occupancy) {
+    return slidingAttacks(square, occupancy, BISHOP_DIRECTIONS);
+  }
+
+  // "Fancy" magic bitboards: every square has its own slice of one shared attack array
+  private static final class Table {
+    private final long[] masks = new long[64];
+    private final long[] magics = new long[64];
+    private final int[] shifts = new int[64];
+    private final int[] offsets = new int[64];
+    private final long[] attacks;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    private Table(int[][] directions, long[] knownMagics) {
+      int size = 0;
+      for (int square = 0; square < 64; square++) {
+        masks[square] = relevantOccupancy(square, directions);
+        shifts[square] = 64 - Long.bitCount(masks[square]);
+        offsets[square] = size;
+        size += 1 << Long.bitCount(masks[square]);
+      }
+      attacks = new long[size];
+      for (int square = 0; square < 64; square++) {
+        findMagic(square, directions, knownMagics[square]);
+      }
+    }
+
+    private long attacks(int square, long occupancy) {
+      int index = (int) (((occupancy & masks[square]) * magics[square]) >>> shifts[square]);
+      return attacks[offsets[square] + index];
+    }
+
+    // the cells on the edge of a ray never block anything behind them
+    private static long relevantOccupancy(int square, int[][] directions) {
+      long mask = 0L;
+      for (int[] direction : directions) {
+        int x = square % 8 + direction[0];
+        int y = square / 8 + direction[1];
+        while (x + direction[0] >= 0
+            && x + direction[0] < 8
+            && y + direction[1] >= 0
+            && y + direction[1] < 8) {
+          mask |= bit(y * 8 + x);
+          x += direction[0];
+          y += direction[1];
+        }
+      }
+      return mask;
+    }
+
+    private void findMagic(int square, int[][] directions, long knownMagic) {
+      long mask = masks[square];
+      int count = 1 << Long.bitCount(mask);
+      long[] occupancies = new long[count];
+      long[] references = new long[count];
+
+      // enumerate all subsets of the mask (carry-rippler)
+      long subset = 0L;
+      for (int i = 0; i < count; i++) {
+        occupancies[i] = subset;
+        references[i] = slidingAttacks(square, subset, directions);
+        subset = (subset - mask) & mask;
+      }
+
+      int[] usedInTry = new int[count];
+      if (fillsWithoutCollision(square, knownMagic, occupancies, references, usedInTry, 1)) {
+        magics[square] = knownMagic;
+        return;
+      }
+      // the known magic does not fit (e.g. after changing the masks), search a new one
+      for (int tries = 2; ; tries++) {
+        long magic = nextRandom() & nextRandom() & nextRandom();
+        if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+          continue;
+        }
+        if (fillsWithoutCollision(square, magic, occupancies, references, usedInTry, tries)) {
+          magics[square] = magic;
+          return;
+        }
+      }
+    }
+
+    private boolean fillsWithoutCollision(
+        int square, long magic, long[] occupancies, long[] references, int[] usedInTry, int tries) {
+      for (int i = 0; i < occupancies.length; i++) {
+        int index = (int) ((occupancies[i] * magic) >>> shifts[square]);
+        int slot = offsets[square] + index;
+        if (usedInTry[index] != tries) {
+          usedInTry[index] = tries;
+          attacks[slot] = references[i];
+        } else if (attacks[slot] != references[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // xorshift64* with a fixed seed, so the same magics are found on every start
+    private long nextRandom() {
+      seed ^= seed >>> 12;
+      seed ^= seed << 25;
+      seed ^= seed >>> 27;
+      return seed * 0x2545F4914F6CDD1DL;
+    }
+  }
+}
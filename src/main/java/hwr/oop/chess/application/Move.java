@@ -0,0 +1,99 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureType;
+
+// A move packed into an int, so that move lists and the undo stack don't allocate:
+// bits 0-5 start cell, bits 6-11 end cell, bits 12-14 promotion type (0 = none), bits 15-18 flags
+public final class Move {
+  public static final int NONE = 0;
+  public static final int CAPTURE = 1 << 15;
+  public static final int EN_PASSANT = 1 << 16;
+  public static final int CASTLING = 1 << 17;
+  public static final int DOUBLE_PUSH = 1 << 18;
+
+  private static final int CELL_MASK = 0x3F;
+  private static final int PROMOTION_SHIFT = 12;
+  private static final int PROMOTION_MASK = 0x7;
+  private static final FigureType[] FIGURE_TYPES = FigureType.values();
+
+  private Move() {}
+
+  public static int of(int from, int to) {
+    return of(from, to, 0);
+  }
+
+  public static int of(int from, int to, int flags) {
+    return from | (to << 6) | flags;
+  }
+
+  public static int withPromotion(int move, FigureType promotion) {
+    int withoutPromotion = move & ~(PROMOTION_MASK << PROMOTION_SHIFT);
+    return withoutPromotion | (promotion.ordinal() << PROMOTION_SHIFT);
+  }
+
+  public static int from(int move) {
+    return move & CELL_MASK;
+  }
+
+  public static int to(int move) {
+    return (move >>> 6) & CELL_MASK;
+  }
+
+  // the king has ordinal 0, so a promotion type is never 0
+  public static FigureType promotion(int move) {
+    int promotion = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+    return promotion == 0 ? null : FIGURE_TYPES[promotion];
+  }
+
+  public static boolean isPromotion(int move) {
+    return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+  }
+
+  public static boolean isCapture(int move) {
+    return (move & CAPTURE) != 0;
+  }
+
+  public static boolean isEnPassant(int move) {
+    return (move & EN_PASSANT) != 0;
+  }
+
+  public static boolean isCastling(int move) {
+    return (move & CASTLING) != 0;
+  }
+
+  public static boolean isDoublePush(int move) {
+    return (move & DOUBLE_PUSH) != 0;
+  }
+
+  public static MoveType type(int move) {
+    if (isCastling(move)) {
+      return to(move) > from(move) ? MoveType.KING_CASTLING : MoveType.QUEEN_CASTLING;
+    }
+    return isEnPassant(move) ? MoveType.EN_PASSANT : MoveType.NORMAL;
+  }
+
+  // in coordinate notation, e.g. "e2e4" or "e7e8q"
+  public static String toString(int move) {
+    StringBuilder string = new StringBuilder(5);
+    string.append(cellName(from(move))).append(cellName(to(move)));
+    if (isPromotion(move)) {
+      string.append(promotionLetter(promotion(move)));
+    }
+    return string.toString();
+  }
+
+  // the first letter of the name would turn a knight into "k"
+  private static char promotionLetter(FigureType type) {
+    return switch (type) {
+      case QUEEN -> 'q';
+      case ROOK -> 'r';
+      case BISHOP -> 'b';
+      case KNIGHT -> 'n';
+      default -> throw new IllegalArgumentException("A pawn cannot be promoted to a " + type + ".");
+    };
+  }
+
+  private static String cellName(int index) {
+    return (char) ('a' + index % 8) + String.valueOf(index / 8 + 1);
+  }
+}
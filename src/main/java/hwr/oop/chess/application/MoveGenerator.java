@@ -0,0 +1,199 @@
+package hwr.oop.chess.application;
+
+import static hwr.oop.chess.application.Bitboard.bit;
+import static hwr.oop.chess.application.figures.FigureType.*;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+// Generates all legal moves of a player at once. Pins and checks are computed once per position,
+// so no move has to be tried on the board to find out whether it leaves the king in check.
+public class MoveGenerator {
+  private static final FigureType[] PROMOTION_TYPES = {QUEEN, ROOK, BISHOP, KNIGHT};
+
+  private MoveGenerator() {}
+
+  public static void generateLegalMoves(Board board, MoveList moves) {
+    generateLegalMoves(board, board.turn(), moves);
+  }
+
+  public static void generateLegalMoves(Board board, FigureColor color, MoveList moves) {
+    moves.clear();
+    Bitboard bitboard = board.bitboard();
+    FigureColor opponent = color.ofOpponent();
+    long own = bitboard.occupancy(color);
+    long opponents = bitboard.occupancy(opponent);
+    long occupancy = own | opponents;
+    int king = board.findKingCell(color).index();
+
+    // the king must not step onto a cell which is only safe because the king itself blocks it
+    long kingTargets = AttackTables.kingAttacks(king) & ~own;
+    for (; kingTargets != 0; kingTargets &= kingTargets - 1) {
+      int to = Long.numberOfTrailingZeros(kingTargets);
+      if (bitboard.attackersOf(to, opponent, occupancy & ~bit(king)) == 0) {
+        moves.add(Move.of(king, to, (opponents & bit(to)) != 0 ? Move.CAPTURE : 0));
+      }
+    }
+
+    long checkers = bitboard.attackersOf(king, opponent);
+    if (Long.bitCount(checkers) > 1) {
+      // in a double check only the king can move
+      return;
+    }
+
+    // cells which block or capture the checking figure, or every cell without a check
+    long checkMask = -1L;
+    if (checkers != 0) {
+      int checker = Long.numberOfTrailingZeros(checkers);
+      checkMask = checkers | AttackTables.between(king, checker);
+    } else {
+      addCastlingMoves(board, color, king, moves);
+    }
+    long pinned = pinnedFigures(bitboard, color, king);
+    long targets = ~own & checkMask;
+
+    // a pinned knight can never stay on the line to its king
+    long knights = bitboard.pieces(color, KNIGHT) & ~pinned;
+    for (; knights != 0; knights &= knights - 1) {
+      int from = Long.numberOfTrailingZeros(knights);
+      addMoves(from, AttackTables.knightAttacks(from) & targets, opponents, moves);
+    }
+
+    long rooksAndQueens = bitboard.pieces(color, ROOK) | bitboard.pieces(color, QUEEN);
+    for (; rooksAndQueens != 0; rooksAndQueens &= rooksAndQueens - 1) {
+      int from = Long.numberOfTrailingZeros(rooksAndQueens);
+      long attacks = MagicBitboards.rookAttacks(from, occupancy) & targets;
+      addMoves(from, attacks & pinRay(pinned, king, from), opponents, moves);
+    }
+
+    long bishopsAndQueens = bitboard.pieces(color, BISHOP) | bitboard.pieces(color, QUEEN);
+    for (; bishopsAndQueens != 0; bishopsAndQueens &= bishopsAndQueens - 1) {
+      int from = Long.numberOfTrailingZeros(bishopsAndQueens);
+      long attacks = MagicBitboards.bishopAttacks(from, occupancy) & targets;
+      addMoves(from, attacks & pinRay(pinned, king, from), opponents, moves);
+    }
+
+    addPawnMoves(board, color, king, checkMask, pinned, moves);
+  }
+
+  // Own figures which are the only figure between the king and an opponent rook, bishop or queen
+  private static long pinnedFigures(Bitboard bitboard, FigureColor color, int king) {
+    FigureColor opponent = color.ofOpponent();
+    long occupancy = bitboard.occupancy();
+    long opponentQueens = bitboard.pieces(opponent, QUEEN);
+    long pinners =
+        (MagicBitboards.rookAttacks(king, bitboard.occupancy(opponent))
+                & (bitboard.pieces(opponent, ROOK) | opponentQueens))
+            | (MagicBitboards.bishopAttacks(king, bitboard.occupancy(opponent))
+                & (bitboard.pieces(opponent, BISHOP) | opponentQueens));
+
+    long pinned = 0L;
+    for (; pinners != 0; pinners &= pinners - 1) {
+      long between = AttackTables.between(king, Long.numberOfTrailingZeros(pinners)) & occupancy;
+      if (Long.bitCount(between) == 1) {
+        pinned |= between & bitboard.occupancy(color);
+      }
+    }
+    return pinned;
+  }
+
+  // a pinned figure may only move along the line between the king and the pinning figure
+  private static long pinRay(long pinned, int king, int from) {
+    return (pinned & bit(from)) != 0 ? AttackTables.line(king, from) : -1L;
+  }
+
+  private static void addMoves(int from, long targets, long opponents, MoveList moves) {
+    for (; targets != 0; targets &= targets - 1) {
+      int to = Long.numberOfTrailingZeros(targets);
+      moves.add(Move.of(from, to, (opponents & bit(to)) != 0 ? Move.CAPTURE : 0));
+    }
+  }
+
+  private static void addPawnMoves(
+      Board board, FigureColor color, int king, long checkMask, long pinned, MoveList moves) {
+    Bitboard bitboard = board.bitboard();
+    long occupancy = bitboard.occupancy();
+    long opponents = bitboard.occupancy(color.ofOpponent());
+    int forwards = color == FigureColor.WHITE ? 8 : -8;
+    long startRank = color == FigureColor.WHITE ? Bitboard.RANK_1 << 8 : Bitboard.RANK_8 >>> 8;
+
+    for (long pawns = bitboard.pieces(color, PAWN); pawns != 0; pawns &= pawns - 1) {
+      int from = Long.numberOfTrailingZeros(pawns);
+      long allowed = checkMask & pinRay(pinned, king, from);
+
+      long captures = AttackTables.pawnAttacks(from, color) & opponents & allowed;
+      for (; captures != 0; captures &= captures - 1) {
+        addPawnMove(Move.of(from, Long.numberOfTrailingZeros(captures), Move.CAPTURE), moves);
+      }
+
+      // a pawn on the last rank is waiting for its promotion
+      int oneForwards = from + forwards;
+      if (oneForwards < 0 || oneForwards >= 64 || (occupancy & bit(oneForwards)) != 0) {
+        continue;
+      }
+      if ((allowed & bit(oneForwards)) != 0) {
+        addPawnMove(Move.of(from, oneForwards), moves);
+      }
+      int twoForwards = oneForwards + forwards;
+      if ((startRank & bit(from)) != 0
+          && (occupancy & bit(twoForwards)) == 0
+          && (allowed & bit(twoForwards)) != 0) {
+        moves.add(Move.of(from, twoForwards, Move.DOUBLE_PUSH));
+      }
+    }
+
+    addEnPassantMoves(board, color, king, moves);
+  }
+
+  private static void addPawnMove(int move, MoveList moves) {
+    int to = Move.to(move);
+    if (to < 8 || to >= 56) {
+      for (FigureType type : PROMOTION_TYPES) {
+        moves.add(Move.withPromotion(move, type));
+      }
+    } else {
+      moves.add(move);
+    }
+  }
+
+  // en passant removes two figures from a rank at once, so it is simply tested on the occupancy
+  private static void addEnPassantMoves(Board board, FigureColor color, int king, MoveList moves) {
+    Bitboard bitboard = board.bitboard();
+    FigureColor opponent = color.ofOpponent();
+    long opponentPawns = bitboard.pieces(opponent, PAWN);
+    for (long enPassant = bitboard.enPassant(); enPassant != 0; enPassant &= enPassant - 1) {
+      int to = Long.numberOfTrailingZeros(enPassant);
+      int captured = color == FigureColor.WHITE ? to - 8 : to + 8;
+      if (captured < 0 || captured >= 64 || (opponentPawns & bit(captured)) == 0) {
+        continue;
+      }
+
+      long pawns = AttackTables.pawnAttacks(to, opponent) & bitboard.pieces(color, PAWN);
+      for (; pawns != 0; pawns &= pawns - 1) {
+        int from = Long.numberOfTrailingZeros(pawns);
+        long occupancyAfterMove = (bitboard.occupancy() & ~bit(from) & ~bit(captured)) | bit(to);
+        if (bitboard.attackersOf(king, opponent, occupancyAfterMove) == 0) {
+          moves.add(Move.of(from, to, Move.EN_PASSANT | Move.CAPTURE));
+        }
+      }
+    }
+  }
+
+  private static void addCastlingMoves(Board board, FigureColor color, int king, MoveList moves) {
+    Bitboard bitboard = board.bitboard();
+    FigureColor opponent = color.ofOpponent();
+    long occupancy = bitboard.occupancy();
+    if (board.hasCastlingRight(color, true)
+        && (occupancy & AttackTables.between(king, king + 3)) == 0
+        && !bitboard.isAttacked(king + 1, opponent)
+        && !bitboard.isAttacked(king + 2, opponent)) {
+      moves.add(Move.of(king, king + 2, Move.CASTLING));
+    }
+    if (board.hasCastlingRight(color, false)
+        && (occupancy & AttackTables.between(king, king - 4)) == 0
+        && !bitboard.isAttacked(king - 1, opponent)
+        && !bitboard.isAttacked(king - 2, opponent)) {
+      moves.add(Move.of(king, king - 2, Move.CASTLING));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package hwr.oop.chess.application;
+
+import java.util.Arrays;
+
+// Growable list of int-encoded moves, meant to be reused with clear()
+public class MoveList {
+  // no legal chess position has more than 218 moves
+  private static final int DEFAULT_CAPACITY = 256;
+  private int[] moves;
+  private int size;
+
+  public MoveList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MoveList(int capacity) {
+    this.moves = new int[capacity];
+  }
+
+  public void add(int move) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, moves.length * 2);
+    }
+    moves[size++] = move;
+  }
+
+  public int get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("There is no move at index " + index + ".");
+    }
+    return moves[index];
+  }
+
+  public void set(int index, int move) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("There is no move at index " + index + ".");
+    }
+    moves[index] = move;
+  }
+
+  public void swap(int first, int second) {
+    int move = get(first);
+    set(first, get(second));
+    set(second, move);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public boolean contains(int move) {
+    for (int i = 0; i < size; i++) {
+      if (moves[i] == move) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(moves, size);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder string = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      string.append(i == 0 ? "" : ", ").append(Move.toString(moves[i]));
+    }
+    return string.append(']').toString();
+  }
+}
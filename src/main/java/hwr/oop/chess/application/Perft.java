@@ -0,0 +1,64 @@
+package hwr.oop.chess.application;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Counts the leaf nodes of the tree of legal moves ("performance test"), to verify the move
+// generation against known numbers and to measure its speed
+public class Perft {
+  private final Board board;
+  private final MoveList[] movesPerDepth;
+
+  public Perft(Board board, int maxDepth) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("The depth of perft must be at least 1.");
+    }
+    this.board = board;
+    this.movesPerDepth = new MoveList[maxDepth + 1];
+    for (int depth = 0; depth <= maxDepth; depth++) {
+      movesPerDepth[depth] = new MoveList();
+    }
+  }
+
+  public static long perft(Board board, int depth) {
+    return new Perft(board, depth).count(depth);
+  }
+
+  // Number of leaf nodes below every legal move of the current position
+  public static Map<String, Long> divide(Board board, int depth) {
+    Perft perft = new Perft(board, depth);
+    MoveList moves = perft.movesPerDepth[depth];
+    MoveGenerator.generateLegalMoves(board, moves);
+
+    Map<String, Long> nodesPerMove = new LinkedHashMap<>();
+    for (int i = 0; i < moves.size(); i++) {
+      board.makeMove(moves.get(i));
+      nodesPerMove.put(Move.toString(moves.get(i)), perft.count(depth - 1));
+      board.unmakeMove();
+    }
+    return nodesPerMove;
+  }
+
+  public long count(int depth) {
+    if (depth >= movesPerDepth.length) {
+      throw new IllegalArgumentException("The depth can be at most " + (movesPerDepth.length - 1));
+    }
+    if (depth == 0) {
+      return 1;
+    }
+    MoveList moves = movesPerDepth[depth];
+    MoveGenerator.generateLegalMoves(board, moves);
+    if (depth == 1) {
+      // the leaves don't have to be visited
+      return moves.size();
+    }
+
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      board.makeMove(moves.get(i));
+      nodes += count(depth - 1);
+      board.unmakeMove();
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,145 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+// Value of a figure on a cell in centipawns, material included, once for the middlegame and once
+// for the endgame. The Bitboard adds them up whenever a figure is placed or removed.
+public class PieceSquareTables {
+  public static final int MAX_PHASE = 24;
+
+  // indexed by the ordinal of the FigureType (KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN)
+  private static final int[] VALUES = {0, 900, 500, 330, 320, 100};
+  private static final int[] PHASE_WEIGHTS = {0, 4, 2, 1, 1, 0};
+
+  // seen from white, the first row is rank 8
+  private static final int[] KING_MIDDLEGAME = {
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -20, -30, -30, -40, -40, -30, -30, -20,
+    -10, -20, -20, -20, -20, -20, -20, -10,
+    20, 20, 0, 0, 0, 0, 20, 20,
+    20, 30, 10, 0, 0, 10, 30, 20
+  };
+  private static final int[] KING_ENDGAME = {
+    -50, -40, -30, -20, -20, -30, -40, -50,
+    -30, -20, -10, 0, 0, -10, -20, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -30, 0, 0, 0, 0, -30, -30,
+    -50, -30, -30, -30, -30, -30, -30, -50
+  };
+  private static final int[] QUEEN = {
+    -20, -10, -10, -5, -5, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 5, 5, 5, 0, -10,
+    -5, 0, 5, 5, 5, 5, 0, -5,
+    0, 0, 5, 5, 5, 5, 0, -5,
+    -10, 5, 5, 5, 5, 5, 0, -10,
+    -10, 0, 5, 0, 0, 0, 0, -10,
+    -20, -10, -10, -5, -5, -10, -10, -20
+  };
+  private static final int[] ROOK = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    5, 10, 10, 10, 10, 10, 10, 5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    0, 0, 0, 5, 5, 0, 0, 0
+  };
+  private static final int[] BISHOP = {
+    -20, -10, -10, -10, -10, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 10, 10, 5, 0, -10,
+    -10, 5, 5, 10, 10, 5, 5, -10,
+    -10, 0, 10, 10, 10, 10, 0, -10,
+    -10, 10, 10, 10, 10, 10, 10, -10,
+    -10, 5, 0, 0, 0, 0, 5, -10,
+    -20, -10, -10, -10, -10, -10, -10, -20
+  };
+  private static final int[] KNIGHT = {
+    -50, -40, -30, -30, -30, -30, -40, -50,
+    -40, -20, 0, 0, 0, 0, -20, -40,
+    -30, 0, 10, 15, 15, 10, 0, -30,
+    -30, 5, 15, 20, 20, 15, 5, -30,
+    -30, 0, 15, 20, 20, 15, 0, -30,
+    -30, 5, 10, 15, 15, 10, 5, -30,
+    -40, -20, 0, 5, 5, 0, -20, -40,
+    -50, -40, -30, -30, -30, -30, -40, -50
+  };
+  private static final int[] PAWN_MIDDLEGAME = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    50, 50, 50, 50, 50, 50, 50, 50,
+    10, 10, 20, 30, 30, 20, 10, 10,
+    5, 5, 10, 25, 25, 10, 5, 5,
+    0, 0, 0, 20, 20, 0, 0, 0,
+    5, -5, -10, 0, 0, -10, -5, 5,
+    5, 10, 10, -20, -20, 10, 10, 5,
+    0, 0, 0, 0, 0, 0, 0, 0
+  };
+  // in the endgame every step towards the promotion counts
+  private static final int[] PAWN_ENDGAME = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    80, 80, 80, 80, 80, 80, 80, 80,
+    50, 50, 50, 50, 50, 50, 50, 50,
+    30, 30, 30, 30, 30, 30, 30, 30,
+    15, 15, 15, 15, 15, 15, 15, 15,
+    5, 5, 5, 5, 5, 5, 5, 5,
+    0, 0, 0, 0, 0, 0, 0, 0,
+    0, 0, 0, 0, 0, 0, 0, 0
+  };
+
+  // index = (color * 6 + type) * 64 + cell, black values are negative
+  private static final int[] MIDDLEGAME = new int[12 * 64];
+  private static final int[] ENDGAME = new int[12 * 64];
+
+  static {
+    int[][] middlegameTables = {
+      KING_MIDDLEGAME, QUEEN, ROOK, BISHOP, KNIGHT, PAWN_MIDDLEGAME
+    };
+    int[][] endgameTables = {KING_ENDGAME, QUEEN, ROOK, BISHOP, KNIGHT, PAWN_ENDGAME};
+    for (FigureColor color : FigureColor.values()) {
+      int sign = color == FigureColor.WHITE ? 1 : -1;
+      // the tables are written with rank 8 first, so white cells are mirrored and black ones not
+      int mirror = color == FigureColor.WHITE ? 56 : 0;
+      for (FigureType type : FigureType.values()) {
+        for (int square = 0; square < 64; square++) {
+          int index = tableIndex(color, type, square);
+          int value = VALUES[type.ordinal()];
+          MIDDLEGAME[index] = sign * (value + middlegameTables[type.ordinal()][square ^ mirror]);
+          ENDGAME[index] = sign * (value + endgameTables[type.ordinal()][square ^ mirror]);
+        }
+      }
+    }
+  }
+
+  private PieceSquareTables() {}
+
+  private static int tableIndex(FigureColor color, FigureType type, int square) {
+    return (color.ordinal() * 6 + type.ordinal()) * 64 + square;
+  }
+
+  public static int value(FigureType type) {
+    return VALUES[type.ordinal()];
+  }
+
+  // from the view of white
+  public static int middlegame(FigureColor color, FigureType type, int square) {
+    return MIDDLEGAME[tableIndex(color, type, square)];
+  }
+
+  public static int endgame(FigureColor color, FigureType type, int square) {
+    return ENDGAME[tableIndex(color, type, square)];
+  }
+
+  // how much a figure counts towards the middlegame, MAX_PHASE with all figures on the board
+  public static int phaseWeight(FigureType type) {
+    return PHASE_WEIGHTS[type.ordinal()];
+  }
+}
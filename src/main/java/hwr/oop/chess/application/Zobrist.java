@@ -0,0 +1,71 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+// Random keys for Zobrist hashing: the key of a position is the XOR of the keys of its parts,
+// so every change of the position can be applied (and reverted) with a single XOR
+public class Zobrist {
+  public static final int WHITE_KING_SIDE = 1;
+  public static final int WHITE_QUEEN_SIDE = 2;
+  public static final int BLACK_KING_SIDE = 4;
+  public static final int BLACK_QUEEN_SIDE = 8;
+
+  private static final long[] PIECES = new long[12 * 64];
+  private static final long[] CASTLING = new long[16];
+  private static final long[] EN_PASSANT_FILES = new long[8];
+  private static final long BLACK_TO_MOVE;
+
+  static {
+    // xorshift64* with a fixed seed, so that the keys are the same on every start
+    long seed = 0x2545F4914F6CDD1DL;
+    for (int i = 0; i < PIECES.length; i++) {
+      seed = next(seed);
+      PIECES[i] = seed * 0x2545F4914F6CDD1DL;
+    }
+    for (int i = 0; i < EN_PASSANT_FILES.length; i++) {
+      seed = next(seed);
+      EN_PASSANT_FILES[i] = seed * 0x2545F4914F6CDD1DL;
+    }
+    long[] castlingSides = new long[4];
+    for (int i = 0; i < castlingSides.length; i++) {
+      seed = next(seed);
+      castlingSides[i] = seed * 0x2545F4914F6CDD1DL;
+    }
+    for (int rights = 0; rights < CASTLING.length; rights++) {
+      for (int side = 0; side < castlingSides.length; side++) {
+        if ((rights & (1 << side)) != 0) {
+          CASTLING[rights] ^= castlingSides[side];
+        }
+      }
+    }
+    seed = next(seed);
+    BLACK_TO_MOVE = seed * 0x2545F4914F6CDD1DL;
+  }
+
+  private Zobrist() {}
+
+  private static long next(long seed) {
+    seed ^= seed >>> 12;
+    seed ^= seed << 25;
+    seed ^= seed >>> 27;
+    return seed;
+  }
+
+  public static long piece(FigureColor color, FigureType type, int square) {
+    return PIECES[(color.ordinal() * 6 + type.ordinal()) * 64 + square];
+  }
+
+  // only the file matters, the rank follows from the player to move
+  public static long enPassant(int square) {
+    return EN_PASSANT_FILES[square % 8];
+  }
+
+  public static long castling(int rights) {
+    return CASTLING[rights];
+  }
+
+  public static long blackToMove() {
+    return BLACK_TO_MOVE;
+  }
+}
@@ -1,9 +1,10 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
-import hwr.oop.chess.application.CellDirection;
+import hwr.oop.chess.application.MagicBitboards;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public record Bishop(FigureColor color) implements Figure {
@@ -11,14 +12,10 @@ public record Bishop(FigureColor color) implements Figure {
 
   @Override
   public List<Cell> availableCells(Cell currentCell) {
-    List<Cell> cells = new ArrayList<>();
-
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.TOP_LEFT);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.TOP_RIGHT);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.BOTTOM_LEFT);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.BOTTOM_RIGHT);
-
-    return cells;
+    Board board = currentCell.board();
+    Bitboard bitboard = board.bitboard();
+    long attacks = MagicBitboards.bishopAttacks(currentCell.index(), bitboard.occupancy());
+    return board.cellsOf(attacks & ~bitboard.occupancy(color()));
   }
 
   @Override
@@ -1,8 +1,10 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
 import hwr.oop.chess.application.CellDirection;
-import java.util.ArrayList;
 import java.util.List;
 
 public class King implements Figure {
@@ -17,17 +19,9 @@ public class King implements Figure {
 
   @Override
   public List<Cell> availableCells(Cell currentCell) {
-    List<Cell> cells = new ArrayList<>();
-
-    // Loop though all Directions
-    for (CellDirection direction : CellDirection.values()) {
-      if (currentCell.hasCellInDirection(direction)) {
-        Cell neighbourCell = currentCell.cellInDirection(direction);
-        if (neighbourCell.isFree() || neighbourCell.isOccupiedByOpponentOf(color())) {
-          cells.add(neighbourCell);
-        }
-      }
-    }
+    Board board = currentCell.board();
+    long ownCells = board.bitboard().occupancy(color());
+    List<Cell> cells = board.cellsOf(AttackTables.kingAttacks(currentCell.index()) & ~ownCells);
 
     // Add cells for castling King
     if (canPerformKingSideCastling(currentCell)) {
@@ -57,7 +51,8 @@ public class King implements Figure {
 
     Cell rookCell = currentCell.findCellInDirection(3, CellDirection.RIGHT);
     return rookCell.isOccupiedBy(color(), FigureType.ROOK)
-        && !((Rook) rookCell.figure()).hasMoved();
+        && !((Rook) rookCell.figure()).hasMoved()
+        && !isAttackedOnCastlingPath(currentCell, CellDirection.RIGHT);
   }
 
   public boolean canPerformQueenSideCastling(Cell currentCell) {
@@ -67,7 +62,16 @@ public class King implements Figure {
 
     Cell rookCell = currentCell.findCellInDirection(4, CellDirection.LEFT);
     return rookCell.isOccupiedBy(color(), FigureType.ROOK)
-        && !((Rook) rookCell.figure()).hasMoved();
+        && !((Rook) rookCell.figure()).hasMoved()
+        && !isAttackedOnCastlingPath(currentCell, CellDirection.LEFT);
+  }
+
+  // The king may not castle out of check or through an attacked cell
+  private boolean isAttackedOnCastlingPath(Cell currentCell, CellDirection direction) {
+    Bitboard bitboard = currentCell.board().bitboard();
+    FigureColor opponent = color.ofOpponent();
+    return bitboard.isAttacked(currentCell.index(), opponent)
+        || bitboard.isAttacked(currentCell.cellInDirection(direction).index(), opponent);
   }
 
   @Override
@@ -99,4 +103,8 @@ public class King implements Figure {
       this.hasMoved = true;
     }
   }
+
+  public void figureNotMoved() {
+    this.hasMoved = false;
+  }
 }
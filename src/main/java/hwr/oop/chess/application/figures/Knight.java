@@ -1,9 +1,9 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
 
-import java.util.ArrayList;
-import java.util.Objects;
 import java.util.List;
 
 public record Knight(FigureColor color) implements Figure {
@@ -11,32 +11,9 @@ public record Knight(FigureColor color) implements Figure {
 
   @Override
   public List<Cell> availableCells(Cell currentCell) {
-    List<Cell> cells = new ArrayList<>();
-
-    if (currentCell.hasTopCell()) {
-      cells.add(currentCell.topCell().topLeftCell());
-      cells.add(currentCell.topCell().topRightCell());
-    }
-    if (currentCell.hasBottomCell()) {
-      cells.add(currentCell.bottomCell().bottomLeftCell());
-      cells.add(currentCell.bottomCell().bottomRightCell());
-    }
-    if (currentCell.hasLeftCell()) {
-      cells.add(currentCell.leftCell().topLeftCell());
-      cells.add(currentCell.leftCell().bottomLeftCell());
-    }
-    if (currentCell.hasRightCell()) {
-      cells.add(currentCell.rightCell().topRightCell());
-      cells.add(currentCell.rightCell().bottomRightCell());
-    }
-
-    // Remove if cell is null
-    cells.removeIf(Objects::isNull);
-
-    // Remove cell if figure is mine
-    cells.removeIf(cell -> cell.isOccupiedBy(color()));
-
-    return cells;
+    Board board = currentCell.board();
+    long ownCells = board.bitboard().occupancy(color());
+    return board.cellsOf(AttackTables.knightAttacks(currentCell.index()) & ~ownCells);
   }
 
   @Override
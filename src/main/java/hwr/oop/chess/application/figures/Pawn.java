@@ -1,5 +1,7 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
 import hwr.oop.chess.application.CellDirection;
 import hwr.oop.chess.application.Coordinate;
@@ -45,20 +47,14 @@ public record Pawn(FigureColor color) implements Figure {
       cells.add(twoFieldForwards);
     }
 
-    // move one field diagonally left
-    Cell diagonalLeftCell = oneFieldForwards.leftCell();
-    if (oneFieldForwards.hasLeftCell()
-        && (diagonalLeftCell.isOccupiedByOpponentOf(color())
-            || canPerformEnPassant(currentCell, diagonalLeftCell))) {
-      cells.add(diagonalLeftCell);
-    }
-
-    // move one field diagonally right
-    Cell diagonalRightCell = oneFieldForwards.rightCell();
-    if (oneFieldForwards.hasRightCell()
-        && (diagonalRightCell.isOccupiedByOpponentOf(color())
-            || canPerformEnPassant(currentCell, diagonalRightCell))) {
-      cells.add(diagonalRightCell);
+    // capture one field diagonally (or en passant)
+    Board board = currentCell.board();
+    long diagonalCells = AttackTables.pawnAttacks(currentCell.index(), color());
+    cells.addAll(board.cellsOf(diagonalCells & board.bitboard().occupancy(color().ofOpponent())));
+    for (Cell enPassantCell : board.cellsOf(diagonalCells & board.bitboard().enPassant())) {
+      if (canPerformEnPassant(currentCell, enPassantCell)) {
+        cells.add(enPassantCell);
+      }
     }
     return cells;
   }
@@ -1,9 +1,10 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
-import hwr.oop.chess.application.CellDirection;
+import hwr.oop.chess.application.MagicBitboards;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public record Queen(FigureColor color) implements Figure {
@@ -11,12 +12,10 @@ public record Queen(FigureColor color) implements Figure {
 
   @Override
   public List<Cell> availableCells(Cell currentCell) {
-    List<Cell> cells = new ArrayList<>();
-
-    for (CellDirection direction : CellDirection.values()) {
-      currentCell.addAvailableCellsInDirectionToList(cells, direction);
-    }
-    return cells;
+    Board board = currentCell.board();
+    Bitboard bitboard = board.bitboard();
+    long attacks = MagicBitboards.queenAttacks(currentCell.index(), bitboard.occupancy());
+    return board.cellsOf(attacks & ~bitboard.occupancy(color()));
   }
 
   @Override
@@ -1,9 +1,10 @@
 package hwr.oop.chess.application.figures;
 
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
-import hwr.oop.chess.application.CellDirection;
+import hwr.oop.chess.application.MagicBitboards;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Rook implements Figure {
@@ -18,15 +19,10 @@ public class Rook implements Figure {
 
   @Override
   public List<Cell> availableCells(Cell currentCell) {
-    List<Cell> cells = new ArrayList<>();
-
-    // Check above
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.LEFT);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.RIGHT);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.TOP);
-    currentCell.addAvailableCellsInDirectionToList(cells, CellDirection.BOTTOM);
-
-    return cells;
+    Board board = currentCell.board();
+    Bitboard bitboard = board.bitboard();
+    long attacks = MagicBitboards.rookAttacks(currentCell.index(), bitboard.occupancy());
+    return board.cellsOf(attacks & ~bitboard.occupancy(color()));
   }
 
   @Override
@@ -58,4 +54,8 @@ public class Rook implements Figure {
       this.hasMoved = true;
     }
   }
+
+  public void figureNotMoved() {
+    this.hasMoved = false;
+  }
 }
@@ -3,6 +3,7 @@ package hwr.oop.chess.cli;
 public enum CLIColor {
   YELLOW("\033[30;1;103m"),
   BLUE("\033[30;1;104m"),
+  RED("\033[30;1;101m"),
   GRAY("\033[37m"),
   RESET("\033[0m");
 
@@ -4,18 +4,38 @@ import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
 import hwr.oop.chess.application.Game;
 import hwr.oop.chess.application.EndType;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.Perft;
+import hwr.oop.chess.application.PieceSquareTables;
 import hwr.oop.chess.application.figures.*;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.Evaluation;
+import hwr.oop.chess.engine.EvaluationReport;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.MateSolver;
+import hwr.oop.chess.engine.ParallelSearch;
+import hwr.oop.chess.engine.PawnHashTable;
+import hwr.oop.chess.engine.PawnStructure;
+import hwr.oop.chess.engine.PolyglotBook;
+import hwr.oop.chess.engine.SearchLimits;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.TablebaseGenerator;
+import hwr.oop.chess.engine.TablebaseResult;
+import hwr.oop.chess.engine.Tablebases;
 import hwr.oop.chess.persistence.FenNotation;
 import hwr.oop.chess.persistence.Player;
 import hwr.oop.chess.persistence.PortableGameNotation;
 import hwr.oop.chess.persistence.State;
 
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class CLIMenu {
+  private static final long DEFAULT_ENGINE_MILLIS = 1000;
   private final CLIAdapter cli;
   private final CLIPrinter printer;
   private List<String> initialCommand;
@@ -52,12 +72,42 @@ public class CLIMenu {
           new AbstractMap.SimpleEntry<>(
               "3: chess on <ID> resign", "End the game by accepting a loss"),
           new AbstractMap.SimpleEntry<>(
-              "3: chess on <ID> rematch", "Start a new game without resetting your score"));
+              "3: chess on <ID> rematch", "Start a new game without resetting your score"),
+          new AbstractMap.SimpleEntry<>(
+              "4  Analysis", "--------------------------------------------------"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> perft <DEPTH>", "Count the positions after DEPTH moves"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> perft divide <DEPTH>", "Count them separately for every move"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> hint [<MILLIS>]", "Let the engine suggest the next move"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> book", "Show the moves of the opening book"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> tablebase", "Look up the endgame in the tablebases"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess generate-tablebases <DIR> [<MATERIAL>]", "Build the endgame tables"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> eval", "Show how the engine judges the position"),
+          new AbstractMap.SimpleEntry<>(
+              "4: chess on <ID> solve-mate <MOVES>", "Prove a forced mate within MOVES"),
+          new AbstractMap.SimpleEntry<>(
+              "5  Engine Opponent", "--------------------------------------------------"),
+          new AbstractMap.SimpleEntry<>(
+              "5: chess on <ID> engine <COLOR> [<MILLIS>]", "Let the engine play the COLOR"),
+          new AbstractMap.SimpleEntry<>("5: chess on <ID> engine off", "Play against a human again"));
   private final Map<String, String> parameterTypes =
       Map.ofEntries(
           new AbstractMap.SimpleEntry<>("<ID>", "Game ID (e.g. 123)"),
           new AbstractMap.SimpleEntry<>("<FROM>", "XY-Coordinate of the cell (e.g. a1, c4, 22)"),
-          new AbstractMap.SimpleEntry<>("<TYPE>", "Figure (e.g. knight, rook, queen)"));
+          new AbstractMap.SimpleEntry<>("<TYPE>", "Figure (e.g. knight, rook, queen)"),
+          new AbstractMap.SimpleEntry<>("<DEPTH>", "Number of half moves (e.g. 1, 4)"),
+          new AbstractMap.SimpleEntry<>("<MOVES>", "Number of own moves (1 to 9)"),
+          new AbstractMap.SimpleEntry<>("<MILLIS>", "Thinking time of the engine (default 1000)"),
+          new AbstractMap.SimpleEntry<>("<COLOR>", "Color of the figures (white or black)"),
+          new AbstractMap.SimpleEntry<>("<DIR>", "Directory of the tablebase files"),
+          new AbstractMap.SimpleEntry<>(
+              "<MATERIAL>", "Table and the ones it needs (default all: KQvK, KRvK, KPvK, KBNvK)"));
 
   public CLIMenu(CLIAdapter cli) {
     this.cli = cli;
@@ -87,6 +137,7 @@ public class CLIMenu {
         case "help" -> printHelpMenu();
         case "create" -> startNewGame();
         case "on" -> performActionOnBoard();
+        case "generate-tablebases" -> generateTablebases();
         default ->
             throw new InvalidUserInputException(
                 "The command '"
@@ -103,7 +154,7 @@ public class CLIMenu {
   }
 
   private void printHelpMenu() {
-    printer.printAsTable("Chess Commands:", 40, commandAndExplanation);
+    printer.printAsTable("Chess Commands:", 44, commandAndExplanation);
     printer.printAsTable("Parameter Types:", 10, parameterTypes);
   }
 
@@ -115,6 +166,37 @@ public class CLIMenu {
     cli.printBoard();
   }
 
+  private void generateTablebases() {
+    if (remainingArguments.isEmpty()) {
+      throw new InvalidUserInputException("You must provide a directory for the tablebases.");
+    }
+    Path directory = Path.of(remainingArguments.removeFirst());
+    List<String> signatures = TablebaseGenerator.SIGNATURES;
+    if (!remainingArguments.isEmpty()) {
+      String material = remainingArguments.removeFirst();
+      if (!signatures.contains(material)) {
+        throw new InvalidUserInputException(
+            "The material must be one of "
+                + String.join(", ", signatures)
+                + ". Please check '"
+                + material
+                + "' for typos.");
+      }
+      // the tables before it in the list are needed for its captures and promotions
+      signatures = signatures.subList(0, signatures.indexOf(material) + 1);
+    }
+    countOfRemainingArgumentsIs(0);
+    printer.printlnAction("Generating the tablebases " + String.join(", ", signatures) + ".");
+    long start = System.nanoTime();
+    List<String> generated = TablebaseGenerator.generateMissing(directory, signatures);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    if (generated.isEmpty()) {
+      printer.println("All of them already exist in '" + directory + "'.");
+      return;
+    }
+    printer.println("Generated " + String.join(", ", generated) + " in " + millis + " ms.");
+  }
+
   private void showBoardStatus() {
     countOfRemainingArgumentsIs(0);
     printer.printlnAction("Here is game '" + cli.persistence().gameId() + "'.");
@@ -157,6 +239,13 @@ public class CLIMenu {
       case "show-moveable" -> showMoveableFigures();
       case "show-fen" -> exportAsFenNotation();
       case "show-pgn" -> exportAsPgnNotation();
+      case "perft" -> performPerft();
+      case "hint" -> showHint();
+      case "eval" -> showEvaluation();
+      case "solve-mate" -> solveMate();
+      case "book" -> showBookMoves();
+      case "tablebase" -> showTablebaseResult();
+      case "engine" -> changeEngineOpponent();
 
       case "draw" -> performDraw();
       case "resign" -> performResign();
@@ -189,6 +278,7 @@ public class CLIMenu {
     cli.game().rememberAndPerformMove(from, to);
     printImportantGameStatus();
     handleAutomaticGameEnd();
+    letEngineMove();
     cli.game().saveGame();
     cli.printBoard();
   }
@@ -215,6 +305,7 @@ public class CLIMenu {
             + ".");
 
     cli.game().rememberAndPerformPawnPromotion(from, promoteToType);
+    letEngineMove();
     cli.game().saveGame();
     cli.printBoard();
   }
@@ -229,7 +320,19 @@ public class CLIMenu {
             + " on "
             + from.toCoordinates()
             + " can move to.");
-    printer.setHighlightOnBoard(board.availableCellsWithoutCheckMoves(from));
+    List<Cell> cells = board.availableCellsWithoutCheckMoves(from);
+    printer.setHighlightOnBoard(cells);
+    List<Cell> losingCaptures =
+        cells.stream()
+            .filter(to -> Move.isCapture(board.createMove(from, to)))
+            .filter(to -> board.staticExchange(from, to) < 0)
+            .toList();
+    if (!losingCaptures.isEmpty()) {
+      printer.println(
+          "Captures which lose material are marked red: "
+              + losingCaptures.stream().map(Cell::toCoordinates).toList());
+      losingCaptures.forEach(printer::alsoWarnOnBoard);
+    }
     cli.printBoard();
   }
 
@@ -238,14 +341,239 @@ public class CLIMenu {
     Board board = cli.game().board();
     printer.printlnAction(
         "Showing the figures which can be moved by the " + board.turn().name() + " player.");
-    for (Cell cell : board.cellsWithColor(board.turn())) {
-      if (!board.availableCellsWithoutCheckMoves(cell).isEmpty()) {
-        printer.alsoHighlightOnBoard(cell);
-      }
+    for (Cell cell : board.cellsWithMovableFigures(board.turn())) {
+      printer.alsoHighlightOnBoard(cell);
+    }
+    cli.printBoard();
+  }
+
+  private void performPerft() {
+    boolean divide =
+        !remainingArguments.isEmpty() && remainingArguments.getFirst().equals("divide");
+    if (divide) {
+      remainingArguments.removeFirst();
+    }
+    int depth = argumentToDepth();
+    countOfRemainingArgumentsIs(0);
+    Board board = cli.game().board();
+    printer.printlnAction(
+        "Counting the positions which can be reached with " + depth + " half move(s).");
+
+    long nodes;
+    if (divide) {
+      Map<String, Long> nodesPerMove = Perft.divide(board, depth);
+      nodesPerMove.forEach((move, count) -> printer.println(move + ": " + count));
+      nodes = nodesPerMove.values().stream().mapToLong(Long::longValue).sum();
+    } else {
+      nodes = Perft.perft(board, depth);
+    }
+    printer.println("Nodes: " + nodes);
+  }
+
+  private void showHint() {
+    long millis = remainingArguments.isEmpty() ? DEFAULT_ENGINE_MILLIS : argumentToMillis();
+    countOfRemainingArgumentsIs(0);
+    Board board = cli.game().board();
+    SearchResult result =
+        ParallelSearch.withConfiguredSettings(board).search(SearchLimits.millis(millis));
+    if (result.bestMove() == Move.NONE) {
+      throw new InvalidUserInputException(
+          "There is no move to suggest, " + board.turn().name() + " cannot move anymore.");
+    }
+    Cell from = board.cellAt(Move.from(result.bestMove()));
+    Cell to = board.cellAt(Move.to(result.bestMove()));
+    printer.printlnAction(
+        "The engine suggests to move the "
+            + from.figure().type().name()
+            + " from "
+            + from.toCoordinates()
+            + " to "
+            + to.toCoordinates()
+            + ".");
+    printer.println(
+        "Score: "
+            + result.scoreToString()
+            + " | Depth: "
+            + result.depth()
+            + " | Nodes: "
+            + result.nodes());
+    printer.println("Principal variation: " + result.principalVariationToString());
+    printer.alsoHighlightOnBoard(from);
+    printer.alsoHighlightOnBoard(to);
+    cli.printBoard();
+  }
+
+  private void solveMate() {
+    int moves = argumentToMateMoves();
+    countOfRemainingArgumentsIs(0);
+    Board board = cli.game().board();
+    String player = board.turn().name();
+    printer.printlnAction(
+        "Searching a forced mate for " + player + " in at most " + moves + " move(s).");
+    MateResult result = new MateSolver(board.copy()).solve(moves);
+    if (!result.isMate()) {
+      printer.println("There is no forced mate. | Nodes: " + result.nodes());
+      return;
+    }
+    printer.println(player + " mates in " + result.moves() + ". | Nodes: " + result.nodes());
+    printer.println("Mating line: " + result.lineToString());
+    printer.alsoHighlightOnBoard(board.cellAt(Move.from(result.firstMove())));
+    printer.alsoHighlightOnBoard(board.cellAt(Move.to(result.firstMove())));
+    cli.printBoard();
+  }
+
+  private void showBookMoves() {
+    countOfRemainingArgumentsIs(0);
+    PolyglotBook book = PolyglotBook.configured();
+    if (book == null) {
+      throw new InvalidUserInputException(
+          "There is no opening book. Set the property "
+              + PolyglotBook.BOOK_PROPERTY
+              + " to a Polyglot .bin file.");
+    }
+    List<BookMove> moves = book.moves(cli.game().board());
+    if (moves.isEmpty()) {
+      printer.printlnAction("The position is not in the opening book.");
+      return;
+    }
+    printer.printlnAction("The opening book knows " + moves.size() + " move(s).");
+    int totalWeight = Math.max(1, moves.stream().mapToInt(BookMove::weight).sum());
+    Map<String, String> rows = new HashMap<>();
+    for (BookMove move : moves) {
+      rows.put(
+          Move.toString(move.move()),
+          "weight " + move.weight() + " (" + 100 * move.weight() / totalWeight + "%)");
+    }
+    printer.printAsTable("Opening Book:", 12, rows);
+  }
+
+  private void showTablebaseResult() {
+    countOfRemainingArgumentsIs(0);
+    Tablebases tablebases = Tablebases.configured();
+    if (tablebases.maxPieces() == 0) {
+      throw new InvalidUserInputException(
+          "There are no tablebases. Set the property "
+              + Tablebases.DIRECTORY_PROPERTY
+              + " to a directory with .tb files.");
+    }
+    Board board = cli.game().board();
+    TablebaseResult result = tablebases.probe(board);
+    if (result == null) {
+      printer.printlnAction("The position is not in the tablebases.");
+      return;
+    }
+    String outcome =
+        switch (result.wdl()) {
+          case WIN -> " wins";
+          case DRAW -> " draws";
+          case LOSS -> " loses";
+        };
+    printer.printlnAction(board.turn().name() + outcome + " with best play.");
+    printer.println("Half moves until the next capture or mate: " + result.dtz());
+    int bestMove = tablebases.bestMove(board);
+    if (bestMove == Move.NONE) {
+      return;
+    }
+    printer.println("Best move: " + Move.toString(bestMove));
+    printer.alsoHighlightOnBoard(board.cellAt(Move.from(bestMove)));
+    printer.alsoHighlightOnBoard(board.cellAt(Move.to(bestMove)));
+    cli.printBoard();
+  }
+
+  private void showEvaluation() {
+    countOfRemainingArgumentsIs(0);
+    // the positions of the game go through the pawn hash table first, like in a search
+    PawnHashTable pawnHashTable = new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES);
+    for (String fen : cli.game().fenHistory()) {
+      Board position = new Board(false);
+      FenNotation.parseFEN(position, fen);
+      Evaluation.report(position, pawnHashTable);
+    }
+    EvaluationReport report = Evaluation.report(cli.game().board(), pawnHashTable);
+    printer.printlnAction(
+        "This is how the engine evaluates the position. Positive scores are good for WHITE.");
+
+    Map<String, String> terms = new HashMap<>();
+    terms.put(
+        "Game phase",
+        report.phase() + " of " + PieceSquareTables.MAX_PHASE + " (all figures on the board)");
+    terms.put("Material", inPawns(report.material()));
+    terms.put("Pawn structure", inPawns(report.pawnStructure()));
+    terms.put("King safety", inPawns(report.kingSafety()));
+    terms.put("Mobility", inPawns(report.mobility()));
+    terms.put("Total", inPawns(report.total()));
+    printer.printAsTable("Evaluation:", 20, terms);
+
+    Map<String, String> pawns = new HashMap<>();
+    pawns.put("Pawns of White", pawnCounts(report.pawns().white()));
+    pawns.put("Pawns of Black", pawnCounts(report.pawns().black()));
+    pawns.put("Pawn hash cache", pawnHashTable + " in the positions of the game");
+    printer.printAsTable("Pawn Structure:", 20, pawns);
+  }
+
+  private static String pawnCounts(PawnStructure.PawnCounts counts) {
+    return counts.doubled()
+        + " doubled, "
+        + counts.isolated()
+        + " isolated, "
+        + counts.passed()
+        + " passed, "
+        + counts.backward()
+        + " backward";
+  }
+
+  private static String inPawns(int centipawns) {
+    return String.format(Locale.ROOT, "%+.2f", centipawns / 100.0);
+  }
+
+  private void changeEngineOpponent() {
+    if (remainingArguments.isEmpty()) {
+      throw new InvalidUserInputException("You must provide the color the engine should play.");
     }
+    String color = remainingArguments.removeFirst();
+    Game game = cli.game();
+    if (color.equals("off")) {
+      countOfRemainingArgumentsIs(0);
+      printer.printlnAction("The engine stopped playing. Both colors are played by humans.");
+      game.stopPlayingAgainstEngine();
+      game.saveGame();
+      return;
+    }
+
+    FigureColor engineColor = argumentToColor(color);
+    long millis = remainingArguments.isEmpty() ? DEFAULT_ENGINE_MILLIS : argumentToMillis();
+    countOfRemainingArgumentsIs(0);
+    printer.printlnAction(
+        "The engine plays " + engineColor.name() + " and thinks " + millis + " ms per move.");
+    game.playAgainstEngine(engineColor, millis);
+    letEngineMove();
+    game.saveGame();
     cli.printBoard();
   }
 
+  private void letEngineMove() {
+    Game game = cli.game();
+    if (!game.isEngineToMove()) {
+      return;
+    }
+    Board board = game.board();
+    FigureColor color = board.turn();
+    int move = game.performEngineMove();
+    Cell to = board.cellAt(Move.to(move));
+    printer.printlnAction(
+        "The engine moves "
+            + color.name()
+            + " "
+            + (Move.isPromotion(move) ? FigureType.PAWN : to.figure().type()).name()
+            + " from "
+            + board.cellAt(Move.from(move)).toCoordinates()
+            + " to "
+            + to.toCoordinates()
+            + ".");
+    printImportantGameStatus();
+    handleAutomaticGameEnd();
+  }
+
   private void performDraw() {
     countOfRemainingArgumentsIs(1);
     String command = remainingArguments.removeFirst();
@@ -414,6 +742,59 @@ public class CLIMenu {
     return FigureType.fromString(remainingArguments.removeFirst());
   }
 
+  private int argumentToDepth() {
+    if (remainingArguments.isEmpty()) {
+      throw new InvalidUserInputException("You must provide a depth for this command.");
+    }
+    String argument = remainingArguments.removeFirst();
+    if (!argument.matches("[1-9][0-9]?")) {
+      throw new InvalidUserInputException(
+          "You must provide a positive integer as the depth. Please check '"
+              + argument
+              + "' for typos.");
+    }
+    return Integer.parseInt(argument);
+  }
+
+  private int argumentToMateMoves() {
+    if (remainingArguments.isEmpty()) {
+      throw new InvalidUserInputException("You must provide a number of moves for this command.");
+    }
+    String argument = remainingArguments.removeFirst();
+    if (!argument.matches("[1-" + MateSolver.MAX_MOVES + "]")) {
+      throw new InvalidUserInputException(
+          "You must provide the number of moves (1 to "
+              + MateSolver.MAX_MOVES
+              + "). Please check '"
+              + argument
+              + "' for typos.");
+    }
+    return Integer.parseInt(argument);
+  }
+
+  private long argumentToMillis() {
+    String argument = remainingArguments.removeFirst();
+    if (!argument.matches("[1-9][0-9]{0,5}")) {
+      throw new InvalidUserInputException(
+          "You must provide the thinking time in milliseconds (1 to 999999). Please check '"
+              + argument
+              + "' for typos.");
+    }
+    return Long.parseLong(argument);
+  }
+
+  private FigureColor argumentToColor(String argument) {
+    return switch (argument.toLowerCase()) {
+      case "white" -> FigureColor.WHITE;
+      case "black" -> FigureColor.BLACK;
+      default ->
+          throw new InvalidUserInputException(
+              "The color must be 'white', 'black' or 'off'. Please check '"
+                  + argument
+                  + "' for typos.");
+    };
+  }
+
   public void argumentToGameId() {
     if (remainingArguments.isEmpty()) {
       throw new InvalidUserInputException("You must provide a game id for this command.");
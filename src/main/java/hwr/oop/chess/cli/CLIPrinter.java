@@ -13,6 +13,7 @@ import java.util.StringJoiner;
 public class CLIPrinter {
   private final PrintStream printStream;
   private final List<Cell> highlightCell = new ArrayList<>();
+  private final List<Cell> warningCell = new ArrayList<>();
 
   CLIPrinter(OutputStream out) {
     this.printStream = new PrintStream(out);
@@ -54,9 +55,15 @@ public class CLIPrinter {
 
   public void setHighlightOnBoard(List<Cell> cells) {
     highlightCell.removeIf(e -> true);
+    warningCell.removeIf(e -> true);
     highlightCell.addAll(cells);
   }
 
+  // warnings are shown in red instead of the blue highlight
+  public void alsoWarnOnBoard(Cell cell) {
+    warningCell.add(cell);
+  }
+
   private List<String> linesFromBoard(Board board) {
     List<Cell> cells = board.allCells();
     List<String> lines = new ArrayList<>();
@@ -64,7 +71,9 @@ public class CLIPrinter {
     for (Cell cell : cells) {
       String currentSymbol = String.valueOf(cell.isFree() ? '-' : cell.figure().symbol());
 
-      if (highlightCell.contains(cell)) {
+      if (warningCell.contains(cell)) {
+        currentSymbol = applyColor(currentSymbol, CLIColor.RED);
+      } else if (highlightCell.contains(cell)) {
         currentSymbol = applyColor(currentSymbol, CLIColor.BLUE);
       }
       currentLine.add(currentSymbol);
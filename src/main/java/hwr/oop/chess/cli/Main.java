@@ -1,6 +1,6 @@
 package hwr.oop.chess.cli;
 
-import hwr.oop.chess.persistence.CSVFilePersistence;
+import hwr.oop.chess.persistence.StorageFormat;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,6 +13,6 @@ public class Main {
   }
 
   public static void main(String[] args) {
-    mainWithCli(args, new CLIAdapter(System.out, new CSVFilePersistence()));
+    mainWithCli(args, new CLIAdapter(System.out, StorageFormat.configured().create()));
   }
 }
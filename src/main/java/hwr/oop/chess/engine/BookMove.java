@@ -0,0 +1,3 @@
+package hwr.oop.chess.engine;
+
+public record BookMove(int move, int weight) {}
@@ -0,0 +1,279 @@
+package hwr.oop.chess.engine;
+
+import static hwr.oop.chess.application.figures.FigureType.*;
+
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.MagicBitboards;
+import hwr.oop.chess.application.PieceSquareTables;
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.engine.PawnStructure.PawnCounts;
+
+// all terms are in centipawns from the view of white
+public class Evaluation {
+  // pawn structure
+  static final int DOUBLED_PAWN_PENALTY = 15;
+  static final int ISOLATED_PAWN_PENALTY = 15;
+  static final int BACKWARD_PAWN_PENALTY = 10;
+  // indexed by the rank of the passed pawn seen from its own side
+  static final int[] PASSED_PAWN_BONUS = {0, 5, 10, 20, 35, 60, 100, 0};
+  // king safety, only counted in the middlegame
+  static final int PAWN_SHIELD_BONUS = 10;
+  static final int KING_ZONE_ATTACKER_PENALTY = 12;
+  // per reachable cell above the usual number of cells (indexed by the FigureType ordinal)
+  static final int[] MOBILITY_WEIGHTS = {0, 1, 2, 4, 4, 0};
+  static final int[] USUAL_MOBILITY = {0, 13, 7, 6, 4, 0};
+
+  private static final long[] FILES = new long[8];
+  private static final long[] ADJACENT_FILES = new long[8];
+  // cells in front of a pawn on its own and the adjacent files, per color and cell
+  private static final long[][] PASSED_PAWN_MASKS = new long[2][64];
+  // cells on the adjacent files from which own pawns could still protect a pawn, per color and cell
+  private static final long[][] SUPPORT_MASKS = new long[2][64];
+
+  static {
+    for (int file = 0; file < 8; file++) {
+      FILES[file] = Bitboard.FILE_A << file;
+    }
+    for (int file = 0; file < 8; file++) {
+      ADJACENT_FILES[file] =
+          (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+    }
+    for (int square = 0; square < 64; square++) {
+      long files = FILES[square % 8] | ADJACENT_FILES[square % 8];
+      int rank = square / 8;
+      long ranksAbove = rank == 7 ? 0L : -1L << (8 * (rank + 1));
+      long ranksBelow = (1L << (8 * rank)) - 1;
+      PASSED_PAWN_MASKS[FigureColor.WHITE.ordinal()][square] = files & ranksAbove;
+      PASSED_PAWN_MASKS[FigureColor.BLACK.ordinal()][square] = files & ranksBelow;
+      long adjacentFiles = ADJACENT_FILES[square % 8];
+      SUPPORT_MASKS[FigureColor.WHITE.ordinal()][square] = adjacentFiles & ~ranksAbove;
+      SUPPORT_MASKS[FigureColor.BLACK.ordinal()][square] = adjacentFiles & ~ranksBelow;
+    }
+  }
+
+  private Evaluation() {}
+
+  public static int value(FigureType type) {
+    return PieceSquareTables.value(type);
+  }
+
+  // Score of the position in centipawns from the view of the player to move
+  public static int evaluate(Board board) {
+    return evaluate(board, pawnStructure(board.bitboard()).score());
+  }
+
+  public static int evaluate(Board board, PawnHashTable pawnHashTable) {
+    return evaluate(board, PawnStructure.score(pawnStructureEntry(board, pawnHashTable)));
+  }
+
+  private static int evaluate(Board board, int pawnStructureScore) {
+    Bitboard bitboard = board.bitboard();
+    int score =
+        material(bitboard) + pawnStructureScore + kingSafety(bitboard) + mobility(bitboard);
+    return board.turn() == FigureColor.WHITE ? score : -score;
+  }
+
+  public static EvaluationReport report(Board board) {
+    return report(board, pawnStructure(board.bitboard()));
+  }
+
+  public static EvaluationReport report(Board board, PawnHashTable pawnHashTable) {
+    return report(board, PawnStructure.unpack(pawnStructureEntry(board, pawnHashTable)));
+  }
+
+  private static EvaluationReport report(Board board, PawnStructure pawnStructure) {
+    Bitboard bitboard = board.bitboard();
+    return new EvaluationReport(
+        phase(bitboard),
+        material(bitboard),
+        pawnStructure,
+        kingSafety(bitboard),
+        mobility(bitboard));
+  }
+
+  private static long pawnStructureEntry(Board board, PawnHashTable pawnHashTable) {
+    Bitboard bitboard = board.bitboard();
+    long entry = pawnHashTable.probe(bitboard.pawnKey());
+    if (entry == PawnHashTable.NO_ENTRY) {
+      entry = pawnStructure(bitboard).pack();
+      pawnHashTable.store(bitboard.pawnKey(), entry);
+    }
+    return entry;
+  }
+
+  // promotions can raise the phase above the maximum
+  static int phase(Bitboard bitboard) {
+    return Math.min(bitboard.phase(), PieceSquareTables.MAX_PHASE);
+  }
+
+  // the middlegame and endgame values are blended by the figures left on the board
+  static int material(Bitboard bitboard) {
+    int phase = phase(bitboard);
+    return (bitboard.middlegameScore() * phase
+            + bitboard.endgameScore() * (PieceSquareTables.MAX_PHASE - phase))
+        / PieceSquareTables.MAX_PHASE;
+  }
+
+  static PawnStructure pawnStructure(Bitboard bitboard) {
+    PawnCounts white = pawnCounts(bitboard, FigureColor.WHITE);
+    PawnCounts black = pawnCounts(bitboard, FigureColor.BLACK);
+    int score =
+        pawnStructureScore(bitboard, FigureColor.WHITE, white)
+            - pawnStructureScore(bitboard, FigureColor.BLACK, black);
+    return new PawnStructure(score, white, black);
+  }
+
+  private static PawnCounts pawnCounts(Bitboard bitboard, FigureColor color) {
+    long pawns = bitboard.pieces(color, PAWN);
+    int doubled = 0;
+    for (long file : FILES) {
+      doubled += Math.max(0, Long.bitCount(pawns & file) - 1);
+    }
+    return new PawnCounts(
+        doubled,
+        Long.bitCount(isolatedPawns(bitboard, color)),
+        Long.bitCount(passedPawns(bitboard, color)),
+        Long.bitCount(backwardPawns(bitboard, color)));
+  }
+
+  private static int pawnStructureScore(Bitboard bitboard, FigureColor color, PawnCounts counts) {
+    int score =
+        -counts.doubled() * DOUBLED_PAWN_PENALTY
+            - counts.isolated() * ISOLATED_PAWN_PENALTY
+            - counts.backward() * BACKWARD_PAWN_PENALTY;
+    for (long passed = passedPawns(bitboard, color); passed != 0; passed &= passed - 1) {
+      score += PASSED_PAWN_BONUS[relativeRank(color, Long.numberOfTrailingZeros(passed))];
+    }
+    return score;
+  }
+
+  // pawns without own pawns on the neighbouring files
+  private static long isolatedPawns(Bitboard bitboard, FigureColor color) {
+    long pawns = bitboard.pieces(color, PAWN);
+    long isolated = 0L;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      int square = Long.numberOfTrailingZeros(remaining);
+      if ((pawns & ADJACENT_FILES[square % 8]) == 0) {
+        isolated |= Bitboard.bit(square);
+      }
+    }
+    return isolated;
+  }
+
+  // pawns which no opponent pawn can stop, only the front one of doubled pawns counts
+  private static long passedPawns(Bitboard bitboard, FigureColor color) {
+    long pawns = bitboard.pieces(color, PAWN);
+    long opponentPawns = bitboard.pieces(color.ofOpponent(), PAWN);
+    long passed = 0L;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      int square = Long.numberOfTrailingZeros(remaining);
+      long cellsInFront = PASSED_PAWN_MASKS[color.ordinal()][square];
+      if ((opponentPawns & cellsInFront) == 0 && (pawns & cellsInFront & FILES[square % 8]) == 0) {
+        passed |= Bitboard.bit(square);
+      }
+    }
+    return passed;
+  }
+
+  // pawns which no own pawn can protect and whose next cell is guarded by an opponent pawn
+  private static long backwardPawns(Bitboard bitboard, FigureColor color) {
+    long pawns = bitboard.pieces(color, PAWN);
+    long opponentPawns = bitboard.pieces(color.ofOpponent(), PAWN);
+    int forwards = color == FigureColor.WHITE ? 8 : -8;
+    long backward = 0L;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      int square = Long.numberOfTrailingZeros(remaining);
+      int stop = square + forwards;
+      if (stop < 0
+          || stop >= 64
+          || (pawns & ADJACENT_FILES[square % 8]) == 0
+          || (pawns & SUPPORT_MASKS[color.ordinal()][square]) != 0) {
+        continue;
+      }
+      if ((AttackTables.pawnAttacks(stop, color) & opponentPawns) != 0) {
+        backward |= Bitboard.bit(square);
+      }
+    }
+    return backward;
+  }
+
+  static int kingSafety(Bitboard bitboard) {
+    int score = kingSafety(bitboard, FigureColor.WHITE) - kingSafety(bitboard, FigureColor.BLACK);
+    return score * phase(bitboard) / PieceSquareTables.MAX_PHASE;
+  }
+
+  // pawns in front of the king protect it, opponent figures which hit the cells around it do not
+  private static int kingSafety(Bitboard bitboard, FigureColor color) {
+    long king = bitboard.pieces(color, KING);
+    if (king == 0) {
+      return 0;
+    }
+    int square = Long.numberOfTrailingZeros(king);
+    long zone = AttackTables.kingAttacks(square) | king;
+    // the king's file and its neighbours, one and two ranks in front of the king
+    long row = zone & (Bitboard.RANK_1 << 8 * (square / 8));
+    long shield = color == FigureColor.WHITE ? row << 8 | row << 16 : row >>> 8 | row >>> 16;
+    int score = Long.bitCount(shield & bitboard.pieces(color, PAWN)) * PAWN_SHIELD_BONUS;
+
+    FigureColor opponent = color.ofOpponent();
+    long occupancy = bitboard.occupancy();
+    int attackers = 0;
+    for (long knights = bitboard.pieces(opponent, KNIGHT); knights != 0; knights &= knights - 1) {
+      attackers += hits(AttackTables.knightAttacks(Long.numberOfTrailingZeros(knights)), zone);
+    }
+    long bishops = bitboard.pieces(opponent, BISHOP) | bitboard.pieces(opponent, QUEEN);
+    for (; bishops != 0; bishops &= bishops - 1) {
+      int from = Long.numberOfTrailingZeros(bishops);
+      attackers += hits(MagicBitboards.bishopAttacks(from, occupancy), zone);
+    }
+    long rooks = bitboard.pieces(opponent, ROOK) | bitboard.pieces(opponent, QUEEN);
+    for (; rooks != 0; rooks &= rooks - 1) {
+      int from = Long.numberOfTrailingZeros(rooks);
+      attackers += hits(MagicBitboards.rookAttacks(from, occupancy), zone);
+    }
+    return score - attackers * KING_ZONE_ATTACKER_PENALTY;
+  }
+
+  private static int hits(long attacks, long zone) {
+    return (attacks & zone) != 0 ? 1 : 0;
+  }
+
+  static int mobility(Bitboard bitboard) {
+    return mobility(bitboard, FigureColor.WHITE) - mobility(bitboard, FigureColor.BLACK);
+  }
+
+  private static int mobility(Bitboard bitboard, FigureColor color) {
+    long occupancy = bitboard.occupancy();
+    long targets = ~bitboard.occupancy(color);
+    int score = 0;
+    for (long knights = bitboard.pieces(color, KNIGHT); knights != 0; knights &= knights - 1) {
+      long attacks = AttackTables.knightAttacks(Long.numberOfTrailingZeros(knights));
+      score += mobilityScore(KNIGHT, attacks & targets);
+    }
+    for (long bishops = bitboard.pieces(color, BISHOP); bishops != 0; bishops &= bishops - 1) {
+      long attacks = MagicBitboards.bishopAttacks(Long.numberOfTrailingZeros(bishops), occupancy);
+      score += mobilityScore(BISHOP, attacks & targets);
+    }
+    for (long rooks = bitboard.pieces(color, ROOK); rooks != 0; rooks &= rooks - 1) {
+      long attacks = MagicBitboards.rookAttacks(Long.numberOfTrailingZeros(rooks), occupancy);
+      score += mobilityScore(ROOK, attacks & targets);
+    }
+    for (long queens = bitboard.pieces(color, QUEEN); queens != 0; queens &= queens - 1) {
+      long attacks = MagicBitboards.queenAttacks(Long.numberOfTrailingZeros(queens), occupancy);
+      score += mobilityScore(QUEEN, attacks & targets);
+    }
+    return score;
+  }
+
+  private static int mobilityScore(FigureType type, long reachableCells) {
+    return (Long.bitCount(reachableCells) - USUAL_MOBILITY[type.ordinal()])
+        * MOBILITY_WEIGHTS[type.ordinal()];
+  }
+
+  private static int relativeRank(FigureColor color, int square) {
+    return color == FigureColor.WHITE ? square / 8 : 7 - square / 8;
+  }
+}
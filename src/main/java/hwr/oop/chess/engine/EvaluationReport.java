@@ -0,0 +1,13 @@
+package hwr.oop.chess.engine;
+
+// The terms of the evaluation in centipawns from the view of white
+public record EvaluationReport(
+    int phase, int material, PawnStructure pawns, int kingSafety, int mobility) {
+  public int pawnStructure() {
+    return pawns.score();
+  }
+
+  public int total() {
+    return material + pawnStructure() + kingSafety + mobility;
+  }
+}
@@ -0,0 +1,42 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Move;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+// moves is 0 if there is no forced mate, the line alternates between attacker and defender
+public record MateResult(int moves, int[] line, long nodes) {
+  public boolean isMate() {
+    return moves > 0;
+  }
+
+  public int firstMove() {
+    return line.length == 0 ? Move.NONE : line[0];
+  }
+
+  public String lineToString() {
+    StringJoiner joiner = new StringJoiner(" ");
+    for (int move : line) {
+      joiner.add(Move.toString(move));
+    }
+    return joiner.toString();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof MateResult result
+        && moves == result.moves
+        && nodes == result.nodes
+        && Arrays.equals(line, result.line);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * moves + Long.hashCode(nodes)) + Arrays.hashCode(line);
+  }
+
+  @Override
+  public String toString() {
+    return "MateResult[moves=" + moves + ", nodes=" + nodes + ", line=" + lineToString() + "]";
+  }
+}
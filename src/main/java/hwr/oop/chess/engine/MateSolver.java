@@ -0,0 +1,182 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.MoveGenerator;
+import hwr.oop.chess.application.MoveList;
+import java.util.HashMap;
+import java.util.Map;
+
+// proves or refutes a forced mate of the player to move within a number of moves
+public class MateSolver {
+  public static final int MAX_MOVES = 9;
+  private static final int QUIET = 0;
+  private static final int CAPTURE = 1;
+  private static final int CHECK = 2;
+
+  private final Board board;
+  private final MoveList[] movesPerPly = new MoveList[2 * MAX_MOVES + 2];
+  private final int[][] prioritiesPerPly = new int[2 * MAX_MOVES + 2][];
+  // attacker positions by Zobrist key: mate found within / refuted up to that many moves
+  private final Map<Long, Integer> provenWithin = new HashMap<>();
+  private final Map<Long, Integer> refutedWithin = new HashMap<>();
+  private long nodes;
+
+  public MateSolver(Board board) {
+    this.board = board;
+    for (int ply = 0; ply < movesPerPly.length; ply++) {
+      movesPerPly[ply] = new MoveList();
+      prioritiesPerPly[ply] = new int[256];
+    }
+  }
+
+  // the shortest forced mate within maxMoves moves of the player to move, if there is one
+  public MateResult solve(int maxMoves) {
+    if (maxMoves < 1 || maxMoves > MAX_MOVES) {
+      throw new IllegalArgumentException(
+          "The number of moves must be between 1 and " + MAX_MOVES + ".");
+    }
+    for (int moves = 1; moves <= maxMoves; moves++) {
+      if (attackerMates(moves, 0)) {
+        return new MateResult(moves, mainLine(moves), nodes);
+      }
+    }
+    return new MateResult(0, new int[0], nodes);
+  }
+
+  public long nodes() {
+    return nodes;
+  }
+
+  private boolean attackerMates(int moves, int ply) {
+    nodes++;
+    long key = board.zobristKey();
+    if (provenWithin.getOrDefault(key, Integer.MAX_VALUE) <= moves) {
+      return true;
+    }
+    if (refutedWithin.getOrDefault(key, 0) >= moves) {
+      return false;
+    }
+
+    MoveList candidates = movesPerPly[ply];
+    MoveGenerator.generateLegalMoves(board, candidates);
+    prioritize(ply, candidates);
+    int[] priorities = prioritiesPerPly[ply];
+    for (int priority = CHECK + CAPTURE; priority >= QUIET; priority--) {
+      // the mating move itself always gives check
+      if (moves == 1 && priority < CHECK) {
+        break;
+      }
+      for (int i = 0; i < candidates.size(); i++) {
+        if (priorities[i] != priority) {
+          continue;
+        }
+        board.makeMove(candidates.get(i));
+        boolean mates = defenderLoses(moves - 1, ply + 1);
+        board.unmakeMove();
+        if (mates) {
+          provenWithin.merge(key, moves, Math::min);
+          return true;
+        }
+      }
+    }
+    refutedWithin.merge(key, moves, Math::max);
+    return false;
+  }
+
+  // whether every reply of the defender runs into a mate within the remaining moves
+  private boolean defenderLoses(int moves, int ply) {
+    nodes++;
+    MoveList replies = movesPerPly[ply];
+    MoveGenerator.generateLegalMoves(board, replies);
+    if (replies.isEmpty()) {
+      return board.isCheck(board.turn());
+    }
+    if (moves == 0) {
+      return false;
+    }
+    // replies which take or escape first, they refute a wrong attack the fastest
+    prioritize(ply, replies);
+    int[] priorities = prioritiesPerPly[ply];
+    for (int priority = CHECK + CAPTURE; priority >= QUIET; priority--) {
+      for (int i = 0; i < replies.size(); i++) {
+        if (priorities[i] != priority) {
+          continue;
+        }
+        board.makeMove(replies.get(i));
+        boolean mated = attackerMates(moves, ply + 1);
+        board.unmakeMove();
+        if (!mated) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void prioritize(int ply, MoveList moves) {
+    if (prioritiesPerPly[ply].length < moves.size()) {
+      prioritiesPerPly[ply] = new int[moves.size()];
+    }
+    int[] priorities = prioritiesPerPly[ply];
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      board.makeMove(move);
+      boolean givesCheck = board.isCheck(board.turn());
+      board.unmakeMove();
+      priorities[i] = (givesCheck ? CHECK : QUIET) + (Move.isCapture(move) ? CAPTURE : 0);
+    }
+  }
+
+  // the mating moves of the attacker and the replies of the defender which resist the longest
+  private int[] mainLine(int moves) {
+    int[] line = new int[2 * moves - 1];
+    int length = 0;
+    for (int remaining = moves; remaining > 0; remaining--) {
+      line[length] = mateInMoves(remaining);
+      board.makeMove(line[length++]);
+      if (remaining > 1) {
+        line[length] = longestDefence(remaining - 1);
+        board.makeMove(line[length++]);
+      }
+    }
+    for (int i = 0; i < length; i++) {
+      board.unmakeMove();
+    }
+    return line;
+  }
+
+  private int mateInMoves(int moves) {
+    MoveList candidates = new MoveList();
+    MoveGenerator.generateLegalMoves(board, candidates);
+    for (int i = 0; i < candidates.size(); i++) {
+      board.makeMove(candidates.get(i));
+      boolean mates = defenderLoses(moves - 1, 0);
+      board.unmakeMove();
+      if (mates) {
+        return candidates.get(i);
+      }
+    }
+    throw new IllegalStateException("The proven mate in " + moves + " could not be found again.");
+  }
+
+  private int longestDefence(int moves) {
+    MoveList replies = new MoveList();
+    MoveGenerator.generateLegalMoves(board, replies);
+    int longest = replies.get(0);
+    int longestMate = 0;
+    for (int i = 0; i < replies.size(); i++) {
+      board.makeMove(replies.get(i));
+      int mateIn = 1;
+      while (mateIn < moves && !attackerMates(mateIn, 0)) {
+        mateIn++;
+      }
+      board.unmakeMove();
+      if (mateIn > longestMate) {
+        longest = replies.get(i);
+        longestMate = mateIn;
+      }
+    }
+    return longest;
+  }
+}
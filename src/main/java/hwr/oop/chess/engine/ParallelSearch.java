@@ -0,0 +1,105 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import java.util.ArrayList;
+import java.util.List;
+
+// every thread searches its own copy of the board, only the transposition table is shared
+public class ParallelSearch {
+  public static final String THREADS_PROPERTY = "chess.threads";
+  public static final int MAX_THREADS = 256;
+
+  private final Board board;
+  private final TranspositionTable transpositionTable;
+  private final int threadCount;
+
+  public ParallelSearch(Board board, TranspositionTable transpositionTable, int threadCount) {
+    if (threadCount < 1 || threadCount > MAX_THREADS) {
+      throw new IllegalArgumentException(
+          "The number of search threads must be between 1 and " + MAX_THREADS + ".");
+    }
+    this.board = board;
+    this.transpositionTable = transpositionTable;
+    this.threadCount = threadCount;
+  }
+
+  // -Dchess.threads=<N> threads on the shared table of -Dchess.hash=<MB>
+  public static ParallelSearch withConfiguredSettings(Board board) {
+    return new ParallelSearch(board, TranspositionTable.configured(), configuredThreadCount());
+  }
+
+  public static int configuredThreadCount() {
+    String threads = System.getProperty(THREADS_PROPERTY);
+    if (threads == null) {
+      return 1;
+    }
+    try {
+      return Integer.parseInt(threads.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "The property " + THREADS_PROPERTY + " must be a number of threads, not '" + threads
+              + "'.");
+    }
+  }
+
+  public int threadCount() {
+    return threadCount;
+  }
+
+  public SearchResult search(SearchLimits limits) {
+    transpositionTable.newSearch();
+    Search main = new Search(board.copy(), transpositionTable);
+    List<Search> helpers = new ArrayList<>();
+    List<SearchResult> helperResults = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 1; i < threadCount; i++) {
+      Search helper = new Search(board.copy(), transpositionTable);
+      int firstDepth = 1 + i % 2;
+      helpers.add(helper);
+      Thread thread =
+          new Thread(
+              () -> storeResult(helperResults, helper.search(limits, firstDepth)),
+              "search-helper-" + i);
+      thread.start();
+      threads.add(thread);
+    }
+
+    SearchResult result = main.search(limits, 1);
+    helpers.forEach(Search::stop);
+    long nodes = main.nodes();
+    for (int i = 0; i < threads.size(); i++) {
+      joinUninterruptibly(threads.get(i));
+      nodes += helpers.get(i).nodes();
+    }
+
+    // a helper which finished a deeper iteration with the same root knows more
+    for (SearchResult helperResult : helperResults) {
+      if (helperResult != null
+          && helperResult.depth() > result.depth()
+          && helperResult.principalVariation().length > 0) {
+        result = helperResult;
+      }
+    }
+    return new SearchResult(result.score(), result.depth(), nodes, result.principalVariation());
+  }
+
+  private static void storeResult(List<SearchResult> results, SearchResult result) {
+    synchronized (results) {
+      results.add(result);
+    }
+  }
+
+  private static void joinUninterruptibly(Thread thread) {
+    boolean interrupted = false;
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package hwr.oop.chess.engine;
+
+import java.util.Locale;
+
+// packed pawn structures by pawn key, not thread-safe: every search thread has its own table
+public class PawnHashTable {
+  public static final int DEFAULT_ENTRIES = 1 << 14;
+  public static final long NO_ENTRY = 0L;
+
+  private final long[] keys;
+  private final long[] entries;
+  private final int mask;
+  private long probes;
+  private long hits;
+
+  public PawnHashTable(int entries) {
+    if (entries < 1 || Integer.bitCount(entries) != 1) {
+      throw new IllegalArgumentException(
+          "The pawn hash table needs a power of two entries, not " + entries + ".");
+    }
+    this.keys = new long[entries];
+    this.entries = new long[entries];
+    this.mask = entries - 1;
+  }
+
+  public long probe(long pawnKey) {
+    probes++;
+    int index = (int) (pawnKey & mask);
+    if (keys[index] == pawnKey && entries[index] != NO_ENTRY) {
+      hits++;
+      return entries[index];
+    }
+    return NO_ENTRY;
+  }
+
+  public void store(long pawnKey, long entry) {
+    int index = (int) (pawnKey & mask);
+    keys[index] = pawnKey;
+    entries[index] = entry;
+  }
+
+  public int capacity() {
+    return keys.length;
+  }
+
+  public long probes() {
+    return probes;
+  }
+
+  public long hits() {
+    return hits;
+  }
+
+  public double hitRate() {
+    return probes == 0 ? 0 : (double) hits / probes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT, "%d hits in %d lookups (%.0f%%)", hits, probes, hitRate() * 100);
+  }
+}
@@ -0,0 +1,44 @@
+package hwr.oop.chess.engine;
+
+// the pawn structure of both players, cached in a PawnHashTable as one packed long
+public record PawnStructure(int score, PawnCounts white, PawnCounts black) {
+  public record PawnCounts(int doubled, int isolated, int passed, int backward) {}
+
+  // bits 0-15 score + offset, then doubled, isolated, passed and backward pawns of white and
+  // black with 4 bits each. The offset keeps a packed structure from ever being 0.
+  private static final int SCORE_OFFSET = 1 << 15;
+  private static final int COUNT_BITS = 4;
+
+  public long pack() {
+    long packed = (score + SCORE_OFFSET) & 0xFFFFL;
+    int shift = 16;
+    for (PawnCounts counts : new PawnCounts[] {white, black}) {
+      for (int count :
+          new int[] {counts.doubled(), counts.isolated(), counts.passed(), counts.backward()}) {
+        packed |= (long) count << shift;
+        shift += COUNT_BITS;
+      }
+    }
+    return packed;
+  }
+
+  public static PawnStructure unpack(long packed) {
+    return new PawnStructure(score(packed), counts(packed, 16), counts(packed, 32));
+  }
+
+  public static int score(long packed) {
+    return (int) (packed & 0xFFFFL) - SCORE_OFFSET;
+  }
+
+  private static PawnCounts counts(long packed, int shift) {
+    return new PawnCounts(
+        count(packed, shift),
+        count(packed, shift + COUNT_BITS),
+        count(packed, shift + 2 * COUNT_BITS),
+        count(packed, shift + 3 * COUNT_BITS));
+  }
+
+  private static int count(long packed, int shift) {
+    return (int) (packed >>> shift) & ((1 << COUNT_BITS) - 1);
+  }
+}
@@ -0,0 +1,130 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.MoveList;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// entries of 16 bytes (key, move, weight, learn), big endian and sorted by key
+public class PolyglotBook {
+  public static final String BOOK_PROPERTY = "chess.book";
+  private static final int ENTRY_BYTES = 16;
+  // promotion field of a Polyglot move: none, knight, bishop, rook, queen
+  private static final FigureType[] PROMOTIONS = {
+    null, FigureType.KNIGHT, FigureType.BISHOP, FigureType.ROOK, FigureType.QUEEN
+  };
+
+  private final ByteBuffer entries;
+  private final int entryCount;
+
+  public PolyglotBook(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() % ENTRY_BYTES != 0 || channel.size() / ENTRY_BYTES > Integer.MAX_VALUE) {
+        throw new InvalidUserInputException(
+            "The file '" + path + "' is not an opening book in the Polyglot format.");
+      }
+      // the mapping stays valid after the channel is closed
+      this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      this.entryCount = (int) (channel.size() / ENTRY_BYTES);
+    } catch (IOException e) {
+      throw new InvalidUserInputException("The opening book '" + path + "' could not be read.");
+    }
+  }
+
+  // the book of the property chess.book, or null without a book
+  public static PolyglotBook configured() {
+    String book = System.getProperty(BOOK_PROPERTY);
+    return book == null ? null : new PolyglotBook(Path.of(book));
+  }
+
+  public int size() {
+    return entryCount;
+  }
+
+  // the legal moves of the book for the position, in the order of the book
+  public List<BookMove> moves(Board board) {
+    long key = PolyglotKey.key(board);
+    List<BookMove> moves = new ArrayList<>();
+    MoveList legalMoves = board.legalMoves(board.turn());
+    for (int index = firstEntryOf(key); index < entryCount && keyAt(index) == key; index++) {
+      int offset = index * ENTRY_BYTES;
+      int move = toMove(board, legalMoves, Short.toUnsignedInt(entries.getShort(offset + 8)));
+      if (move != Move.NONE) {
+        moves.add(new BookMove(move, Short.toUnsignedInt(entries.getShort(offset + 10))));
+      }
+    }
+    return moves;
+  }
+
+  // a book move chosen with a probability proportional to its weight, or Move.NONE
+  public int pick(Board board, Random random) {
+    List<BookMove> moves = moves(board);
+    int totalWeight = moves.stream().mapToInt(BookMove::weight).sum();
+    if (totalWeight == 0) {
+      return moves.isEmpty() ? Move.NONE : moves.getFirst().move();
+    }
+    int chosen = random.nextInt(totalWeight);
+    for (BookMove move : moves) {
+      chosen -= move.weight();
+      if (chosen < 0) {
+        return move.move();
+      }
+    }
+    throw new IllegalStateException("The weights of the book moves changed while picking.");
+  }
+
+  private long keyAt(int index) {
+    return entries.getLong(index * ENTRY_BYTES);
+  }
+
+  // binary search for the first entry whose key is not smaller, the keys are unsigned
+  private int firstEntryOf(long key) {
+    int low = 0;
+    int high = entryCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static int toMove(Board board, MoveList legalMoves, int bookMove) {
+    int to = bookMove & 0x3F;
+    int from = (bookMove >>> 6) & 0x3F;
+    int promotion = (bookMove >>> 12) & 0x7;
+    if (promotion >= PROMOTIONS.length || board.cellAt(from).figure() == null) {
+      return Move.NONE;
+    }
+    // castling is stored as the king capturing its own rook
+    if (board.cellAt(from).figure().type() == FigureType.KING && (from == 4 || from == 60)) {
+      if (to == from + 3) {
+        to = from + 2;
+      } else if (to == from - 4) {
+        to = from - 2;
+      }
+    }
+    FigureType promotionType = PROMOTIONS[promotion];
+    for (int i = 0; i < legalMoves.size(); i++) {
+      int move = legalMoves.get(i);
+      if (Move.from(move) == from
+          && Move.to(move) == to
+          && Move.promotion(move) == promotionType) {
+        return move;
+      }
+    }
+    return Move.NONE;
+  }
+}
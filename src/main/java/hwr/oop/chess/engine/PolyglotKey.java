@@ -0,0 +1,59 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+// the key of a position in the Polyglot book format, not our own Zobrist key
+public final class PolyglotKey {
+  private static final int CASTLING_OFFSET = 768;
+  private static final int EN_PASSANT_OFFSET = 772;
+  private static final int TURN_OFFSET = 780;
+  // Polyglot kind of each figure type without the color, from pawn (0) up to king (5)
+  private static final int[] KINDS = {5, 4, 3, 2, 1, 0};
+
+  private static final long[] RANDOMS = PolyglotRandoms.RANDOM64;
+
+  private PolyglotKey() {}
+
+  public static long key(Board board) {
+    Bitboard bitboard = board.bitboard();
+    long key = 0;
+    for (FigureColor color : FigureColor.values()) {
+      int colorOffset = color == FigureColor.WHITE ? 1 : 0;
+      for (FigureType type : FigureType.values()) {
+        int kind = 2 * KINDS[type.ordinal()] + colorOffset;
+        for (long cells = bitboard.pieces(color, type); cells != 0; cells &= cells - 1) {
+          key ^= RANDOMS[64 * kind + Long.numberOfTrailingZeros(cells)];
+        }
+      }
+    }
+
+    int castling = CASTLING_OFFSET;
+    for (FigureColor color : FigureColor.values()) {
+      int colorOffset = color == FigureColor.WHITE ? 0 : 2;
+      if (board.hasCastlingRight(color, true)) {
+        key ^= RANDOMS[castling + colorOffset];
+      }
+      if (board.hasCastlingRight(color, false)) {
+        key ^= RANDOMS[castling + colorOffset + 1];
+      }
+    }
+
+    // the en passant file only counts if a pawn of the player to move could capture there
+    long ownPawns = bitboard.pieces(board.turn(), FigureType.PAWN);
+    for (long cells = bitboard.enPassant(); cells != 0; cells &= cells - 1) {
+      int cell = Long.numberOfTrailingZeros(cells);
+      if ((AttackTables.pawnAttacks(cell, board.turn().ofOpponent()) & ownPawns) != 0) {
+        key ^= RANDOMS[EN_PASSANT_OFFSET + cell % 8];
+      }
+    }
+
+    if (board.turn() == FigureColor.WHITE) {
+      key ^= RANDOMS[TURN_OFFSET];
+    }
+    return key;
+  }
+}
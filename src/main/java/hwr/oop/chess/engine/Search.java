@@ -0,0 +1,388 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.MoveGenerator;
+import hwr.oop.chess.application.MoveList;
+import hwr.oop.chess.application.figures.Figure;
+import hwr.oop.chess.application.figures.FigureType;
+import java.util.Arrays;
+
+// negamax with alpha-beta pruning and iterative deepening
+public class Search {
+  public static final int INFINITY = 1_000_000;
+  public static final int MATE = 100_000;
+  public static final int MAX_PLY = 128;
+  // above every evaluation and below every mate, the search still looks for the mate itself
+  public static final int TABLEBASE_WIN = 20_000;
+  private static final int PV_MOVE_SCORE = 1 << 20;
+  private static final int CAPTURE_SCORE = 1 << 16;
+  // how many nodes are searched before the clock is read again
+  private static final int CHECK_INTERVAL = 2048;
+
+  private final Board board;
+  private final TranspositionTable transpositionTable;
+  private final Tablebases tablebases;
+  private final PawnHashTable pawnHashTable = new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES);
+  private final MoveList[] movesPerPly = new MoveList[MAX_PLY];
+  private final int[][] moveScoresPerPly = new int[MAX_PLY][];
+  private final int[][] principalVariation = new int[MAX_PLY][MAX_PLY];
+  private final int[] principalVariationLength = new int[MAX_PLY];
+  private final long[] keysOnPath = new long[MAX_PLY];
+  private int[] previousPrincipalVariation = new int[0];
+  private boolean followPrincipalVariation;
+  private long nodes;
+  private long nodeLimit;
+  private long deadline;
+  private boolean aborted;
+  // set by another thread, so it is only read together with the clock
+  private volatile boolean stopRequested;
+
+  public Search(Board board) {
+    this(board, TranspositionTable.configured());
+  }
+
+  public Search(Board board, TranspositionTable transpositionTable) {
+    this(board, transpositionTable, Tablebases.configured());
+  }
+
+  public Search(Board board, TranspositionTable transpositionTable, Tablebases tablebases) {
+    this.board = board;
+    this.transpositionTable = transpositionTable;
+    this.tablebases = tablebases;
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      movesPerPly[ply] = new MoveList();
+      moveScoresPerPly[ply] = new int[256];
+    }
+  }
+
+  public SearchResult search(SearchLimits limits) {
+    transpositionTable.newSearch();
+    return search(limits, 1);
+  }
+
+  // helper threads of a parallel search start deeper, so that they do not all search alike
+  SearchResult search(SearchLimits limits, int firstDepth) {
+    start(limits);
+    SearchResult tablebaseResult = searchTablebases();
+    if (tablebaseResult != null) {
+      return tablebaseResult;
+    }
+
+    SearchResult result = null;
+    for (int depth = Math.min(firstDepth, limits.maxDepth());
+        depth <= limits.maxDepth();
+        depth++) {
+      followPrincipalVariation = true;
+      int score = negamax(depth, 0, -INFINITY, INFINITY);
+      if (aborted && result != null) {
+        // an unfinished iteration may not have looked at the best move yet
+        break;
+      }
+      previousPrincipalVariation =
+          Arrays.copyOf(principalVariation[0], principalVariationLength[0]);
+      result = new SearchResult(score, depth, nodes, previousPrincipalVariation);
+      if (aborted || result.isMate() || previousPrincipalVariation.length == 0) {
+        break;
+      }
+    }
+    if (result.principalVariation().length == 0) {
+      // the budget ran out before a single move was searched, so any legal move has to do
+      MoveList moves = movesPerPly[0];
+      MoveGenerator.generateLegalMoves(board, moves);
+      if (!moves.isEmpty()) {
+        result = new SearchResult(result.score(), 0, nodes, new int[] {moves.get(0)});
+      }
+    }
+    return result;
+  }
+
+  // a position of the tablebases needs no search, the move which keeps its result is known
+  private SearchResult searchTablebases() {
+    if (!isInTablebases()) {
+      return null;
+    }
+    TablebaseResult result = tablebases.probe(board);
+    int bestMove = result == null ? Move.NONE : tablebases.bestMove(board);
+    if (bestMove == Move.NONE) {
+      return null;
+    }
+    return new SearchResult(tablebaseScore(result), 1, 1, new int[] {bestMove});
+  }
+
+  private boolean isInTablebases() {
+    return Long.bitCount(board.bitboard().occupancy()) <= tablebases.maxPieces();
+  }
+
+  private static int tablebaseScore(TablebaseResult result) {
+    return switch (result.wdl()) {
+      case WIN -> TABLEBASE_WIN;
+      case DRAW -> 0;
+      case LOSS -> -TABLEBASE_WIN;
+    };
+  }
+
+  public long nodes() {
+    return nodes;
+  }
+
+  // a stopped search returns the result of its last finished iteration as soon as possible
+  public void stop() {
+    stopRequested = true;
+  }
+
+  private void start(SearchLimits limits) {
+    nodes = 0;
+    aborted = false;
+    nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+    deadline =
+        limits.millis() > 0 ? System.nanoTime() + limits.millis() * 1_000_000 : Long.MAX_VALUE;
+    previousPrincipalVariation = new int[0];
+    keysOnPath[0] = board.zobristKey();
+  }
+
+  // the quiescence search of the current position as if it was reached at the ply
+  int quiescence(int ply, SearchLimits limits) {
+    start(limits);
+    return quiescence(ply, -INFINITY, INFINITY);
+  }
+
+  private int negamax(int depth, int ply, int alpha, int beta) {
+    principalVariationLength[ply] = ply;
+    if (countNodeAndCheckLimits()) {
+      return 0;
+    }
+    if (ply > 0 && isDrawByRule(ply)) {
+      return 0;
+    }
+    if (ply > 0 && isInTablebases()) {
+      TablebaseResult result = tablebases.probe(board);
+      if (result != null) {
+        return tablebaseScore(result);
+      }
+    }
+    boolean inCheck = board.isCheck(board.turn());
+    if (inCheck) {
+      depth++;
+    }
+    if (depth <= 0 || ply >= MAX_PLY - 1) {
+      return quiescence(ply, alpha, beta);
+    }
+
+    // the principal variation is never cut short by an entry of the table
+    long key = keysOnPath[ply];
+    long entry = transpositionTable.probe(key);
+    boolean isPrincipalVariationNode = beta - alpha > 1;
+    if (entry != TranspositionTable.NO_ENTRY
+        && !isPrincipalVariationNode
+        && TranspositionTable.depth(entry) >= depth) {
+      int score = scoreFromTable(TranspositionTable.score(entry), ply);
+      int bound = TranspositionTable.bound(entry);
+      if (bound == TranspositionTable.BOUND_EXACT
+          || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+          || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+        return score;
+      }
+    }
+
+    MoveList moves = movesPerPly[ply];
+    MoveGenerator.generateLegalMoves(board, moves);
+    if (moves.isEmpty()) {
+      return inCheck ? -MATE + ply : 0;
+    }
+    boolean onPrincipalVariation =
+        followPrincipalVariation && ply < previousPrincipalVariation.length;
+    int principalVariationMove =
+        onPrincipalVariation ? previousPrincipalVariation[ply] : Move.NONE;
+    scoreMoves(
+        ply,
+        moves,
+        onPrincipalVariation ? principalVariationMove : TranspositionTable.move(entry));
+
+    int originalAlpha = alpha;
+    int bestMove = Move.NONE;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = pickNextMove(ply, moves, i);
+      followPrincipalVariation = onPrincipalVariation && move == principalVariationMove;
+      board.makeMove(move);
+      keysOnPath[ply + 1] = board.zobristKey();
+      int score;
+      if (i == 0) {
+        score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+      } else {
+        // the later moves only have to prove that they are worse than the first one
+        score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+        if (score > alpha && score < beta) {
+          score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+        }
+      }
+      board.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      if (score > alpha) {
+        alpha = score;
+        bestMove = move;
+        updatePrincipalVariation(ply, move);
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+    followPrincipalVariation = false;
+
+    int bound = TranspositionTable.BOUND_UPPER;
+    if (alpha >= beta) {
+      bound = TranspositionTable.BOUND_LOWER;
+    } else if (alpha > originalAlpha) {
+      bound = TranspositionTable.BOUND_EXACT;
+    }
+    transpositionTable.store(key, bestMove, scoreToTable(alpha, ply), depth, bound);
+    return alpha;
+  }
+
+  // mate scores are stored relative to the position, not to the root of the search
+  private static int scoreToTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) {
+      return score + ply;
+    }
+    return score <= -MATE + MAX_PLY ? score - ply : score;
+  }
+
+  private static int scoreFromTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) {
+      return score - ply;
+    }
+    return score <= -MATE + MAX_PLY ? score + ply : score;
+  }
+
+  // Method to search captures and promotions until the position is quiet
+  private int quiescence(int ply, int alpha, int beta) {
+    principalVariationLength[ply] = ply;
+    if (countNodeAndCheckLimits()) {
+      return 0;
+    }
+    // there is no room for a deeper ply, not even for the evasions of a check
+    if (ply >= MAX_PLY - 1) {
+      return Evaluation.evaluate(board, pawnHashTable);
+    }
+    boolean inCheck = board.isCheck(board.turn());
+    if (!inCheck) {
+      int standPat = Evaluation.evaluate(board, pawnHashTable);
+      if (standPat >= beta) {
+        return standPat;
+      }
+      alpha = Math.max(alpha, standPat);
+    }
+
+    MoveList moves = movesPerPly[ply];
+    MoveGenerator.generateLegalMoves(board, moves);
+    if (inCheck && moves.isEmpty()) {
+      return -MATE + ply;
+    }
+    scoreMoves(ply, moves, Move.NONE);
+
+    for (int i = 0; i < moves.size(); i++) {
+      int move = pickNextMove(ply, moves, i);
+      if (!inCheck && !Move.isCapture(move) && !Move.isPromotion(move)) {
+        continue;
+      }
+      board.makeMove(move);
+      int score = -quiescence(ply + 1, -beta, -alpha);
+      board.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      if (score > alpha) {
+        alpha = score;
+        updatePrincipalVariation(ply, move);
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+    return alpha;
+  }
+
+  private boolean countNodeAndCheckLimits() {
+    nodes++;
+    if (nodes >= nodeLimit
+        || (nodes % CHECK_INTERVAL == 0 && (stopRequested || System.nanoTime() >= deadline))) {
+      aborted = true;
+    }
+    return aborted;
+  }
+
+  // the fifty-move rule and positions which already appeared on the path since the last capture
+  private boolean isDrawByRule(int ply) {
+    if (board.halfMove() >= 100) {
+      return true;
+    }
+    int earliestPly = Math.max(0, ply - board.halfMove());
+    for (int i = ply - 2; i >= earliestPly; i -= 2) {
+      if (keysOnPath[i] == keysOnPath[ply]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void updatePrincipalVariation(int ply, int move) {
+    principalVariation[ply][ply] = move;
+    int childLength = principalVariationLength[ply + 1];
+    System.arraycopy(
+        principalVariation[ply + 1],
+        ply + 1,
+        principalVariation[ply],
+        ply + 1,
+        childLength - ply - 1);
+    principalVariationLength[ply] = Math.max(childLength, ply + 1);
+  }
+
+  // principal variation first, then captures with the most valuable victim and cheapest attacker
+  private void scoreMoves(int ply, MoveList moves, int principalVariationMove) {
+    if (moveScoresPerPly[ply].length < moves.size()) {
+      moveScoresPerPly[ply] = new int[moves.size()];
+    }
+    int[] scores = moveScoresPerPly[ply];
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      int score = 0;
+      if (move == principalVariationMove) {
+        score = PV_MOVE_SCORE;
+      } else if (Move.isCapture(move)) {
+        score = CAPTURE_SCORE + 10 * victimValue(move) - figureValue(Move.from(move));
+      }
+      if (Move.isPromotion(move)) {
+        score += Evaluation.value(Move.promotion(move));
+      }
+      scores[i] = score;
+    }
+  }
+
+  private int pickNextMove(int ply, MoveList moves, int index) {
+    int[] scores = moveScoresPerPly[ply];
+    int best = index;
+    for (int i = index + 1; i < moves.size(); i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+    moves.swap(index, best);
+    int score = scores[index];
+    scores[index] = scores[best];
+    scores[best] = score;
+    return moves.get(index);
+  }
+
+  private int victimValue(int move) {
+    return Move.isEnPassant(move)
+        ? Evaluation.value(FigureType.PAWN)
+        : figureValue(Move.to(move));
+  }
+
+  private int figureValue(int index) {
+    Figure figure = board.cellAt(index).figure();
+    return figure == null ? 0 : Evaluation.value(figure.type());
+  }
+}
@@ -0,0 +1,27 @@
+package hwr.oop.chess.engine;
+
+// The search stops at whichever limit is reached first, 0 means "no limit"
+public record SearchLimits(int maxDepth, long millis, long nodes) {
+  public static final int MAX_DEPTH = 64;
+
+  public SearchLimits {
+    if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+      throw new IllegalArgumentException("The depth must be between 1 and " + MAX_DEPTH + ".");
+    }
+    if (millis < 0 || nodes < 0) {
+      throw new IllegalArgumentException("The time and node limits must not be negative.");
+    }
+  }
+
+  public static SearchLimits depth(int maxDepth) {
+    return new SearchLimits(maxDepth, 0, 0);
+  }
+
+  public static SearchLimits millis(long millis) {
+    return new SearchLimits(MAX_DEPTH, millis, 0);
+  }
+
+  public static SearchLimits nodes(long nodes) {
+    return new SearchLimits(MAX_DEPTH, 0, nodes);
+  }
+}
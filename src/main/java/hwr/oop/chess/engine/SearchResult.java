@@ -0,0 +1,64 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Move;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+public record SearchResult(int score, int depth, long nodes, int[] principalVariation) {
+  public int bestMove() {
+    return principalVariation.length == 0 ? Move.NONE : principalVariation[0];
+  }
+
+  public boolean isMate() {
+    return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+  }
+
+  // "+0.35" in pawns for the player to move, "mate in 2" / "mated in 2" or "tablebase win"
+  public String scoreToString() {
+    if (isMate()) {
+      int moves = (Search.MATE - Math.abs(score) + 1) / 2;
+      return (score > 0 ? "mate in " : "mated in ") + moves;
+    }
+    if (Math.abs(score) >= Search.TABLEBASE_WIN) {
+      return score > 0 ? "tablebase win" : "tablebase loss";
+    }
+    return String.format(Locale.ROOT, "%+.2f", score / 100.0);
+  }
+
+  public String principalVariationToString() {
+    StringJoiner joiner = new StringJoiner(" ");
+    for (int move : principalVariation) {
+      joiner.add(Move.toString(move));
+    }
+    return joiner.toString();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof SearchResult result
+        && score == result.score
+        && depth == result.depth
+        && nodes == result.nodes
+        && Arrays.equals(principalVariation, result.principalVariation);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * (31 * score + depth) + Long.hashCode(nodes))
+        + Arrays.hashCode(principalVariation);
+  }
+
+  @Override
+  public String toString() {
+    return "SearchResult[score="
+        + scoreToString()
+        + ", depth="
+        + depth
+        + ", nodes="
+        + nodes
+        + ", pv="
+        + principalVariationToString()
+        + "]";
+  }
+}
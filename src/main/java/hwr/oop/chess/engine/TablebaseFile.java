@@ -0,0 +1,167 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// a header, the results with 2 bits per position and the dtz with as many bits as the longest needs
+public class TablebaseFile {
+  public static final String EXTENSION = ".tb";
+  // the 2 bit value of positions which cannot occur in a game
+  public static final int INVALID = 3;
+  private static final int MAGIC = 0x48575442;
+  private static final int VERSION = 2;
+  private static final int HEADER_BYTES = 32;
+  private static final int SIGNATURE_BYTES = HEADER_BYTES - 16;
+
+  private final TablebaseIndex index;
+  private final ByteBuffer data;
+  private final int dtzOffset;
+  private final int dtzBits;
+
+  private TablebaseFile(TablebaseIndex index, ByteBuffer data, int dtzBits) {
+    this.index = index;
+    this.data = data;
+    this.dtzOffset = HEADER_BYTES + wdlBytes(index.size());
+    this.dtzBits = dtzBits;
+  }
+
+  private static int wdlBytes(int size) {
+    return (size + 3) / 4;
+  }
+
+  private static int dtzBytes(int size, int dtzBits) {
+    return (int) (((long) size * dtzBits + 7) / 8);
+  }
+
+  public static TablebaseFile open(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (data.capacity() < HEADER_BYTES
+          || data.getInt(0) != MAGIC
+          || data.getInt(4) != VERSION) {
+        throw new InvalidUserInputException("The file '" + path + "' is not a tablebase.");
+      }
+      TablebaseIndex index = indexFromHeader(path, data);
+      int size = index.size();
+      int dtzBits = data.getInt(12);
+      if (data.getInt(8) != size
+          || dtzBits < 0
+          || dtzBits > 8
+          || data.capacity() != HEADER_BYTES + wdlBytes(size) + dtzBytes(size, dtzBits)) {
+        throw new InvalidUserInputException("The tablebase '" + path + "' is incomplete.");
+      }
+      return new TablebaseFile(index, data, dtzBits);
+    } catch (IOException e) {
+      throw new InvalidUserInputException("The tablebase '" + path + "' could not be read.");
+    }
+  }
+
+  private static TablebaseIndex indexFromHeader(Path path, ByteBuffer data) {
+    byte[] signature = new byte[SIGNATURE_BYTES];
+    data.get(16, signature);
+    try {
+      return new TablebaseIndex(new String(signature, StandardCharsets.US_ASCII).trim());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidUserInputException("The tablebase '" + path + "' has an unknown material.");
+    }
+  }
+
+  public static void write(Path path, TablebaseIndex index, byte[] wdl, byte[] dtz) {
+    int size = index.size();
+    int longest = 0;
+    for (byte distance : dtz) {
+      longest = Math.max(longest, Byte.toUnsignedInt(distance));
+    }
+    int dtzBits = Integer.SIZE - Integer.numberOfLeadingZeros(longest);
+    ByteBuffer data =
+        ByteBuffer.allocate(HEADER_BYTES + wdlBytes(size) + dtzBytes(size, dtzBits));
+    data.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(dtzBits);
+    byte[] signature = new byte[SIGNATURE_BYTES];
+    byte[] letters = index.signature().getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(letters, 0, signature, 0, letters.length);
+    data.put(signature);
+    for (int position = 0; position < size; position += 4) {
+      int packed = 0;
+      for (int i = 0; i < 4 && position + i < size; i++) {
+        packed |= wdl[position + i] << (2 * i);
+      }
+      data.put((byte) packed);
+    }
+    // the bits of the dtz are packed from the lowest bit of each byte upwards
+    long bits = 0;
+    int bitCount = 0;
+    for (byte distance : dtz) {
+      bits |= (long) Byte.toUnsignedInt(distance) << bitCount;
+      bitCount += dtzBits;
+      for (; bitCount >= 8; bitCount -= 8, bits >>>= 8) {
+        data.put((byte) bits);
+      }
+    }
+    if (bitCount > 0) {
+      data.put((byte) bits);
+    }
+    data.flip();
+    // only a complete and synced table is renamed into place
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      try (FileChannel channel =
+          FileChannel.open(
+              temporary,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        while (data.hasRemaining()) {
+          channel.write(data);
+        }
+        channel.force(true);
+      }
+      Files.move(
+          temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      try (FileChannel directory =
+          FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+        directory.force(true);
+      }
+    } catch (IOException e) {
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (IOException ignored) {
+        // the error of the write is the one to report
+      }
+      throw new InvalidUserInputException("The tablebase '" + path + "' could not be written.");
+    }
+  }
+
+  public TablebaseIndex index() {
+    return index;
+  }
+
+  // the 2 bit value of the position: a Wdl ordinal or INVALID
+  public int wdl(int position) {
+    return data.get(HEADER_BYTES + position / 4) >>> (2 * (position % 4)) & 3;
+  }
+
+  public int dtz(int position) {
+    if (dtzBits == 0) {
+      return 0;
+    }
+    long bit = (long) position * dtzBits;
+    int offset = dtzOffset + (int) (bit / 8);
+    int bytes = Byte.toUnsignedInt(data.get(offset));
+    if (offset + 1 < data.capacity()) {
+      bytes |= Byte.toUnsignedInt(data.get(offset + 1)) << 8;
+    }
+    return bytes >>> (bit % 8) & (1 << dtzBits) - 1;
+  }
+
+  public TablebaseResult probe(int position) {
+    int wdl = wdl(position);
+    return wdl == INVALID ? null : new TablebaseResult(Wdl.values()[wdl], dtz(position));
+  }
+}
@@ -0,0 +1,400 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.AttackTables;
+import hwr.oop.chess.application.MagicBitboards;
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// retrograde analysis: two threads may reach the same predecessor, a win is written by each of
+// them alike, a loss only by the thread which counts the last remaining move
+public class TablebaseGenerator {
+  // in the order in which they are generated, each one only needs the tables before it
+  public static final List<String> SIGNATURES = List.of("KQvK", "KRvK", "KPvK", "KBNvK");
+  private static final byte UNKNOWN = -1;
+  // the dtz of positions which are not decided yet, never reached by a round
+  private static final int MAX_DTZ = 255;
+  private static final int POSITIONS_PER_TASK = 1 << 14;
+  private static final FigureType[] PROMOTION_TYPES = {
+    FigureType.QUEEN, FigureType.ROOK, FigureType.BISHOP, FigureType.KNIGHT
+  };
+
+  private final TablebaseIndex index;
+  private final Tablebases smallerTables;
+  private final int pieceCount;
+  private final byte[] wdl;
+  private final byte[] dtz;
+  // moves to other positions of this table which are not yet known to lose
+  private final AtomicIntegerArray remainingMoves;
+  private final boolean[] hasDrawingConversion;
+
+  public TablebaseGenerator(TablebaseIndex index, Tablebases smallerTables) {
+    this.index = index;
+    this.smallerTables = smallerTables;
+    this.pieceCount = index.pieceCount();
+    this.wdl = new byte[index.size()];
+    this.dtz = new byte[index.size()];
+    this.remainingMoves = new AtomicIntegerArray(index.size());
+    this.hasDrawingConversion = new boolean[index.size()];
+  }
+
+  // generates those of the tables which are missing in the directory, in the order of the list
+  public static List<String> generateMissing(Path directory, List<String> signatures) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The tablebase directory '" + directory + "' could not be created.");
+    }
+    List<String> generated = new ArrayList<>();
+    for (String signature : signatures) {
+      Tablebases existing = Tablebases.fromDirectory(directory);
+      if (!existing.contains(signature)) {
+        TablebaseGenerator generator =
+            new TablebaseGenerator(new TablebaseIndex(signature), existing);
+        generator.generate();
+        generator.write(directory);
+        generated.add(signature);
+      }
+    }
+    return generated;
+  }
+
+  public void generate() {
+    Arrays.fill(wdl, UNKNOWN);
+    Arrays.fill(dtz, (byte) MAX_DTZ);
+    inParallel(
+        (first, end) -> {
+          int[] squares = new int[pieceCount];
+          int[] successors = new int[256];
+          for (int position = first; position < end; position++) {
+            initialize(position, squares, successors);
+          }
+          return 0;
+        });
+    for (int level = 1; level < MAX_DTZ; level++) {
+      int currentLevel = level;
+      long frontier =
+          inParallel(
+              (first, end) -> {
+                int[] squares = new int[pieceCount];
+                int[] predecessors = new int[256];
+                long retracted = 0;
+                for (int position = first; position < end; position++) {
+                  if (Byte.toUnsignedInt(dtz[position]) == currentLevel - 1
+                      && isDecisive(position)) {
+                    retract(position, currentLevel, squares, predecessors);
+                    retracted++;
+                  }
+                }
+                return retracted;
+              });
+      // the positions of level 1 are also found by the initialization
+      if (frontier == 0 && level > 1) {
+        break;
+      }
+    }
+    inParallel(
+        (first, end) -> {
+          for (int position = first; position < end; position++) {
+            if (wdl[position] == UNKNOWN) {
+              decide(position, Wdl.DRAW, 0);
+            } else if (wdl[position] == TablebaseFile.INVALID) {
+              dtz[position] = 0;
+            }
+          }
+          return 0;
+        });
+  }
+
+  public void write(Path directory) {
+    TablebaseFile.write(
+        directory.resolve(index.signature() + TablebaseFile.EXTENSION), index, wdl, dtz);
+  }
+
+  private interface RangeAction {
+    long run(int first, int end);
+  }
+
+  // splits the index space until the parts are small enough, the results are added up
+  private static class RangeTask extends RecursiveTask<Long> {
+    private final RangeAction action;
+    private final int first;
+    private final int end;
+
+    RangeTask(RangeAction action, int first, int end) {
+      this.action = action;
+      this.first = first;
+      this.end = end;
+    }
+
+    @Override
+    protected Long compute() {
+      if (end - first <= POSITIONS_PER_TASK) {
+        return action.run(first, end);
+      }
+      int middle = (first + end) >>> 1;
+      RangeTask upper = new RangeTask(action, middle, end);
+      upper.fork();
+      long lower = new RangeTask(action, first, middle).compute();
+      return lower + upper.join();
+    }
+  }
+
+  private long inParallel(RangeAction action) {
+    return ForkJoinPool.commonPool().invoke(new RangeTask(action, 0, index.size()));
+  }
+
+  // stalemates are decided as well, but they do not spread to other positions
+  private boolean isDecisive(int position) {
+    return wdl[position] == Wdl.WIN.ordinal() || wdl[position] == Wdl.LOSS.ordinal();
+  }
+
+  private void decide(int position, Wdl result, int distance) {
+    wdl[position] = (byte) result.ordinal();
+    dtz[position] = (byte) Math.min(distance, MAX_DTZ);
+  }
+
+  private void initialize(int position, int[] squares, int[] successors) {
+    FigureColor turn = index.decode(position, squares);
+    if (!isValid(squares, turn) || index.index(squares, turn) != position) {
+      wdl[position] = TablebaseFile.INVALID;
+      return;
+    }
+    int successorCount = 0;
+    boolean hasLegalMove = false;
+    boolean winsByConversion = false;
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (index.color(piece) != turn) {
+        continue;
+      }
+      int from = squares[piece];
+      boolean isPawn = index.type(piece) == FigureType.PAWN;
+      long targets = moveTargets(piece, squares, turn);
+      for (; targets != 0; targets &= targets - 1) {
+        int to = Long.numberOfTrailingZeros(targets);
+        int captured = pieceOn(squares, to);
+        squares[piece] = to;
+        if (!isAttacked(squares, kingOf(turn), turn.ofOpponent(), captured)) {
+          hasLegalMove = true;
+          boolean promotes = isPawn && (to < 8 || to >= 56);
+          if (captured >= 0 || promotes) {
+            int conversions = promotes ? PROMOTION_TYPES.length : 1;
+            for (int i = 0; i < conversions; i++) {
+              FigureType promotion = promotes ? PROMOTION_TYPES[i] : null;
+              Wdl result = conversionResult(squares, captured, piece, promotion, turn);
+              winsByConversion |= result == Wdl.WIN;
+              hasDrawingConversion[position] |= result == Wdl.DRAW;
+            }
+          } else {
+            int successor = index.index(squares, turn.ofOpponent());
+            successorCount = addUnique(successors, successorCount, successor);
+          }
+        }
+        squares[piece] = from;
+      }
+    }
+    remainingMoves.set(position, successorCount);
+    if (!hasLegalMove) {
+      boolean inCheck = isAttacked(squares, kingOf(turn), turn.ofOpponent(), -1);
+      decide(position, inCheck ? Wdl.LOSS : Wdl.DRAW, 0);
+    } else if (winsByConversion) {
+      decide(position, Wdl.WIN, 1);
+    } else if (successorCount == 0 && !hasDrawingConversion[position]) {
+      // every capture or promotion leads into a lost ending
+      decide(position, Wdl.LOSS, 1);
+    }
+  }
+
+  // spreads a result of the given level - 1 to the positions one half move before
+  private void retract(int position, int level, int[] squares, int[] predecessors) {
+    FigureColor turn = index.decode(position, squares);
+    FigureColor mover = turn.ofOpponent();
+    long occupancy = occupancy(squares, -1);
+    int predecessorCount = 0;
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (index.color(piece) != mover) {
+        continue;
+      }
+      int to = squares[piece];
+      long origins =
+          index.type(piece) == FigureType.PAWN
+              ? pawnOrigins(to, mover, occupancy)
+              : attacks(piece, to, occupancy) & ~occupancy;
+      for (; origins != 0; origins &= origins - 1) {
+        squares[piece] = Long.numberOfTrailingZeros(origins);
+        predecessorCount = addUnique(predecessors, predecessorCount, index.index(squares, mover));
+      }
+      squares[piece] = to;
+    }
+
+    boolean lost = wdl[position] == Wdl.LOSS.ordinal();
+    for (int i = 0; i < predecessorCount; i++) {
+      int predecessor = predecessors[i];
+      if (wdl[predecessor] != UNKNOWN) {
+        continue;
+      }
+      if (lost) {
+        decide(predecessor, Wdl.WIN, level);
+      } else if (remainingMoves.decrementAndGet(predecessor) == 0
+          && !hasDrawingConversion[predecessor]) {
+        decide(predecessor, Wdl.LOSS, level);
+      }
+    }
+  }
+
+  private static int addUnique(int[] positions, int count, int position) {
+    for (int i = 0; i < count; i++) {
+      if (positions[i] == position) {
+        return count;
+      }
+    }
+    positions[count] = position;
+    return count + 1;
+  }
+
+  // the result for the moving player, looked up in the table of the figures after the move
+  private Wdl conversionResult(
+      int[] squares, int captured, int moved, FigureType promotion, FigureColor turn) {
+    int remainingCount = captured >= 0 ? pieceCount - 1 : pieceCount;
+    FigureColor[] colors = new FigureColor[remainingCount];
+    FigureType[] types = new FigureType[remainingCount];
+    int[] remaining = new int[remainingCount];
+    for (int piece = 0, i = 0; piece < pieceCount; piece++) {
+      if (piece != captured) {
+        colors[i] = index.color(piece);
+        types[i] = piece == moved && promotion != null ? promotion : index.type(piece);
+        remaining[i++] = squares[piece];
+      }
+    }
+    TablebaseResult result = smallerTables.probe(colors, types, remaining, turn.ofOpponent());
+    if (result == null) {
+      throw new IllegalStateException(
+          "The table "
+              + index.signature()
+              + " needs the tables of the figures left by captures and promotions.");
+    }
+    return result.wdl().ofOpponent();
+  }
+
+  private long moveTargets(int piece, int[] squares, FigureColor turn) {
+    int from = squares[piece];
+    long occupancy = occupancy(squares, -1);
+    long own = own(squares, turn);
+    if (index.type(piece) != FigureType.PAWN) {
+      return attacks(piece, from, occupancy) & ~own;
+    }
+    int forwards = turn == FigureColor.WHITE ? 8 : -8;
+    long targets = AttackTables.pawnAttacks(from, turn) & occupancy & ~own;
+    int oneForwards = from + forwards;
+    if ((occupancy & 1L << oneForwards) == 0) {
+      targets |= 1L << oneForwards;
+      int startRank = turn == FigureColor.WHITE ? 1 : 6;
+      if (from / 8 == startRank && (occupancy & 1L << oneForwards + forwards) == 0) {
+        targets |= 1L << oneForwards + forwards;
+      }
+    }
+    return targets;
+  }
+
+  // cells a pawn can have come from without a capture, en passant rights are not part of a table
+  private static long pawnOrigins(int square, FigureColor color, long occupancy) {
+    int backwards = color == FigureColor.WHITE ? -8 : 8;
+    int oneBackwards = square + backwards;
+    int rank = oneBackwards / 8;
+    if (rank < 1 || rank > 6 || (occupancy & 1L << oneBackwards) != 0) {
+      return 0;
+    }
+    long origins = 1L << oneBackwards;
+    int startRank = color == FigureColor.WHITE ? 1 : 6;
+    int twoBackwards = oneBackwards + backwards;
+    if (twoBackwards / 8 == startRank && (occupancy & 1L << twoBackwards) == 0) {
+      origins |= 1L << twoBackwards;
+    }
+    return origins;
+  }
+
+  private boolean isValid(int[] squares, FigureColor turn) {
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (index.type(piece) == FigureType.PAWN && (squares[piece] < 8 || squares[piece] >= 56)) {
+        return false;
+      }
+      for (int other = piece + 1; other < pieceCount; other++) {
+        if (squares[piece] == squares[other]) {
+          return false;
+        }
+      }
+    }
+    // the player who just moved cannot be in check
+    return !isAttacked(squares, kingOf(turn.ofOpponent()), turn, -1);
+  }
+
+  private int kingOf(FigureColor color) {
+    for (int piece = 0; ; piece++) {
+      if (index.color(piece) == color && index.type(piece) == FigureType.KING) {
+        return piece;
+      }
+    }
+  }
+
+  private boolean isAttacked(int[] squares, int king, FigureColor byColor, int captured) {
+    long occupancy = occupancy(squares, captured);
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (piece != captured
+          && index.color(piece) == byColor
+          && (attacks(piece, squares[piece], occupancy) & 1L << squares[king]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long attacks(int piece, int square, long occupancy) {
+    return switch (index.type(piece)) {
+      case KING -> AttackTables.kingAttacks(square);
+      case QUEEN -> MagicBitboards.queenAttacks(square, occupancy);
+      case ROOK -> MagicBitboards.rookAttacks(square, occupancy);
+      case BISHOP -> MagicBitboards.bishopAttacks(square, occupancy);
+      case KNIGHT -> AttackTables.knightAttacks(square);
+      case PAWN -> AttackTables.pawnAttacks(square, index.color(piece));
+    };
+  }
+
+  private long occupancy(int[] squares, int captured) {
+    long occupancy = 0;
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (piece != captured) {
+        occupancy |= 1L << squares[piece];
+      }
+    }
+    return occupancy;
+  }
+
+  private long own(int[] squares, FigureColor color) {
+    long own = 0;
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (index.color(piece) == color) {
+        own |= 1L << squares[piece];
+      }
+    }
+    return own;
+  }
+
+  private int pieceOn(int[] squares, int square) {
+    for (int piece = 0; piece < pieceCount; piece++) {
+      if (squares[piece] == square) {
+        return piece;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,158 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+
+// the white king is moved into a1-d1-d4 by the symmetries of the board (a1-d8 with pawns)
+public class TablebaseIndex {
+  public static final int MAX_PIECES = 5;
+  private static final String TYPE_LETTERS = "KQRBNP";
+  private static final int MIRROR_FILES = 1;
+  private static final int MIRROR_RANKS = 2;
+  private static final int MIRROR_DIAGONAL = 4;
+  private static final int[] KING_SLOTS_WITHOUT_PAWNS = kingSlots(false);
+  private static final int[] KING_SLOTS_WITH_PAWNS = kingSlots(true);
+
+  private final String signature;
+  private final FigureType[] types;
+  private final FigureColor[] colors;
+  private final boolean hasPawns;
+  private final int[] kingSlots;
+  private final int[] kingSquares;
+  private final int positionsPerTurn;
+
+  public TablebaseIndex(String signature) {
+    String[] sides = signature.split("v", -1);
+    if (sides.length != 2 || !isSide(sides[0]) || !isSide(sides[1])) {
+      throw new IllegalArgumentException(
+          "The signature '" + signature + "' must look like KQvK (each side once K, then QRBNP).");
+    }
+    int pieceCount = sides[0].length() + sides[1].length();
+    if (pieceCount > MAX_PIECES) {
+      throw new IllegalArgumentException(
+          "Tablebases are limited to " + MAX_PIECES + " figures, not " + pieceCount + ".");
+    }
+    this.signature = signature;
+    this.types = new FigureType[pieceCount];
+    this.colors = new FigureColor[pieceCount];
+    String letters = sides[0] + sides[1];
+    for (int piece = 0; piece < pieceCount; piece++) {
+      types[piece] = FigureType.values()[TYPE_LETTERS.indexOf(letters.charAt(piece))];
+      colors[piece] = piece < sides[0].length() ? FigureColor.WHITE : FigureColor.BLACK;
+    }
+    this.hasPawns = letters.indexOf('P') >= 0;
+    this.kingSlots = hasPawns ? KING_SLOTS_WITH_PAWNS : KING_SLOTS_WITHOUT_PAWNS;
+    this.kingSquares = new int[hasPawns ? 32 : 10];
+    for (int square = 0; square < 64; square++) {
+      if (kingSlots[square] >= 0) {
+        kingSquares[kingSlots[square]] = square;
+      }
+    }
+    this.positionsPerTurn = kingSquares.length << (6 * (pieceCount - 1));
+  }
+
+  // each figure type at most once per side, the king first and the others in the order QRBNP
+  private static boolean isSide(String side) {
+    if (side.isEmpty() || side.charAt(0) != 'K') {
+      return false;
+    }
+    int previous = 0;
+    for (int i = 1; i < side.length(); i++) {
+      int type = TYPE_LETTERS.indexOf(side.charAt(i));
+      if (type <= previous) {
+        return false;
+      }
+      previous = type;
+    }
+    return true;
+  }
+
+  private static int[] kingSlots(boolean withPawns) {
+    int[] slots = new int[64];
+    int slot = 0;
+    for (int square = 0; square < 64; square++) {
+      int file = square % 8;
+      int rank = square / 8;
+      boolean inRegion = withPawns ? file < 4 : file < 4 && rank <= file;
+      slots[square] = inRegion ? slot++ : -1;
+    }
+    return slots;
+  }
+
+  public String signature() {
+    return signature;
+  }
+
+  public int pieceCount() {
+    return types.length;
+  }
+
+  public FigureType type(int piece) {
+    return types[piece];
+  }
+
+  public FigureColor color(int piece) {
+    return colors[piece];
+  }
+
+  public boolean hasPawns() {
+    return hasPawns;
+  }
+
+  public int size() {
+    return 2 * positionsPerTurn;
+  }
+
+  // the cells are given in the order of the signature, the first one is the white king
+  public int index(int[] squares, FigureColor turn) {
+    int symmetry = symmetryOf(squares);
+    int index = kingSlots[transform(squares[0], symmetry)];
+    for (int piece = 1; piece < squares.length; piece++) {
+      index = index << 6 | transform(squares[piece], symmetry);
+    }
+    return turn == FigureColor.WHITE ? index : index + positionsPerTurn;
+  }
+
+  // fills the cells of the figures and returns the player to move
+  public FigureColor decode(int index, int[] squares) {
+    FigureColor turn = index < positionsPerTurn ? FigureColor.WHITE : FigureColor.BLACK;
+    int rest = index % positionsPerTurn;
+    for (int piece = squares.length - 1; piece > 0; piece--) {
+      squares[piece] = rest & 63;
+      rest >>>= 6;
+    }
+    squares[0] = kingSquares[rest];
+    return turn;
+  }
+
+  private int symmetryOf(int[] squares) {
+    int symmetry = squares[0] % 8 > 3 ? MIRROR_FILES : 0;
+    if (hasPawns) {
+      return symmetry;
+    }
+    if (squares[0] / 8 > 3) {
+      symmetry |= MIRROR_RANKS;
+    }
+    // with the king on the diagonal the first figure beside it decides about the mirror
+    for (int square : squares) {
+      int transformed = transform(square, symmetry);
+      if (transformed / 8 != transformed % 8) {
+        return transformed / 8 > transformed % 8 ? symmetry | MIRROR_DIAGONAL : symmetry;
+      }
+    }
+    return symmetry;
+  }
+
+  private static int transform(int square, int symmetry) {
+    if ((symmetry & MIRROR_FILES) != 0) {
+      square ^= 7;
+    }
+    if ((symmetry & MIRROR_RANKS) != 0) {
+      square ^= 56;
+    }
+    if ((symmetry & MIRROR_DIAGONAL) != 0) {
+      square = (square & 7) << 3 | square >>> 3;
+    }
+    return square;
+  }
+}
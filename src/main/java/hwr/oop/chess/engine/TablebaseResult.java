@@ -0,0 +1,4 @@
+package hwr.oop.chess.engine;
+
+// dtz counts the half moves until the checkmate, a capture or a promotion
+public record TablebaseResult(Wdl wdl, int dtz) {}
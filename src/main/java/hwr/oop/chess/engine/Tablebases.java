@@ -0,0 +1,195 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Bitboard;
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.MoveGenerator;
+import hwr.oop.chess.application.MoveList;
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// a position is looked up with the colors swapped if only the other table exists (KvKQ in KQvK)
+public class Tablebases {
+  public static final String DIRECTORY_PROPERTY = "chess.tablebases";
+  public static final Tablebases NONE = new Tablebases(Map.of());
+  private static final String TYPE_LETTERS = "KQRBNP";
+  private static Tablebases configured = NONE;
+  private static String configuredDirectory;
+
+  private final Map<String, TablebaseFile> files;
+  private final int maxPieces;
+
+  private Tablebases(Map<String, TablebaseFile> files) {
+    this.files = files;
+    this.maxPieces =
+        files.values().stream().mapToInt(file -> file.index().pieceCount()).max().orElse(0);
+  }
+
+  public static Tablebases fromDirectory(Path directory) {
+    List<Path> paths;
+    try (Stream<Path> listing = Files.list(directory)) {
+      paths = listing.filter(path -> path.toString().endsWith(TablebaseFile.EXTENSION)).toList();
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The tablebase directory '" + directory + "' could not be read.");
+    }
+    Map<String, TablebaseFile> files = new HashMap<>();
+    for (Path path : paths) {
+      TablebaseFile file = TablebaseFile.open(path);
+      files.put(file.index().signature(), file);
+    }
+    return new Tablebases(files);
+  }
+
+  // the tables of the property chess.tablebases, mapped only once for all searches
+  public static synchronized Tablebases configured() {
+    String directory = System.getProperty(DIRECTORY_PROPERTY);
+    if (directory == null) {
+      return NONE;
+    }
+    if (!directory.equals(configuredDirectory)) {
+      configured = fromDirectory(Path.of(directory));
+      configuredDirectory = directory;
+    }
+    return configured;
+  }
+
+  public int maxPieces() {
+    return maxPieces;
+  }
+
+  public boolean contains(String signature) {
+    return files.containsKey(signature);
+  }
+
+  // null if the position is not covered, castling rights and en passant are not part of a table
+  public TablebaseResult probe(Board board) {
+    Bitboard bitboard = board.bitboard();
+    int pieceCount = Long.bitCount(bitboard.occupancy());
+    if (pieceCount > maxPieces || board.castlingRights() != 0 || bitboard.enPassant() != 0) {
+      return null;
+    }
+    FigureColor[] colors = new FigureColor[pieceCount];
+    FigureType[] types = new FigureType[pieceCount];
+    int[] squares = new int[pieceCount];
+    int piece = 0;
+    for (FigureColor color : FigureColor.values()) {
+      for (FigureType type : FigureType.values()) {
+        for (long cells = bitboard.pieces(color, type); cells != 0; cells &= cells - 1) {
+          colors[piece] = color;
+          types[piece] = type;
+          squares[piece++] = Long.numberOfTrailingZeros(cells);
+        }
+      }
+    }
+    return probe(colors, types, squares, board.turn());
+  }
+
+  // the move which keeps the best result, Move.NONE if a position is unknown
+  public int bestMove(Board board) {
+    MoveList moves = new MoveList();
+    MoveGenerator.generateLegalMoves(board, moves);
+    int bestMove = Move.NONE;
+    int bestRank = Integer.MIN_VALUE;
+    for (int i = 0; i < moves.size(); i++) {
+      board.makeMove(moves.get(i));
+      TablebaseResult result = probe(board);
+      board.unmakeMove();
+      if (result == null) {
+        return Move.NONE;
+      }
+      int rank =
+          switch (result.wdl()) {
+            case LOSS -> 1000 - result.dtz();
+            case DRAW -> 0;
+            case WIN -> result.dtz() - 1000;
+          };
+      if (rank > bestRank) {
+        bestRank = rank;
+        bestMove = moves.get(i);
+      }
+    }
+    return bestMove;
+  }
+
+  // the figures may be given in any order
+  public TablebaseResult probe(
+      FigureColor[] colors, FigureType[] types, int[] squares, FigureColor turn) {
+    if (isDeadMaterial(types)) {
+      return new TablebaseResult(Wdl.DRAW, 0);
+    }
+    String white = side(colors, types, FigureColor.WHITE);
+    String black = side(colors, types, FigureColor.BLACK);
+    if (white == null || black == null) {
+      return null;
+    }
+    TablebaseFile file = files.get(white + "v" + black);
+    if (file != null) {
+      return file.probe(file.index().index(ordered(file.index(), colors, types, squares, 0), turn));
+    }
+    file = files.get(black + "v" + white);
+    if (file != null) {
+      // the colors are swapped and the board is mirrored from top to bottom
+      int[] mirrored = ordered(file.index(), colors, types, squares, 56);
+      return file.probe(file.index().index(mirrored, turn.ofOpponent()));
+    }
+    return null;
+  }
+
+  // no checkmate is possible with kings and at most one bishop or knight
+  private static boolean isDeadMaterial(FigureType[] types) {
+    int minorFigures = 0;
+    for (FigureType type : types) {
+      if (type == FigureType.BISHOP || type == FigureType.KNIGHT) {
+        minorFigures++;
+      } else if (type != FigureType.KING) {
+        return false;
+      }
+    }
+    return minorFigures <= 1;
+  }
+
+  // the letters of the figures of one color like "KQ", or null if a figure type is doubled
+  private static String side(FigureColor[] colors, FigureType[] types, FigureColor color) {
+    StringBuilder letters = new StringBuilder();
+    for (FigureType type : FigureType.values()) {
+      int count = 0;
+      for (int piece = 0; piece < types.length; piece++) {
+        if (colors[piece] == color && types[piece] == type) {
+          count++;
+        }
+      }
+      if (count > 1) {
+        return null;
+      }
+      if (count == 1) {
+        letters.append(TYPE_LETTERS.charAt(type.ordinal()));
+      }
+    }
+    return letters.toString();
+  }
+
+  // the cells in the order of the table, colors swapped if the mirror is not 0
+  private static int[] ordered(
+      TablebaseIndex index, FigureColor[] colors, FigureType[] types, int[] squares, int mirror) {
+    int[] ordered = new int[squares.length];
+    for (int tablePiece = 0; tablePiece < ordered.length; tablePiece++) {
+      FigureColor color = index.color(tablePiece);
+      FigureColor wanted = mirror == 0 ? color : color.ofOpponent();
+      for (int piece = 0; piece < squares.length; piece++) {
+        if (colors[piece] == wanted && types[piece] == index.type(tablePiece)) {
+          ordered[tablePiece] = squares[piece] ^ mirror;
+        }
+      }
+    }
+    return ordered;
+  }
+}
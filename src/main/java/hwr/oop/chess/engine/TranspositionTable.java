@@ -0,0 +1,167 @@
+package hwr.oop.chess.engine;
+
+import java.util.Arrays;
+
+// every entry is the key xor the data and the data, so a torn write of two threads reads as missing
+public class TranspositionTable {
+  public static final int DEFAULT_MEGABYTES = 16;
+  public static final int MAX_MEGABYTES = 8192;
+  public static final String SIZE_PROPERTY = "chess.hash";
+
+  public static final int BOUND_NONE = 0;
+  public static final int BOUND_UPPER = 1;
+  public static final int BOUND_LOWER = 2;
+  public static final int BOUND_EXACT = 3;
+  public static final long NO_ENTRY = 0L;
+
+  // data bits 0-19 move, 20-39 score, 40-47 depth, 48-49 bound, 50-57 age of the search
+  private static final int SCORE_SHIFT = 20;
+  private static final int DEPTH_SHIFT = 40;
+  private static final int BOUND_SHIFT = 48;
+  private static final int AGE_SHIFT = 50;
+  private static final long MOVE_MASK = (1L << SCORE_SHIFT) - 1;
+  private static final int SCORE_OFFSET = 1 << 19;
+  private static final long SCORE_MASK = (1L << 20) - 1;
+  private static final int LONGS_PER_ENTRY = 2;
+  // every bucket holds a depth preferred entry and an entry which is always replaced
+  private static final int ENTRIES_PER_BUCKET = 2;
+
+  private static TranspositionTable configured;
+  private static int configuredMegabytes;
+
+  private final long[] table;
+  private final int bucketMask;
+  private final int megabytes;
+  private int age;
+
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+      throw new IllegalArgumentException(
+          "The size of the transposition table must be between 1 and " + MAX_MEGABYTES + " MB.");
+    }
+    // the largest power of two which fits into the memory budget
+    int megabytesUsed = Integer.highestOneBit(megabytes);
+    long longs = (long) megabytesUsed * 1024 * 1024 / Long.BYTES;
+    this.table = new long[(int) Math.min(longs, 1L << 30)];
+    this.bucketMask = table.length / (LONGS_PER_ENTRY * ENTRIES_PER_BUCKET) - 1;
+    this.megabytes = megabytesUsed;
+  }
+
+  // the table of the size -Dchess.hash=<MB>, kept for all searches which tell entries apart by age
+  public static synchronized TranspositionTable configured() {
+    int megabytes = configuredMegabytes();
+    if (configured == null || configuredMegabytes != megabytes) {
+      configured = new TranspositionTable(megabytes);
+      configuredMegabytes = megabytes;
+    }
+    return configured;
+  }
+
+  private static int configuredMegabytes() {
+    String megabytes = System.getProperty(SIZE_PROPERTY);
+    if (megabytes == null) {
+      return DEFAULT_MEGABYTES;
+    }
+    try {
+      return Integer.parseInt(megabytes.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "The property " + SIZE_PROPERTY + " must be a number of megabytes, not '" + megabytes
+              + "'.");
+    }
+  }
+
+  public int megabytes() {
+    return megabytes;
+  }
+
+  public int capacity() {
+    return table.length / LONGS_PER_ENTRY;
+  }
+
+  public void clear() {
+    Arrays.fill(table, 0L);
+    age = 0;
+  }
+
+  // entries of older searches are replaced first
+  public void newSearch() {
+    age = (age + 1) & 0xFF;
+  }
+
+  public long probe(long key) {
+    int bucket = bucketIndex(key);
+    for (int i = bucket; i < bucket + ENTRIES_PER_BUCKET * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+      long data = table[i + 1];
+      if ((table[i] ^ data) == key && data != NO_ENTRY) {
+        return data;
+      }
+    }
+    return NO_ENTRY;
+  }
+
+  public void store(long key, int move, int score, int depth, int bound) {
+    int bucket = bucketIndex(key);
+    int index = bucket;
+    long depthPreferred = table[bucket + 1];
+    long sameKey = NO_ENTRY;
+    if ((table[bucket] ^ depthPreferred) == key) {
+      sameKey = depthPreferred;
+    } else if ((table[bucket + 2] ^ table[bucket + 3]) == key) {
+      index = bucket + 2;
+      sameKey = table[bucket + 3];
+    } else if (depth < depth(depthPreferred) && age(depthPreferred) == age) {
+      index = bucket + 2;
+    }
+
+    // a search which failed low has no move, but the move of the last search is still good
+    if (move == 0 && sameKey != NO_ENTRY) {
+      move = move(sameKey);
+    }
+    long data =
+        (move & MOVE_MASK)
+            | ((long) (score + SCORE_OFFSET) & SCORE_MASK) << SCORE_SHIFT
+            | (long) Math.min(depth, 255) << DEPTH_SHIFT
+            | (long) bound << BOUND_SHIFT
+            | (long) age << AGE_SHIFT;
+    table[index] = key ^ data;
+    table[index + 1] = data;
+  }
+
+  // permille of the entries which were written in the current search
+  public int hashfull() {
+    int sampleSize = Math.min(1000, capacity());
+    int used = 0;
+    for (int i = 0; i < sampleSize; i++) {
+      long data = table[i * LONGS_PER_ENTRY + 1];
+      if (data != NO_ENTRY && age(data) == age) {
+        used++;
+      }
+    }
+    return used * 1000 / sampleSize;
+  }
+
+  private int bucketIndex(long key) {
+    return (int) (key & bucketMask) * LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+  }
+
+  public static int move(long entry) {
+    return (int) (entry & MOVE_MASK);
+  }
+
+  public static int score(long entry) {
+    return (int) ((entry >>> SCORE_SHIFT) & SCORE_MASK) - SCORE_OFFSET;
+  }
+
+  public static int depth(long entry) {
+    return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+  }
+
+  public static int bound(long entry) {
+    return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+  }
+
+  private static int age(long entry) {
+    return (int) ((entry >>> AGE_SHIFT) & 0xFF);
+  }
+}
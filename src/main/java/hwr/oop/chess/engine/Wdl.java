@@ -0,0 +1,12 @@
+package hwr.oop.chess.engine;
+
+// win, draw or loss of the player to move with perfect play
+public enum Wdl {
+  LOSS,
+  DRAW,
+  WIN;
+
+  public Wdl ofOpponent() {
+    return values()[2 - ordinal()];
+  }
+}
@@ -1,32 +1,34 @@
 package hwr.oop.chess.persistence;
 
+import hwr.oop.chess.application.Bitboard;
 import hwr.oop.chess.application.Board;
 import hwr.oop.chess.application.Cell;
-import hwr.oop.chess.application.MoveType;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.application.MoveList;
 import hwr.oop.chess.application.figures.Figure;
 import hwr.oop.chess.application.figures.FigureColor;
 import hwr.oop.chess.application.figures.FigureType;
 import hwr.oop.chess.application.figures.Pawn;
 
-import java.util.function.Predicate;
-
 public class AlgebraicNotation {
   private final StringBuilder notationString = new StringBuilder();
   private Board board;
   private Figure movingFigure;
   private Cell startCell;
   private Cell endCell;
+  private int move;
 
-  public void recordAction(Board board, Cell startCell, Cell endCell) {
+  public void recordAction(Board board, int move) {
     notationString.setLength(0);
     this.board = board;
+    this.move = move;
+    this.startCell = board.cellAt(Move.from(move));
+    this.endCell = board.cellAt(Move.to(move));
     this.movingFigure = startCell.figure();
-    this.startCell = startCell;
-    this.endCell = endCell;
 
-    switch (board.moveType(startCell, endCell)) {
-      case MoveType.KING_CASTLING -> notationString.append("O-O");
-      case MoveType.QUEEN_CASTLING -> notationString.append("O-O-O");
+    switch (Move.type(move)) {
+      case KING_CASTLING -> notationString.append("O-O");
+      case QUEEN_CASTLING -> notationString.append("O-O-O");
       default -> {
         addFigureSymbol();
         addDisambiguation();
@@ -47,22 +49,30 @@ public class AlgebraicNotation {
     }
   }
 
-  private Predicate<Cell> mightBeAmbiguous() {
-    Predicate<Cell> isNotStartCell = cell -> !cell.isEqualTo(startCell);
-    Predicate<Cell> figureSymbolIsEqual =
-        cell -> cell.isOccupied() && cell.figure().symbol() == movingFigure.symbol();
-    Predicate<Cell> figureCanMoveToEndCell =
-        cell -> board.availableCellsWithoutCheckMoves(cell).contains(endCell);
-    return isNotStartCell.and(figureSymbolIsEqual).and(figureCanMoveToEndCell);
+  // start cells of other figures of the same kind which could move to the end cell as well
+  private long ambiguousStartCells() {
+    MoveList moves = board.legalMoves(movingFigure.color());
+    long startCells = 0L;
+    for (int i = 0; i < moves.size(); i++) {
+      int otherMove = moves.get(i);
+      Cell otherStartCell = board.cellAt(Move.from(otherMove));
+      if (Move.to(otherMove) == endCell.index()
+          && !otherStartCell.isEqualTo(startCell)
+          && otherStartCell.figure().symbol() == movingFigure.symbol()) {
+        startCells |= Bitboard.bit(otherStartCell.index());
+      }
+    }
+    return startCells;
   }
 
   private void addDisambiguation() {
     String disambiguation = startCell.toCoordinates().toLowerCase();
-    Predicate<Cell> isOnSameFile = cell -> cell.x() == startCell.x();
-    Predicate<Cell> isOnSameRank = cell -> cell.y() == startCell.y();
-    boolean isFileAmbiguous = board.cellExistsWhere(mightBeAmbiguous().and(isOnSameFile));
-    boolean isRankAmbiguous = board.cellExistsWhere(mightBeAmbiguous().and(isOnSameRank));
-    boolean isPawnCapture = movingFigure.type() == FigureType.PAWN && endCell.isOccupied();
+    long ambiguousCells = ambiguousStartCells();
+    long sameFile = Bitboard.FILE_A << (startCell.x().toInt() - 1);
+    long sameRank = Bitboard.RANK_1 << (8 * (startCell.y().toInt() - 1));
+    boolean isFileAmbiguous = (ambiguousCells & sameFile) != 0;
+    boolean isRankAmbiguous = (ambiguousCells & sameRank) != 0;
+    boolean isPawnCapture = movingFigure.type() == FigureType.PAWN && Move.isCapture(move);
 
     if (isFileAmbiguous && isRankAmbiguous) {
       notationString.append(disambiguation);
@@ -74,7 +84,7 @@ public class AlgebraicNotation {
   }
 
   private void addCaptureModifier() {
-    if (endCell.isOccupied()) {
+    if (Move.isCapture(move)) {
       notationString.append('x');
     }
   }
@@ -0,0 +1,149 @@
+package hwr.oop.chess.persistence;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Stores a game in game_<ID>.bin. The FEN history is packed by PackedPositions (a few bytes per
+// move instead of a FEN string of about 60 characters), the other states are kept as UTF-8 text.
+// A history which cannot be packed without changing it is stored as text as well.
+public class BinaryFilePersistence implements Persistence {
+  // "CHGB"
+  static final int MAGIC = 0x43484742;
+  static final int VERSION = 1;
+  private static final int TEXT = 0;
+  private static final int POSITIONS = 1;
+
+  private final Path directory;
+  private final Map<String, String> gameData = new HashMap<>();
+  private int gameId;
+
+  public BinaryFilePersistence() {
+    this(Path.of(""));
+  }
+
+  public BinaryFilePersistence(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public void storeState(State key, String value) {
+    gameData.put(key.toString(), value);
+  }
+
+  @Override
+  public String loadState(State key) {
+    return gameData.get(key.toString());
+  }
+
+  Path file() {
+    return directory.resolve("game_" + gameId + ".bin");
+  }
+
+  @Override
+  public void setGameId(int gameId) {
+    if (gameId <= 0) {
+      throw new InvalidUserInputException("The game ID must be a positive integer (1 or larger).");
+    }
+    this.gameId = gameId;
+  }
+
+  @Override
+  public int gameId() {
+    return gameId;
+  }
+
+  @Override
+  public void loadGame() {
+    gameData.clear();
+    try {
+      decode(Files.readAllBytes(file()), gameData);
+    } catch (IOException e) {
+      gameData.clear();
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that the file '"
+              + file()
+              + "' exists. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+  }
+
+  // also the format of the games in a GameStore
+  static void decode(byte[] bytes, Map<String, String> gameData) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+      throw new IOException("This is not a game file of version " + VERSION + ".");
+    }
+    int count = PackedPositions.readVarInt(in);
+    for (int i = 0; i < count; i++) {
+      String key = in.readUTF();
+      int type = in.readUnsignedByte();
+      byte[] value = new byte[PackedPositions.readVarInt(in)];
+      in.readFully(value);
+      gameData.put(
+          key,
+          type == POSITIONS
+              ? String.join(",", PackedPositions.unpack(value))
+              : new String(value, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Override
+  public void saveGame() {
+    Path temporary = directory.resolve(file().getFileName() + ".tmp");
+    try {
+      Files.write(temporary, encode(gameData));
+      Files.move(
+          temporary, file(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (IOException ignored) {
+        // the error of the save is the one to report
+      }
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be saved. Please verify that the current folder is not protected. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+  }
+
+  static byte[] encode(Map<String, String> gameData) throws IOException {
+    List<Map.Entry<String, String>> entries =
+        gameData.entrySet().stream().filter(entry -> entry.getValue() != null).toList();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    PackedPositions.writeVarInt(out, entries.size());
+    for (Map.Entry<String, String> entry : entries) {
+      byte[] positions =
+          entry.getKey().equals(State.FEN_HISTORY.toString())
+              ? PackedPositions.pack(Arrays.asList(entry.getValue().split(",", -1)))
+              : null;
+      byte[] value =
+          positions != null ? positions : entry.getValue().getBytes(StandardCharsets.UTF_8);
+      out.writeUTF(entry.getKey());
+      out.writeByte(positions != null ? POSITIONS : TEXT);
+      PackedPositions.writeVarInt(out, value.length);
+      out.write(value);
+    }
+    return bytes.toByteArray();
+  }
+}
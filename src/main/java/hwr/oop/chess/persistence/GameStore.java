@@ -0,0 +1,247 @@
+package hwr.oop.chess.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Keeps the records of many games in one file instead of one file per game. The file starts with a
+// header page, followed by a hash index of 16 byte entries (game ID, record offset) and the
+// records. A record lives in a slot of a power of two bytes, freed slots are kept in one list per
+// size. A write goes to a new slot and is synced before the index points to it, and the index is
+// synced before the old slot is freed, so a crash leaves the old or the new record.
+// Reads go through a memory mapping of the whole file. Other processes are kept out by file locks.
+public final class GameStore implements AutoCloseable {
+  public static final String FILE_NAME = "games.store";
+  // "CHGS"
+  static final int MAGIC = 0x43484753;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 4096;
+  static final int INITIAL_INDEX_SLOTS = 1024;
+  private static final int INDEX_ENTRY_BYTES = 16;
+  // [int size class][int length][bytes], a free slot has the length -1 and the next free slot
+  private static final int RECORD_HEADER_BYTES = 8;
+  private static final int FREE = -1;
+  private static final int MIN_SIZE_CLASS = 8;
+  private static final int SIZE_CLASSES = 31;
+  // offsets of the header fields
+  private static final int VERSION_FIELD = 4;
+  private static final int END_FIELD = 8;
+  private static final int INDEX_FIELD = 16;
+  private static final int INDEX_SLOTS_FIELD = 24;
+  private static final int GAME_COUNT_FIELD = 28;
+  private static final int FREE_LISTS_FIELD = 32;
+
+  private final Path path;
+  private final FileChannel channel;
+  private MappedByteBuffer map;
+
+  private GameStore(Path path, FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  public static GameStore open(Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    GameStore store = new GameStore(path, channel);
+    try (FileLock lock = channel.lock()) {
+      if (channel.size() == 0) {
+        store.initialize();
+      }
+      store.refresh();
+      if (store.map.capacity() < HEADER_BYTES
+          || store.map.getInt(0) != MAGIC
+          || store.map.getInt(VERSION_FIELD) != VERSION) {
+        throw new IOException("'" + path + "' is not a game store of version " + VERSION + ".");
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return store;
+  }
+
+  private void initialize() throws IOException {
+    long indexBytes = (long) INITIAL_INDEX_SLOTS * INDEX_ENTRY_BYTES;
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    header
+        .putInt(MAGIC)
+        .putInt(VERSION)
+        .putLong(HEADER_BYTES + indexBytes)
+        .putLong(HEADER_BYTES)
+        .putInt(INITIAL_INDEX_SLOTS)
+        .putInt(0);
+    writeFully(header.clear(), 0);
+    writeFully(ByteBuffer.allocate((int) indexBytes), HEADER_BYTES);
+  }
+
+  // null if the game is not in the store
+  public synchronized byte[] read(int gameId) throws IOException {
+    try (FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+      refresh();
+      long entry = indexEntry(gameId, map.getLong(INDEX_FIELD), map.getInt(INDEX_SLOTS_FIELD));
+      if (map.getInt(position(entry)) != gameId) {
+        return null;
+      }
+      long record = map.getLong(position(entry + 8));
+      byte[] bytes = new byte[map.getInt(position(record + 4))];
+      map.get(position(record + RECORD_HEADER_BYTES), bytes);
+      return bytes;
+    }
+  }
+
+  public synchronized void write(int gameId, byte[] bytes) throws IOException {
+    try (FileLock lock = channel.lock()) {
+      refresh();
+      long entry = indexEntry(gameId, map.getLong(INDEX_FIELD), map.getInt(INDEX_SLOTS_FIELD));
+      boolean isNew = map.getInt(position(entry)) != gameId;
+      long oldRecord = isNew ? 0 : map.getLong(position(entry + 8));
+
+      int sizeClass = sizeClass(bytes.length);
+      long record = allocate(sizeClass);
+      ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + bytes.length);
+      writeFully(buffer.putInt(sizeClass).putInt(bytes.length).put(bytes).flip(), record);
+      // also makes the allocation durable, so the slot is not handed out again after a crash
+      channel.force(false);
+      ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+      writeFully(indexEntry.putInt(gameId).putInt(0).putLong(record).flip(), entry);
+      channel.force(false);
+
+      if (oldRecord != 0) {
+        free(oldRecord);
+      }
+      if (isNew) {
+        int gameCount = map.getInt(GAME_COUNT_FIELD) + 1;
+        writeInt(GAME_COUNT_FIELD, gameCount);
+        // at most half of the entries are used, so probing stays short
+        if (gameCount * 2L > map.getInt(INDEX_SLOTS_FIELD)) {
+          growIndex();
+        }
+      }
+    }
+  }
+
+  public Path path() {
+    return path;
+  }
+
+  public synchronized int gameCount() throws IOException {
+    try (FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+      refresh();
+      return map.getInt(GAME_COUNT_FIELD);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  // the entry of the game or the empty entry where it belongs, found by linear probing
+  private long indexEntry(int gameId, long index, int slots) {
+    int hash = gameId * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & (slots - 1);
+    while (true) {
+      long entry = index + (long) slot * INDEX_ENTRY_BYTES;
+      int id = map.getInt(position(entry));
+      if (id == gameId || id == 0) {
+        return entry;
+      }
+      slot = (slot + 1) & (slots - 1);
+    }
+  }
+
+  private static int sizeClass(int length) {
+    int bytes = length + RECORD_HEADER_BYTES;
+    int ceilLog2 = Integer.SIZE - Integer.numberOfLeadingZeros(bytes - 1);
+    int sizeClass = Math.max(MIN_SIZE_CLASS, ceilLog2);
+    if (sizeClass >= SIZE_CLASSES) {
+      throw new IllegalArgumentException("A game record must be smaller than 1 GB.");
+    }
+    return sizeClass;
+  }
+
+  private long allocate(int sizeClass) throws IOException {
+    int freeList = FREE_LISTS_FIELD + sizeClass * Long.BYTES;
+    long free = map.getLong(freeList);
+    if (free != 0) {
+      writeLong(freeList, map.getLong(position(free + RECORD_HEADER_BYTES)));
+      return free;
+    }
+    long end = map.getLong(END_FIELD);
+    writeLong(END_FIELD, end + (1L << sizeClass));
+    return end;
+  }
+
+  private void free(long record) throws IOException {
+    int sizeClass = map.getInt(position(record));
+    int freeList = FREE_LISTS_FIELD + sizeClass * Long.BYTES;
+    ByteBuffer slot = ByteBuffer.allocate(RECORD_HEADER_BYTES + Long.BYTES);
+    writeFully(slot.putInt(sizeClass).putInt(FREE).putLong(map.getLong(freeList)).flip(), record);
+    channel.force(false);
+    writeLong(freeList, record);
+  }
+
+  // the new index is written behind all records before the header points to it, the old one is
+  // left unused (all of them together are smaller than the current index)
+  private void growIndex() throws IOException {
+    long oldIndex = map.getLong(INDEX_FIELD);
+    int oldSlots = map.getInt(INDEX_SLOTS_FIELD);
+    int slots = oldSlots * 2;
+    long index = map.getLong(END_FIELD);
+    writeFully(ByteBuffer.allocate(slots * INDEX_ENTRY_BYTES), index);
+    writeLong(END_FIELD, index + (long) slots * INDEX_ENTRY_BYTES);
+    refresh();
+    ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+    for (int slot = 0; slot < oldSlots; slot++) {
+      long oldEntry = oldIndex + (long) slot * INDEX_ENTRY_BYTES;
+      int gameId = map.getInt(position(oldEntry));
+      if (gameId != 0) {
+        entry.clear().putInt(gameId).putInt(0).putLong(map.getLong(position(oldEntry + 8)));
+        writeFully(entry.flip(), indexEntry(gameId, index, slots));
+      }
+    }
+    channel.force(false);
+    // the location and the slot count are next to each other and change in one write
+    writeFully(
+        ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(index).putInt(slots).flip(),
+        INDEX_FIELD);
+  }
+
+  // the mapping follows the file as it grows, writes go through the channel and show up in it
+  private void refresh() throws IOException {
+    long size = channel.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The game store is larger than 2 GB.");
+    }
+    if (map == null || map.capacity() != size) {
+      map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  private static int position(long offset) {
+    return (int) offset;
+  }
+
+  private void writeInt(int field, int value) throws IOException {
+    writeFully(ByteBuffer.allocate(Integer.BYTES).putInt(value).flip(), field);
+  }
+
+  private void writeLong(int field, long value) throws IOException {
+    writeFully(ByteBuffer.allocate(Long.BYTES).putLong(value).flip(), field);
+  }
+
+  private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+    if (map != null && offset > map.capacity()) {
+      refresh();
+    }
+  }
+}
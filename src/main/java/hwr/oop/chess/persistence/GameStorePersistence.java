@@ -0,0 +1,105 @@
+package hwr.oop.chess.persistence;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Saves the games in a shared GameStore, in the format of BinaryFilePersistence. The store of the
+// path is opened with the first load or save and stays open, so many games can share it.
+public class GameStorePersistence implements Persistence {
+  private final Path path;
+  private final Map<String, String> gameData = new HashMap<>();
+  private GameStore store;
+  private int gameId;
+
+  public GameStorePersistence() {
+    this(Path.of(GameStore.FILE_NAME));
+  }
+
+  public GameStorePersistence(Path path) {
+    this.path = path;
+  }
+
+  public GameStorePersistence(GameStore store) {
+    this(store.path());
+    this.store = store;
+  }
+
+  @Override
+  public void storeState(State key, String value) {
+    gameData.put(key.toString(), value);
+  }
+
+  @Override
+  public String loadState(State key) {
+    return gameData.get(key.toString());
+  }
+
+  @Override
+  public void setGameId(int gameId) {
+    if (gameId <= 0) {
+      throw new InvalidUserInputException("The game ID must be a positive integer (1 or larger).");
+    }
+    this.gameId = gameId;
+  }
+
+  @Override
+  public int gameId() {
+    return gameId;
+  }
+
+  private GameStore store() throws IOException {
+    if (store == null) {
+      store = GameStore.open(path);
+    }
+    return store;
+  }
+
+  @Override
+  public void loadGame() {
+    gameData.clear();
+    byte[] record;
+    try {
+      record = store().read(gameId);
+      if (record != null) {
+        BinaryFilePersistence.decode(record, gameData);
+      }
+    } catch (IOException e) {
+      gameData.clear();
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that the file '"
+              + path
+              + "' is a game store. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+    if (record == null) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that it was created in '"
+              + path
+              + "'.");
+    }
+  }
+
+  @Override
+  public void saveGame() {
+    try {
+      store().write(gameId, BinaryFilePersistence.encode(gameData));
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be saved. Please verify that the file '"
+              + path
+              + "' is not protected. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+  }
+}
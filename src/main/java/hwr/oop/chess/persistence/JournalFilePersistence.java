@@ -0,0 +1,245 @@
+package hwr.oop.chess.persistence;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Keeps a snapshot of the game in game_<ID>.csv (same format as CSVFilePersistence) and appends
+// only the changes of every later save to game_<ID>.journal. The histories grow by one move per
+// save, so a save writes the new suffix instead of rewriting the whole game. After
+// SNAPSHOT_INTERVAL records the journal is folded into a fresh snapshot.
+public class JournalFilePersistence implements Persistence {
+  public static final int SNAPSHOT_INTERVAL = 64;
+  // the last journal record contained in the snapshot, older records are skipped on replay
+  static final String SEQUENCE_KEY = "JOURNAL_SEQUENCE";
+  private static final String SET = "S";
+  private static final String APPEND = "A";
+
+  private final Path directory;
+  private final Map<String, String> gameData = new HashMap<>();
+  // the states as they are on disk, a save only writes the ones which differ
+  private final Map<String, String> savedData = new HashMap<>();
+  private int gameId;
+  private long sequence;
+  private int journalRecords;
+  // false for a game which has been neither loaded nor saved, its first save is a snapshot
+  private boolean isOnDisk;
+
+  public JournalFilePersistence() {
+    this(Path.of(""));
+  }
+
+  public JournalFilePersistence(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public void storeState(State key, String value) {
+    gameData.put(key.toString(), value);
+  }
+
+  @Override
+  public String loadState(State key) {
+    return gameData.get(key.toString());
+  }
+
+  Path snapshotFile() {
+    return directory.resolve("game_" + gameId + ".csv");
+  }
+
+  Path journalFile() {
+    return directory.resolve("game_" + gameId + ".journal");
+  }
+
+  @Override
+  public void setGameId(int gameId) {
+    if (gameId <= 0) {
+      throw new InvalidUserInputException("The game ID must be a positive integer (1 or larger).");
+    }
+    if (gameId != this.gameId) {
+      savedData.clear();
+      isOnDisk = false;
+    }
+    this.gameId = gameId;
+  }
+
+  @Override
+  public int gameId() {
+    return gameId;
+  }
+
+  @Override
+  public void loadGame() {
+    gameData.clear();
+    savedData.clear();
+    isOnDisk = false;
+    sequence = 0;
+    journalRecords = 0;
+    try {
+      readSnapshot();
+      if (Files.exists(journalFile())) {
+        replayJournal();
+      }
+    } catch (IOException | NumberFormatException e) {
+      gameData.clear();
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that the file '"
+              + snapshotFile()
+              + "' exists. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+    savedData.putAll(gameData);
+    isOnDisk = true;
+  }
+
+  private void readSnapshot() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(snapshotFile(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int comma = line.indexOf(',');
+        if (comma != -1) {
+          gameData.put(line.substring(0, comma), line.substring(comma + 1));
+        }
+      }
+    }
+    String snapshotSequence = gameData.remove(SEQUENCE_KEY);
+    sequence = snapshotSequence == null ? 0 : Long.parseLong(snapshotSequence);
+  }
+
+  private void replayJournal() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(journalFile(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!replay(line)) {
+          // a record torn by a crash during the append, rewrite everything with the next save
+          journalRecords = SNAPSHOT_INTERVAL;
+          return;
+        }
+      }
+    }
+  }
+
+  // record: <sequence>,<S|A>,<key>,<length of the value>,<value>
+  private boolean replay(String line) {
+    String[] parts = line.split(",", 5);
+    if (parts.length != 5) {
+      return false;
+    }
+    long recordSequence;
+    int length;
+    try {
+      recordSequence = Long.parseLong(parts[0]);
+      length = Integer.parseInt(parts[3]);
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    String value = parts[4];
+    if (value.length() != length || !(SET.equals(parts[1]) || APPEND.equals(parts[1]))) {
+      return false;
+    }
+    if (recordSequence <= sequence) {
+      return true;
+    }
+    if (APPEND.equals(parts[1])) {
+      value = gameData.getOrDefault(parts[2], "") + value;
+    }
+    gameData.put(parts[2], value);
+    sequence = recordSequence;
+    journalRecords++;
+    return true;
+  }
+
+  @Override
+  public void saveGame() {
+    try {
+      if (!isOnDisk || journalRecords >= SNAPSHOT_INTERVAL) {
+        writeSnapshot();
+      } else {
+        appendChanges();
+      }
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be saved. Please verify that the current folder is not protected. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+  }
+
+  private void appendChanges() throws IOException {
+    StringBuilder records = new StringBuilder();
+    int count = 0;
+    long nextSequence = sequence;
+    for (Map.Entry<String, String> entry : gameData.entrySet()) {
+      String saved = savedData.get(entry.getKey());
+      String value = entry.getValue();
+      if (value == null || Objects.equals(saved, value)) {
+        continue;
+      }
+      boolean isAppend = saved != null && value.startsWith(saved);
+      String change = isAppend ? value.substring(saved.length()) : value;
+      records
+          .append(++nextSequence)
+          .append(',')
+          .append(isAppend ? APPEND : SET)
+          .append(',')
+          .append(entry.getKey())
+          .append(',')
+          .append(change.length())
+          .append(',')
+          .append(change)
+          .append('\n');
+      count++;
+    }
+    if (count == 0) {
+      return;
+    }
+    Files.writeString(
+        journalFile(),
+        records,
+        StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+    sequence = nextSequence;
+    journalRecords += count;
+    savedData.putAll(gameData);
+  }
+
+  // the snapshot replaces the old one in a single move, so a crash leaves either of them
+  private void writeSnapshot() throws IOException {
+    StringBuilder lines = new StringBuilder();
+    for (Map.Entry<String, String> entry : gameData.entrySet()) {
+      lines.append(entry.getKey()).append(',').append(entry.getValue()).append('\n');
+    }
+    lines.append(SEQUENCE_KEY).append(',').append(sequence).append('\n');
+    Path temporary = directory.resolve(snapshotFile().getFileName() + ".tmp");
+    Files.writeString(temporary, lines, StandardCharsets.UTF_8);
+    try {
+      Files.move(
+          temporary,
+          snapshotFile(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.deleteIfExists(temporary);
+      throw e;
+    }
+    Files.deleteIfExists(journalFile());
+    journalRecords = 0;
+    savedData.clear();
+    savedData.putAll(gameData);
+    isOnDisk = true;
+  }
+}
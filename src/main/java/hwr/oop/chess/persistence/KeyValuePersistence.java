@@ -0,0 +1,115 @@
+package hwr.oop.chess.persistence;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Saves every state of a game under the key "<ID>/<STATE>" of a KeyValueStore. A save is one
+// commit, so after a crash a game has all states of a save or all of the save before. States which
+// are not stored anymore are deleted, as if the whole game was rewritten.
+public class KeyValuePersistence implements Persistence {
+  private final Path directory;
+  private final Map<String, String> gameData = new HashMap<>();
+  private KeyValueStore store;
+  private int gameId;
+
+  public KeyValuePersistence() {
+    this(Path.of(KeyValueStore.DIRECTORY_NAME));
+  }
+
+  public KeyValuePersistence(Path directory) {
+    this.directory = directory;
+  }
+
+  public KeyValuePersistence(KeyValueStore store) {
+    this(store.directory());
+    this.store = store;
+  }
+
+  @Override
+  public void storeState(State key, String value) {
+    gameData.put(key.toString(), value);
+  }
+
+  @Override
+  public String loadState(State key) {
+    return gameData.get(key.toString());
+  }
+
+  @Override
+  public void setGameId(int gameId) {
+    if (gameId <= 0) {
+      throw new InvalidUserInputException("The game ID must be a positive integer (1 or larger).");
+    }
+    this.gameId = gameId;
+  }
+
+  @Override
+  public int gameId() {
+    return gameId;
+  }
+
+  private KeyValueStore store() throws IOException {
+    if (store == null) {
+      store = KeyValueStore.open(directory);
+    }
+    return store;
+  }
+
+  private String key(State state) {
+    return gameId + "/" + state;
+  }
+
+  @Override
+  public void loadGame() {
+    gameData.clear();
+    try {
+      KeyValueStore keyValueStore = store();
+      for (State state : State.values()) {
+        String value = keyValueStore.get(key(state));
+        if (value != null) {
+          gameData.put(state.toString(), value);
+        }
+      }
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that the folder '"
+              + directory
+              + "' can be read. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+    if (gameData.isEmpty()) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be started. Please verify that it was created in '"
+              + directory
+              + "'.");
+    }
+  }
+
+  @Override
+  public void saveGame() {
+    Map<String, String> pairs = new HashMap<>();
+    for (State state : State.values()) {
+      pairs.put(key(state), gameData.get(state.toString()));
+    }
+    try {
+      store().commit(pairs);
+    } catch (IOException e) {
+      throw new InvalidUserInputException(
+          "The Game #"
+              + gameId
+              + " could not be saved. Please verify that the folder '"
+              + directory
+              + "' is not protected. (Error: "
+              + e.getMessage()
+              + ")");
+    }
+  }
+}
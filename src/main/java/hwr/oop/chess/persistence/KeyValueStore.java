@@ -0,0 +1,418 @@
+package hwr.oop.chess.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// An embedded log-structured merge store of string keys and values in one directory. A commit is
+// appended as a single checksummed record to the write-ahead log and synced before its pairs become
+// visible, so after a crash a commit is there completely or not at all. The pairs are collected in
+// a sorted memory table, which is written to an immutable SortedTable once the log reaches
+// flushBytes. Reads look at the memory table and then at the tables from the newest to the oldest.
+// More than MAX_TABLES tables are merged into one. A null value deletes the key.
+//
+// Commits are written by a single committer thread (group commit): it waits commitWindow after the
+// first pending commit, then appends the records of all commits which arrived in the meantime with
+// one write and one sync. The callers wait on a future until their commit is durable, so many games
+// saving at the same time share a sync instead of paying one each.
+public final class KeyValueStore implements AutoCloseable {
+  public static final String DIRECTORY_NAME = "games.db";
+  static final int DEFAULT_FLUSH_BYTES = 4 << 20;
+  static final Duration DEFAULT_COMMIT_WINDOW = Duration.ofMillis(5);
+  static final int MAX_TABLES = 4;
+  static final String LOG_FILE = "wal.log";
+  private static final String LOCK_FILE = "lock";
+  private static final String TABLE_PREFIX = "table-";
+  private static final String TABLE_SUFFIX = ".sst";
+  // [int payload length][int CRC32 of the payload][payload]
+  private static final int RECORD_HEADER_BYTES = 8;
+  private static final int DELETED = -1;
+
+  private final Path directory;
+  private final int flushBytes;
+  private final long commitWindowNanos;
+  private final FileChannel lockChannel;
+  private final FileChannel log;
+  // the log is only written by the committer thread and by flush, both hold logLock
+  private final Object logLock = new Object();
+  private long logEnd;
+  private long syncCount;
+  private final BlockingQueue<PendingCommit> pendingCommits = new LinkedBlockingQueue<>();
+  private final Thread committer;
+  private boolean isClosed;
+  // a key mapped to null is deleted
+  private final TreeMap<String, String> memoryTable = new TreeMap<>();
+  // from the oldest to the newest
+  private final List<SortedTable> tables = new ArrayList<>();
+  private long nextTable;
+
+  // a commit of the committer thread, or the last one to stop it if pairs is null
+  private record PendingCommit(
+      Map<String, String> pairs, byte[] record, CompletableFuture<Void> durable) {}
+
+  private KeyValueStore(
+      Path directory, int flushBytes, Duration commitWindow, FileChannel lockChannel)
+      throws IOException {
+    this.directory = directory;
+    this.flushBytes = flushBytes;
+    this.commitWindowNanos = commitWindow.toNanos();
+    this.lockChannel = lockChannel;
+    openTables();
+    this.log =
+        FileChannel.open(
+            directory.resolve(LOG_FILE),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try {
+      // the log may have just been created, its name has to survive a crash like its records
+      SortedTable.syncDirectory(directory);
+      recover();
+    } catch (IOException e) {
+      log.close();
+      throw e;
+    }
+    // a daemon, so a process which never closes the store can still end
+    this.committer = new Thread(this::commitPending, "key-value-store-committer");
+    committer.setDaemon(true);
+    committer.start();
+  }
+
+  public static KeyValueStore open(Path directory) throws IOException {
+    return open(directory, DEFAULT_FLUSH_BYTES, DEFAULT_COMMIT_WINDOW);
+  }
+
+  // only one store at a time may use the directory
+  static KeyValueStore open(Path directory, int flushBytes, Duration commitWindow)
+      throws IOException {
+    Files.createDirectories(directory);
+    FileChannel lockChannel =
+        FileChannel.open(
+            directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+      FileLock lock;
+      try {
+        lock = lockChannel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        lock = null;
+      }
+      if (lock == null) {
+        throw new IOException("The store '" + directory + "' is already in use.");
+      }
+      return new KeyValueStore(directory, flushBytes, commitWindow, lockChannel);
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+  }
+
+  private void openTables() throws IOException {
+    List<Path> paths;
+    try (Stream<Path> listing = Files.list(directory)) {
+      paths = listing.toList();
+    }
+    TreeMap<Long, Path> tablePaths = new TreeMap<>();
+    for (Path path : paths) {
+      String name = path.getFileName().toString();
+      if (name.endsWith(".tmp")) {
+        // a table which was not finished before a crash
+        Files.delete(path);
+      } else if (name.startsWith(TABLE_PREFIX) && name.endsWith(TABLE_SUFFIX)) {
+        int end = name.length() - TABLE_SUFFIX.length();
+        tablePaths.put(Long.parseLong(name.substring(TABLE_PREFIX.length(), end)), path);
+      }
+    }
+    for (Map.Entry<Long, Path> entry : tablePaths.entrySet()) {
+      tables.add(SortedTable.open(entry.getValue()));
+      nextTable = entry.getKey() + 1;
+    }
+  }
+
+  // replays the log up to the first record which is torn or broken and cuts it off there
+  private void recover() throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate((int) log.size());
+    while (bytes.hasRemaining()) {
+      if (log.read(bytes, bytes.position()) < 0) {
+        break;
+      }
+    }
+    bytes.flip();
+    while (bytes.remaining() >= RECORD_HEADER_BYTES) {
+      int length = bytes.getInt();
+      int checksum = bytes.getInt();
+      if (length < 0 || length > bytes.remaining()) {
+        break;
+      }
+      byte[] payload = new byte[length];
+      bytes.get(payload);
+      if (checksum(payload) != checksum) {
+        break;
+      }
+      memoryTable.putAll(decode(payload));
+      logEnd = bytes.position();
+    }
+    log.truncate(logEnd);
+  }
+
+  public synchronized String get(String key) {
+    if (memoryTable.containsKey(key)) {
+      return memoryTable.get(key);
+    }
+    for (int i = tables.size() - 1; i >= 0; i--) {
+      SortedTable table = tables.get(i);
+      int index = table.indexOf(key);
+      if (index >= 0) {
+        return table.value(index);
+      }
+    }
+    return null;
+  }
+
+  // all pairs or none of them, a null value deletes the key. Blocks until the commit is durable.
+  public void commit(Map<String, String> pairs) throws IOException {
+    try {
+      commitAsync(pairs).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException cause) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      throw e;
+    }
+  }
+
+  // completes when the commit is synced to the log and visible to get
+  public CompletableFuture<Void> commitAsync(Map<String, String> pairs) {
+    CompletableFuture<Void> durable = new CompletableFuture<>();
+    try {
+      byte[] payload = encode(pairs);
+      ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+      record.putInt(payload.length).putInt(checksum(payload)).put(payload);
+      // a commit is either queued before the one which stops the committer or refused
+      synchronized (pendingCommits) {
+        if (isClosed) {
+          throw new IOException("The store '" + directory + "' is closed.");
+        }
+        pendingCommits.add(new PendingCommit(new HashMap<>(pairs), record.array(), durable));
+      }
+    } catch (IOException e) {
+      durable.completeExceptionally(e);
+    }
+    return durable;
+  }
+
+  private void commitPending() {
+    List<PendingCommit> batch = new ArrayList<>();
+    boolean isStopped = false;
+    while (!isStopped) {
+      batch.clear();
+      try {
+        batch.add(pendingCommits.take());
+        long deadline = System.nanoTime() + commitWindowNanos;
+        long remaining = commitWindowNanos;
+        while (remaining > 0 && batch.getLast().pairs() != null) {
+          PendingCommit next = pendingCommits.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next != null) {
+            batch.add(next);
+          }
+          remaining = deadline - System.nanoTime();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        isStopped = true;
+      }
+      pendingCommits.drainTo(batch);
+      isStopped |= batch.removeIf(pending -> pending.pairs() == null);
+      commitBatch(batch);
+    }
+  }
+
+  private void commitBatch(List<PendingCommit> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    int bytes = batch.stream().mapToInt(pending -> pending.record().length).sum();
+    ByteBuffer records = ByteBuffer.allocate(bytes);
+    batch.forEach(pending -> records.put(pending.record()));
+    records.flip();
+    synchronized (logLock) {
+      long batchStart = logEnd;
+      try {
+        while (records.hasRemaining()) {
+          logEnd += log.write(records, logEnd);
+        }
+        log.force(false);
+        syncCount++;
+      } catch (IOException e) {
+        logEnd = batchStart;
+        try {
+          log.truncate(batchStart);
+        } catch (IOException ignored) {
+          // a torn record at the end of the log is dropped when the store is opened again
+        }
+        batch.forEach(pending -> pending.durable().completeExceptionally(e));
+        return;
+      }
+      synchronized (this) {
+        batch.forEach(pending -> memoryTable.putAll(pending.pairs()));
+      }
+      if (logEnd >= flushBytes) {
+        try {
+          flush();
+        } catch (IOException e) {
+          // the commits are durable in the log, the flush is tried again after the next batch
+        }
+      }
+    }
+    batch.forEach(pending -> pending.durable().complete(null));
+  }
+
+  // the log is emptied only after the table and its name in the directory are on disk, a crash in
+  // between replays it once more
+  void flush() throws IOException {
+    synchronized (logLock) {
+      synchronized (this) {
+        if (memoryTable.isEmpty()) {
+          return;
+        }
+        tables.add(SortedTable.write(tablePath(nextTable++), memoryTable));
+        log.truncate(0);
+        log.force(true);
+        logEnd = 0;
+        memoryTable.clear();
+        if (tables.size() > MAX_TABLES) {
+          compact();
+        }
+      }
+    }
+  }
+
+  // the merged table contains everything, so it may drop the deleted keys. The old tables are only
+  // deleted after the merged one is durable in the directory.
+  private void compact() throws IOException {
+    TreeMap<String, String> merged = new TreeMap<>();
+    for (SortedTable table : tables) {
+      for (int i = 0; i < table.size(); i++) {
+        merged.put(table.key(i), table.value(i));
+      }
+    }
+    merged.values().removeIf(value -> value == null);
+    SortedTable mergedTable = SortedTable.write(tablePath(nextTable++), merged);
+    List<SortedTable> oldTables = new ArrayList<>(tables);
+    tables.clear();
+    tables.add(mergedTable);
+    for (SortedTable table : oldTables) {
+      Files.delete(table.path());
+    }
+  }
+
+  public Path directory() {
+    return directory;
+  }
+
+  long syncCount() {
+    synchronized (logLock) {
+      return syncCount;
+    }
+  }
+
+  int tableCount() {
+    return tables.size();
+  }
+
+  private Path tablePath(long number) {
+    return directory.resolve(TABLE_PREFIX + number + TABLE_SUFFIX);
+  }
+
+  // commits which were added before are still written
+  @Override
+  public void close() throws IOException {
+    boolean isCommitterRunning;
+    synchronized (pendingCommits) {
+      isCommitterRunning = !isClosed;
+      if (!isClosed) {
+        isClosed = true;
+        pendingCommits.add(new PendingCommit(null, null, null));
+      }
+    }
+    if (isCommitterRunning) {
+      try {
+        committer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      log.close();
+    } finally {
+      lockChannel.close();
+    }
+  }
+
+  private static int checksum(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  // [int count] and per pair [int key length][key][int value length or DELETED][value]
+  private static byte[] encode(Map<String, String> pairs) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(pairs.size());
+    for (Map.Entry<String, String> pair : pairs.entrySet()) {
+      byte[] key = pair.getKey().getBytes(StandardCharsets.UTF_8);
+      out.writeInt(key.length);
+      out.write(key);
+      if (pair.getValue() == null) {
+        out.writeInt(DELETED);
+      } else {
+        byte[] value = pair.getValue().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(value.length);
+        out.write(value);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Map<String, String> decode(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    int count = in.readInt();
+    Map<String, String> pairs = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      byte[] key = new byte[in.readInt()];
+      in.readFully(key);
+      int length = in.readInt();
+      String value = null;
+      if (length != DELETED) {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        value = new String(bytes, StandardCharsets.UTF_8);
+      }
+      pairs.put(new String(key, StandardCharsets.UTF_8), value);
+    }
+    return pairs;
+  }
+}
@@ -0,0 +1,282 @@
+package hwr.oop.chess.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Packs a list of FEN strings into bytes. The first position stores its cells as 32 bytes with one
+// nibble per cell, every following position only the cells which changed (two to four for a move)
+// and their figures as nibbles. Each position also keeps the side to move, castling, en passant and
+// both move counters, the full move counter only if it does not follow from the previous position.
+final class PackedPositions {
+  private static final String FIGURES = "PNBRQKpnbrqk";
+  private static final String CASTLING = "KQkq";
+  private static final int CELLS = 64;
+  private static final int BLACK_TO_MOVE = 1;
+  private static final int CASTLING_SHIFT = 1;
+  private static final int EN_PASSANT = 1 << 5;
+  private static final int FULL_BOARD = 1 << 6;
+  // the full move counter is the one of the previous position, incremented after a black move
+  private static final int NEXT_FULL_MOVE = 1 << 7;
+  // n changed cells take 1 + n + ceil(n / 2) bytes, more than the 32 of the full board above 20
+  private static final int MAX_CHANGED_CELLS = 20;
+
+  private PackedPositions() {}
+
+  // null if a FEN string would not come back unchanged, e.g. "44" instead of "8" in a row
+  static byte[] pack(List<String> fens) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+      writeVarInt(out, fens.size());
+      Position previous = null;
+      for (String fen : fens) {
+        Position position = Position.parse(fen);
+        if (position == null || !position.fen().equals(fen)) {
+          return null;
+        }
+        position.write(out, previous);
+        previous = position;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static List<String> unpack(byte[] packed) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(packed));
+    int count = readVarInt(in);
+    List<String> fens = new ArrayList<>();
+    Position previous = null;
+    for (int i = 0; i < count; i++) {
+      previous = Position.read(in, previous);
+      fens.add(previous.fen());
+    }
+    return fens;
+  }
+
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("The number is longer than an int.");
+  }
+
+  // cells from a1 (0) to h8 (63), 0 for an empty cell or 1 + index in FIGURES
+  private record Position(byte[] cells, int flags, int enPassant, int halfMove, int fullMove) {
+    static Position parse(String fen) {
+      String[] parts = fen.split(" ", -1);
+      if (parts.length != 6 || !(parts[1].equals("w") || parts[1].equals("b"))) {
+        return null;
+      }
+      byte[] cells = parseCells(parts[0]);
+      int flags = parts[1].equals("b") ? BLACK_TO_MOVE : 0;
+      if (!parts[2].equals("-")) {
+        for (char right : parts[2].toCharArray()) {
+          int index = CASTLING.indexOf(right);
+          if (index < 0) {
+            return null;
+          }
+          flags |= 1 << (CASTLING_SHIFT + index);
+        }
+      }
+      int enPassant = parts[3].equals("-") ? -1 : parseSquare(parts[3]);
+      if (cells == null || (enPassant < 0 && !parts[3].equals("-"))) {
+        return null;
+      }
+      try {
+        int halfMove = Integer.parseInt(parts[4]);
+        return new Position(cells, flags, enPassant, halfMove, Integer.parseInt(parts[5]));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    private static byte[] parseCells(String placement) {
+      String[] rows = placement.split("/", -1);
+      if (rows.length != 8) {
+        return null;
+      }
+      byte[] cells = new byte[CELLS];
+      for (int row = 0; row < 8; row++) {
+        int file = 0;
+        for (char c : rows[row].toCharArray()) {
+          if (c >= '1' && c <= '8') {
+            file += c - '0';
+            continue;
+          }
+          int code = FIGURES.indexOf(c) + 1;
+          if (code == 0 || file > 7) {
+            return null;
+          }
+          cells[(7 - row) * 8 + file++] = (byte) code;
+        }
+        if (file != 8) {
+          return null;
+        }
+      }
+      return cells;
+    }
+
+    private static int parseSquare(String square) {
+      if (square.length() != 2) {
+        return -1;
+      }
+      int file = square.charAt(0) - 'a';
+      int rank = square.charAt(1) - '1';
+      return file < 0 || file > 7 || rank < 0 || rank > 7 ? -1 : rank * 8 + file;
+    }
+
+    String fen() {
+      StringBuilder fen = new StringBuilder();
+      for (int rank = 7; rank >= 0; rank--) {
+        int empty = 0;
+        for (int file = 0; file < 8; file++) {
+          int code = cells[rank * 8 + file];
+          if (code == 0) {
+            empty++;
+            continue;
+          }
+          if (empty > 0) {
+            fen.append(empty);
+            empty = 0;
+          }
+          fen.append(FIGURES.charAt(code - 1));
+        }
+        if (empty > 0) {
+          fen.append(empty);
+        }
+        if (rank > 0) {
+          fen.append('/');
+        }
+      }
+      fen.append((flags & BLACK_TO_MOVE) != 0 ? " b " : " w ");
+      int castlingLength = fen.length();
+      for (int index = 0; index < CASTLING.length(); index++) {
+        if ((flags & (1 << (CASTLING_SHIFT + index))) != 0) {
+          fen.append(CASTLING.charAt(index));
+        }
+      }
+      if (fen.length() == castlingLength) {
+        fen.append('-');
+      }
+      fen.append(' ');
+      if (enPassant < 0) {
+        fen.append('-');
+      } else {
+        fen.append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+      }
+      return fen.append(' ').append(halfMove).append(' ').append(fullMove).toString();
+    }
+
+    void write(DataOutput out, Position previous) throws IOException {
+      int changed = 0;
+      if (previous != null) {
+        for (int cell = 0; cell < CELLS; cell++) {
+          changed += cells[cell] != previous.cells[cell] ? 1 : 0;
+        }
+      }
+      boolean isFullBoard = previous == null || changed > MAX_CHANGED_CELLS;
+      boolean isNextFullMove = previous != null && fullMove == previous.nextFullMove();
+      out.writeByte(
+          flags
+              | (enPassant >= 0 ? EN_PASSANT : 0)
+              | (isFullBoard ? FULL_BOARD : 0)
+              | (isNextFullMove ? NEXT_FULL_MOVE : 0));
+      if (enPassant >= 0) {
+        out.writeByte(enPassant);
+      }
+      writeVarInt(out, halfMove);
+      if (!isNextFullMove) {
+        writeVarInt(out, fullMove);
+      }
+      if (isFullBoard) {
+        for (int cell = 0; cell < CELLS; cell += 2) {
+          out.writeByte(cells[cell] | cells[cell + 1] << 4);
+        }
+        return;
+      }
+      out.writeByte(changed);
+      int[] changedCells = new int[changed + 1];
+      for (int cell = 0, i = 0; cell < CELLS; cell++) {
+        if (cells[cell] != previous.cells[cell]) {
+          out.writeByte(cell);
+          changedCells[i++] = cell;
+        }
+      }
+      // the figures of two cells share a byte, the last nibble stays 0 for an odd count
+      for (int i = 0; i < changed; i += 2) {
+        int second = i + 1 < changed ? cells[changedCells[i + 1]] : 0;
+        out.writeByte(cells[changedCells[i]] | second << 4);
+      }
+    }
+
+    private int nextFullMove() {
+      return fullMove + ((flags & BLACK_TO_MOVE) != 0 ? 1 : 0);
+    }
+
+    static Position read(DataInput in, Position previous) throws IOException {
+      int header = in.readUnsignedByte();
+      int enPassant = (header & EN_PASSANT) != 0 ? in.readUnsignedByte() : -1;
+      int halfMove = readVarInt(in);
+      if ((header & FULL_BOARD) == 0 && previous == null) {
+        throw new IOException("The first position must contain all cells.");
+      }
+      int fullMove =
+          (header & NEXT_FULL_MOVE) != 0 && previous != null
+              ? previous.nextFullMove()
+              : readVarInt(in);
+      byte[] cells;
+      if ((header & FULL_BOARD) != 0) {
+        cells = new byte[CELLS];
+        for (int cell = 0; cell < CELLS; cell += 2) {
+          int pair = in.readUnsignedByte();
+          cells[cell] = (byte) (pair & 0x0F);
+          cells[cell + 1] = (byte) (pair >>> 4);
+        }
+      } else {
+        cells = Arrays.copyOf(previous.cells, CELLS);
+        int[] changedCells = new int[in.readUnsignedByte()];
+        for (int i = 0; i < changedCells.length; i++) {
+          changedCells[i] = in.readUnsignedByte() % CELLS;
+        }
+        for (int i = 0; i < changedCells.length; i += 2) {
+          int pair = in.readUnsignedByte();
+          cells[changedCells[i]] = (byte) (pair & 0x0F);
+          if (i + 1 < changedCells.length) {
+            cells[changedCells[i + 1]] = (byte) (pair >>> 4);
+          }
+        }
+      }
+      for (byte code : cells) {
+        if (code > FIGURES.length()) {
+          throw new IOException("The figure " + code + " does not exist.");
+        }
+      }
+      int flags = header & ~(EN_PASSANT | FULL_BOARD | NEXT_FULL_MOVE);
+      return new Position(cells, flags, enPassant % CELLS, halfMove, fullMove);
+    }
+  }
+}
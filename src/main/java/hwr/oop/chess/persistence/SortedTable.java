@@ -0,0 +1,138 @@
+package hwr.oop.chess.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+// An immutable file of key-value pairs sorted by key: [int MAGIC][int count] followed by
+// [int key length][key][int value length][value] per pair, a deleted key has the value length -1.
+// The keys and the offsets of the values are kept in memory to find a key by binary search, the
+// values are read from a memory mapping.
+final class SortedTable {
+  // "CHST"
+  static final int MAGIC = 0x43485354;
+  private static final int DELETED = -1;
+
+  private final Path path;
+  private final MappedByteBuffer map;
+  private final String[] keys;
+  private final int[] valueOffsets;
+
+  private SortedTable(Path path, MappedByteBuffer map, String[] keys, int[] valueOffsets) {
+    this.path = path;
+    this.map = map;
+    this.keys = keys;
+    this.valueOffsets = valueOffsets;
+  }
+
+  // written to a temporary file and synced before it is renamed, so the table is whole or missing.
+  // The directory is synced after the rename, so the table is still there after a crash.
+  static SortedTable write(Path path, SortedMap<String, String> entries) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeInt(entries.size());
+    for (Map.Entry<String, String> entry : entries.entrySet()) {
+      writeBytes(out, entry.getKey().getBytes(StandardCharsets.UTF_8));
+      if (entry.getValue() == null) {
+        out.writeInt(DELETED);
+      } else {
+        writeBytes(out, entry.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    syncDirectory(path.toAbsolutePath().getParent());
+    return open(path);
+  }
+
+  // makes the creation, rename or deletion of the files in the directory durable
+  static void syncDirectory(Path directory) throws IOException {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static SortedTable open(Path path) throws IOException {
+    MappedByteBuffer map;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The table '" + path + "' is larger than 2 GB.");
+      }
+      map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (map.capacity() < 2 * Integer.BYTES || map.getInt(0) != MAGIC) {
+      throw new IOException("'" + path + "' is not a sorted table.");
+    }
+    int count = map.getInt(Integer.BYTES);
+    String[] keys = new String[count];
+    int[] valueOffsets = new int[count];
+    int offset = 2 * Integer.BYTES;
+    for (int i = 0; i < count; i++) {
+      int keyLength = map.getInt(offset);
+      keys[i] = string(map, offset + Integer.BYTES, keyLength);
+      offset += Integer.BYTES + keyLength;
+      valueOffsets[i] = offset;
+      offset += Integer.BYTES + Math.max(0, map.getInt(offset));
+    }
+    return new SortedTable(path, map, keys, valueOffsets);
+  }
+
+  private static String string(MappedByteBuffer map, int offset, int length) {
+    byte[] bytes = new byte[length];
+    map.get(offset, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  Path path() {
+    return path;
+  }
+
+  int size() {
+    return keys.length;
+  }
+
+  String key(int index) {
+    return keys[index];
+  }
+
+  // null if the key is deleted
+  String value(int index) {
+    int offset = valueOffsets[index];
+    int length = map.getInt(offset);
+    return length == DELETED ? null : string(map, offset + Integer.BYTES, length);
+  }
+
+  // negative if the key is not in the table
+  int indexOf(String key) {
+    return Arrays.binarySearch(keys, key);
+  }
+}
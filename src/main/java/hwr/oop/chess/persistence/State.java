@@ -12,4 +12,5 @@ public enum State {
   END_TYPE,
   IS_DRAW_OFFERED,
   PGN_HISTORY,
+  ENGINE_OPPONENT,
 }
@@ -0,0 +1,44 @@
+package hwr.oop.chess.persistence;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public enum StorageFormat {
+  JOURNAL,
+  CSV,
+  BINARY,
+  STORE,
+  DATABASE;
+
+  public static final String PROPERTY = "chess.storage";
+
+  public Persistence create() {
+    return switch (this) {
+      case JOURNAL -> new JournalFilePersistence();
+      case CSV -> new CSVFilePersistence();
+      case BINARY -> new BinaryFilePersistence();
+      case STORE -> new GameStorePersistence();
+      case DATABASE -> new KeyValuePersistence();
+    };
+  }
+
+  // the format of -Dchess.storage=<FORMAT>, the journal if the property is not set
+  public static StorageFormat configured() {
+    String format = System.getProperty(PROPERTY);
+    if (format == null) {
+      return JOURNAL;
+    }
+    try {
+      return valueOf(format.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "The property "
+              + PROPERTY
+              + " must be one of "
+              + Arrays.toString(values()).toLowerCase(Locale.ROOT)
+              + ", not '"
+              + format
+              + "'.");
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttackTablesTest {
+  private final Board board = new Board(false);
+
+  private int index(String cell) {
+    return board.findCell(cell).index();
+  }
+
+  private long bits(String... cells) {
+    long bits = 0L;
+    for (String cell : cells) {
+      bits |= Bitboard.bit(index(cell));
+    }
+    return bits;
+  }
+
+  @Test
+  void knightAttacks_stayOnTheBoard() {
+    assertThat(AttackTables.knightAttacks(index("a1"))).isEqualTo(bits("b3", "c2"));
+    assertThat(AttackTables.knightAttacks(index("h8"))).isEqualTo(bits("g6", "f7"));
+    assertThat(AttackTables.knightAttacks(index("b7"))).isEqualTo(bits("d8", "d6", "a5", "c5"));
+    assertThat(AttackTables.knightAttacks(index("g2")))
+        .isEqualTo(bits("e1", "e3", "f4", "h4"));
+  }
+
+  @Test
+  void kingAttacks_stayOnTheBoard() {
+    assertThat(AttackTables.kingAttacks(index("a1"))).isEqualTo(bits("a2", "b1", "b2"));
+    assertThat(AttackTables.kingAttacks(index("h5")))
+        .isEqualTo(bits("h6", "h4", "g6", "g5", "g4"));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"a1, 2", "a8, 2", "d1, 4", "b2, 4", "b3, 6", "c3, 8", "e4, 8", "h8, 2"})
+  void knightAttacks_countDependsOnDistanceToEdge(String cell, int count) {
+    assertThat(Long.bitCount(AttackTables.knightAttacks(index(cell)))).isEqualTo(count);
+  }
+
+  @Test
+  void pawnAttacks_dependOnColor() {
+    assertThat(AttackTables.pawnAttacks(index("a2"), FigureColor.WHITE)).isEqualTo(bits("b3"));
+    assertThat(AttackTables.pawnAttacks(index("e4"), FigureColor.WHITE))
+        .isEqualTo(bits("d5", "f5"));
+    assertThat(AttackTables.pawnAttacks(index("h7"), FigureColor.BLACK)).isEqualTo(bits("g6"));
+    assertThat(AttackTables.pawnAttacks(index("e4"), FigureColor.BLACK))
+        .isEqualTo(bits("d3", "f3"));
+    assertThat(AttackTables.pawnAttacks(index("c8"), FigureColor.WHITE)).isZero();
+  }
+
+  @Test
+  void between_containsTheCellsBetweenTwoCells() {
+    assertThat(AttackTables.between(index("a1"), index("a4"))).isEqualTo(bits("a2", "a3"));
+    assertThat(AttackTables.between(index("h8"), index("e5"))).isEqualTo(bits("g7", "f6"));
+    assertThat(AttackTables.between(index("e1"), index("f1"))).isZero();
+    assertThat(AttackTables.between(index("b1"), index("c3"))).isZero();
+  }
+
+  @Test
+  void line_containsTheWholeLineThroughTwoCells() {
+    assertThat(AttackTables.line(index("c1"), index("e3")))
+        .isEqualTo(bits("c1", "d2", "e3", "f4", "g5", "h6"));
+    assertThat(AttackTables.line(index("b2"), index("a3"))).isEqualTo(bits("a3", "b2", "c1"));
+    assertThat(AttackTables.line(index("b1"), index("c3"))).isZero();
+  }
+}
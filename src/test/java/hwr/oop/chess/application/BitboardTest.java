@@ -0,0 +1,159 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.persistence.FenNotation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitboardTest {
+  private Board board;
+
+  @BeforeEach
+  void setUp() {
+    board = new Board(true);
+  }
+
+  private long bits(String... cells) {
+    long bits = 0L;
+    for (String cell : cells) {
+      bits |= Bitboard.bit(board.findCell(cell).index());
+    }
+    return bits;
+  }
+
+  @Test
+  void initialPosition_isMirroredInBitboards() {
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.occupancy(FigureColor.WHITE)).isEqualTo(0xFFFFL);
+    assertThat(bitboard.occupancy(FigureColor.BLACK)).isEqualTo(0xFFFF000000000000L);
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.KING)).isEqualTo(bits("e1"));
+    assertThat(bitboard.pieces(FigureColor.BLACK, FigureType.QUEEN)).isEqualTo(bits("d8"));
+    assertThat(bitboard.pieces(FigureType.KNIGHT)).isEqualTo(bits("b1", "g1", "b8", "g8"));
+    assertThat(Long.bitCount(bitboard.pieces(FigureType.PAWN))).isEqualTo(16);
+  }
+
+  @Test
+  void moveFigure_updatesBitboards() {
+    board.moveFigure("e2", "e4");
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.PAWN) & bits("e2")).isZero();
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.PAWN) & bits("e4")).isNotZero();
+    assertThat(bitboard.enPassant()).isEqualTo(bits("e3"));
+
+    board.moveFigure("g8", "f6");
+    assertThat(bitboard.enPassant()).isZero();
+    assertThat(bitboard.pieces(FigureColor.BLACK, FigureType.KNIGHT)).isEqualTo(bits("b8", "f6"));
+  }
+
+  @Test
+  void castling_updatesBitboards() {
+    FenNotation.parseFEN(board, "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    board.moveFigure("e1", "g1");
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.KING)).isEqualTo(bits("g1"));
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.ROOK)).isEqualTo(bits("a1", "f1"));
+  }
+
+  @Test
+  void enPassant_removesCapturedPawnFromBitboards() {
+    FenNotation.parseFEN(board, "4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1");
+    board.moveFigure("d5", "e6");
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.pieces(FigureColor.BLACK, FigureType.PAWN)).isZero();
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.PAWN)).isEqualTo(bits("e6"));
+    assertThat(bitboard.enPassant()).isZero();
+  }
+
+  @Test
+  void promotePawn_updatesBitboards() {
+    FenNotation.parseFEN(board, "4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+    board.moveFigure("a7", "a8");
+    board.promotePawn(board.findCell("a8"), FigureType.QUEEN);
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.pieces(FigureType.PAWN)).isZero();
+    assertThat(bitboard.pieces(FigureColor.WHITE, FigureType.QUEEN)).isEqualTo(bits("a8"));
+  }
+
+  @Test
+  void isAttacked_detectsAttacksOfEveryFigureType() {
+    FenNotation.parseFEN(board, "4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.isAttacked(board.findCell("a8").index(), FigureColor.WHITE)).isTrue();
+    assertThat(bitboard.isAttacked(board.findCell("b2").index(), FigureColor.WHITE)).isFalse();
+    assertThat(bitboard.isAttacked(board.findCell("d7").index(), FigureColor.BLACK)).isTrue();
+    assertThat(bitboard.isAttacked(board.findCell("d6").index(), FigureColor.BLACK)).isFalse();
+  }
+
+  @Test
+  void attackersOf_findsAllAttackersOfACell() {
+    FenNotation.parseFEN(board, "4k3/8/8/3q4/8/1n3P2/4K3/R2Q4 w - - 0 1");
+    Bitboard bitboard = board.bitboard();
+    int d3 = board.findCell("d3").index();
+    assertThat(bitboard.attackersOf(d3, FigureColor.WHITE)).isEqualTo(bits("d1", "e2"));
+    assertThat(bitboard.attackersOf(d3, FigureColor.BLACK)).isEqualTo(bits("d5"));
+    int e4 = board.findCell("e4").index();
+    assertThat(bitboard.attackersOf(e4, FigureColor.WHITE)).isEqualTo(bits("f3"));
+    assertThat(bitboard.attackersOf(e4, FigureColor.BLACK)).isEqualTo(bits("d5"));
+    int a1 = board.findCell("a1").index();
+    assertThat(bitboard.attackersOf(a1, FigureColor.BLACK)).isEqualTo(bits("b3"));
+  }
+
+  @Test
+  void attackersOf_withOccupancyRevealsXRayAttackers() {
+    FenNotation.parseFEN(board, "4k3/8/8/8/8/8/3B4/R2QK3 w - - 0 1");
+    Bitboard bitboard = board.bitboard();
+    int d3 = board.findCell("d3").index();
+    long withoutQueen = bitboard.occupancy() & ~bits("d1");
+    assertThat(bitboard.attackersOf(d3, FigureColor.WHITE, withoutQueen) & bits("a1")).isZero();
+    int b1 = board.findCell("b1").index();
+    assertThat(bitboard.attackersOf(b1, FigureColor.WHITE, withoutQueen)).isEqualTo(bits("a1"));
+    assertThat(bitboard.attackersOf(b1, FigureColor.WHITE)).isEqualTo(bits("a1", "d1"));
+  }
+
+  @Test
+  void pieceSquareScores_areUpdatedWithEveryMoveAndTakeBack() {
+    FenNotation.parseFEN(
+        board, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+    Bitboard bitboard = board.bitboard();
+    int middlegame = bitboard.middlegameScore();
+    int endgame = bitboard.endgameScore();
+    int phase = bitboard.phase();
+
+    for (int i = 0; i < board.legalMoves(board.turn()).size(); i++) {
+      int move = board.legalMoves(board.turn()).get(i);
+      board.makeMove(move);
+      Board rebuilt = new Board(false);
+      FenNotation.parseFEN(rebuilt, FenNotation.generateFen(board));
+      assertThat(bitboard.middlegameScore()).isEqualTo(rebuilt.bitboard().middlegameScore());
+      assertThat(bitboard.endgameScore()).isEqualTo(rebuilt.bitboard().endgameScore());
+      assertThat(bitboard.phase()).isEqualTo(rebuilt.bitboard().phase());
+      board.unmakeMove();
+    }
+    assertThat(bitboard.middlegameScore()).isEqualTo(middlegame);
+    assertThat(bitboard.endgameScore()).isEqualTo(endgame);
+    assertThat(bitboard.phase()).isEqualTo(phase);
+  }
+
+  @Test
+  void pieceSquareScores_ofTheStartPositionAreEqual() {
+    Bitboard bitboard = board.bitboard();
+    assertThat(bitboard.middlegameScore()).isZero();
+    assertThat(bitboard.endgameScore()).isZero();
+    assertThat(bitboard.phase()).isEqualTo(PieceSquareTables.MAX_PHASE);
+  }
+
+  @Test
+  void pawnKey_onlyChangesWithThePawns() {
+    long pawnKey = board.bitboard().pawnKey();
+    assertThat(pawnKey).isNotZero().isNotEqualTo(board.bitboard().key());
+    board.moveFigure("g1", "f3");
+    assertThat(board.bitboard().pawnKey()).isEqualTo(pawnKey);
+    board.moveFigure("e7", "e5");
+    assertThat(board.bitboard().pawnKey()).isNotEqualTo(pawnKey);
+    board.unmakeMove();
+    assertThat(board.bitboard().pawnKey()).isEqualTo(pawnKey);
+  }
+}
@@ -0,0 +1,14 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.persistence.FenNotation;
+
+// Boards of FEN positions shared by the tests of the move generation, the search and the engine
+public final class BoardFixtures {
+  private BoardFixtures() {}
+
+  public static Board boardFromFen(String fen) {
+    Board board = new Board(false);
+    FenNotation.parseFEN(board, fen);
+    return board;
+  }
+}
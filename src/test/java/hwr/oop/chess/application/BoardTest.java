@@ -6,6 +6,7 @@ import hwr.oop.chess.persistence.FenNotation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -393,6 +394,33 @@ class BoardTest {
     assertThat(board.endType(FigureColor.BLACK)).isEqualTo(EndType.NOT_END);
   }
 
+  @Test
+  void wouldBeCheckAfterMove_enPassantMustNotExposeKing() {
+    FenNotation.parseFEN(board, "8/8/8/KPp4r/8/8/8/4k3 w - c6 0 1");
+    assertThat(board.wouldBeCheckAfterMove(board.findCell("b5"), board.findCell("c6"))).isTrue();
+    assertThat(board.wouldBeCheckAfterMove(board.findCell("b5"), board.findCell("b6"))).isFalse();
+    assertThat(board.availableCellsWithoutCheckMoves(board.findCell("b5")))
+        .containsExactly(board.findCell("b6"));
+  }
+
+  @Test
+  void wouldBeCheckAfterMove_doesNotChangeTheBoard() {
+    String fen = "4k3/8/8/8/8/8/4q3/4K3 w - - 0 1";
+    FenNotation.parseFEN(board, fen);
+    assertThat(board.wouldBeCheckAfterMove(board.findCell("e1"), board.findCell("e2"))).isFalse();
+    assertThat(board.wouldBeCheckAfterMove(board.findCell("e1"), board.findCell("d1"))).isTrue();
+    assertThat(generateFen(board)).isEqualTo(fen);
+  }
+
+  @Test
+  void attackersOf_returnsCellsOfAttackingFigures() {
+    FenNotation.parseFEN(board, "4k3/8/8/8/8/2n5/8/R3K3 w - - 0 1");
+    assertThat(board.attackersOf(board.findCell("d1"), FigureColor.WHITE))
+        .containsExactlyInAnyOrder(board.findCell("a1"), board.findCell("e1"));
+    assertThat(board.attackersOf(board.findCell("d1"), FigureColor.BLACK))
+        .containsExactly(board.findCell("c3"));
+  }
+
   @Test
   void testNotExistKing() {
     board = new Board(false);
@@ -535,4 +563,203 @@ class BoardTest {
     assertThat(board.isDeadPosition()).isFalse();
     assertThat(board.endType(FigureColor.WHITE)).isEqualTo(EndType.NOT_END);
   }
+
+  private int move(String from, String to) {
+    return board.createMove(board.findCell(from), board.findCell(to));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1,e1,g1",
+        "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1,e1,c1",
+        "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1,a1,a8",
+        "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1,e1,e2",
+        "4k3/8/8/3Pp3/8/8/8/4K3 w - e6 3 12,d5,e6",
+        "4k3/8/8/8/8/8/4P3/4K3 w - - 7 12,e2,e4",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1,g1,f3",
+        "4k3/8/8/8/8/8/8/4K3 b - - 5 30,e8,d7"
+      })
+  void unmakeMove_restoresThePosition(String fenFromTo) {
+    String[] parts = fenFromTo.split(",");
+    FenNotation.parseFEN(board, parts[0]);
+    String fen = generateFen(board);
+
+    board.makeMove(move(parts[1], parts[2]));
+    assertThat(generateFen(board)).isNotEqualTo(fen);
+    board.unmakeMove();
+    assertThat(generateFen(board)).isEqualTo(fen);
+    assertThat(board.canUnmakeMove()).isFalse();
+  }
+
+  @Test
+  void makeMove_castlingMovesTheRookAndUnmakeMovesItBack() {
+    FenNotation.parseFEN(board, "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+    board.makeMove(move("e8", "c8"));
+    assertThat(generateFen(board)).isEqualTo("2kr3r/8/8/8/8/8/8/R3K2R w KQ - 1 2");
+    board.unmakeMove();
+    assertThat(generateFen(board)).isEqualTo("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+    assertThat(board.canPerformQueenSideCastling(FigureColor.BLACK)).isTrue();
+  }
+
+  @Test
+  void makeMove_enPassantRemovesTheCapturedPawn() {
+    FenNotation.parseFEN(board, "4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1");
+    board.makeMove(move("d5", "e6"));
+    assertThat(board.findCell("e5").isFree()).isTrue();
+    board.unmakeMove();
+    assertThat(board.findCell("e5").figure().symbol()).isEqualTo('p');
+    assertThat(board.findCell("e6").isEnPassant()).isTrue();
+  }
+
+  @Test
+  void makeMove_promotesAndUnmakeRestoresThePawn() {
+    FenNotation.parseFEN(board, "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+    board.makeMove(Move.withPromotion(move("a7", "b8"), FigureType.KNIGHT));
+    assertThat(generateFen(board)).isEqualTo("1N2k3/8/8/8/8/8/8/4K3 b - - 0 1");
+    board.unmakeMove();
+    assertThat(generateFen(board)).isEqualTo("1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+  }
+
+  @Test
+  void makeMove_losesCastlingRightsWhichUnmakeRestores() {
+    FenNotation.parseFEN(board, "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    board.makeMove(move("h1", "h2"));
+    board.makeMove(move("e8", "e7"));
+    assertThat(generateFen(board)).isEqualTo("r6r/4k3/8/8/8/8/7R/R3K3 w Q - 2 2");
+    board.unmakeMove();
+    board.unmakeMove();
+    assertThat(generateFen(board)).isEqualTo("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+  }
+
+  @Test
+  void unmakeMove_withoutMoveThrows() {
+    assertThatThrownBy(() -> board.unmakeMove())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("no move");
+  }
+
+  @Test
+  void createMove_setsFlagsOfTheMove() {
+    FenNotation.parseFEN(board, "r3k3/8/8/3Pp3/8/8/4P3/4K2R w Kq e6 0 1");
+    assertThat(move("e2", "e4")).isEqualTo(Move.of(12, 28, Move.DOUBLE_PUSH));
+    assertThat(move("e2", "e3")).isEqualTo(Move.of(12, 20));
+    assertThat(Move.isEnPassant(move("d5", "e6"))).isTrue();
+    assertThat(Move.isCapture(move("d5", "e6"))).isTrue();
+    assertThat(Move.type(move("e1", "g1"))).isEqualTo(MoveType.KING_CASTLING);
+    assertThat(Move.isCapture(move("h1", "h8"))).isFalse();
+    assertThat(Move.isCapture(move("e8", "d7"))).isFalse();
+  }
+
+  @Test
+  void validMove_throwsForInvalidMoves() {
+    board = new Board(true);
+    assertThat(board.validMove(board.findCell("e2"), board.findCell("e4")))
+        .isEqualTo(Move.of(12, 28, Move.DOUBLE_PUSH));
+    Cell e7 = board.findCell("e7");
+    Cell e5 = board.findCell("e5");
+    assertThatThrownBy(() -> board.validMove(e7, e5))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("It is not your turn!");
+  }
+
+  @Test
+  void hasCastlingRight_dependsOnMovedKingAndRooks() {
+    FenNotation.parseFEN(board, "r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+    assertThat(board.hasCastlingRight(FigureColor.WHITE, true)).isTrue();
+    assertThat(board.hasCastlingRight(FigureColor.WHITE, false)).isFalse();
+    assertThat(board.hasCastlingRight(FigureColor.BLACK, true)).isFalse();
+    assertThat(board.hasCastlingRight(FigureColor.BLACK, false)).isTrue();
+  }
+
+  @Test
+  void cellsWithMovableFigures_whenInCheck() {
+    FenNotation.parseFEN(board, "4k3/8/8/8/8/4N3/3PP3/R2QK2r w - - 0 1");
+    assertThat(board.cellsWithMovableFigures(FigureColor.WHITE))
+        .containsExactlyInAnyOrder(board.findCell("e1"), board.findCell("e3"));
+  }
+
+  private long zobristKeyOf(String fen) {
+    Board other = new Board(false);
+    FenNotation.parseFEN(other, fen);
+    return other.zobristKey();
+  }
+
+  @Test
+  void zobristKey_isUpdatedWithEveryMove() {
+    board = new Board(true);
+    long start = board.zobristKey();
+    assertThat(start).isEqualTo(zobristKeyOf(generateFen(board)));
+
+    board.moveFigure("g1", "f3");
+    board.moveFigure("g8", "f6");
+    assertThat(board.zobristKey()).isEqualTo(zobristKeyOf(generateFen(board)));
+    board.moveFigure("f3", "g1");
+    board.moveFigure("f6", "g8");
+    assertThat(board.zobristKey()).isEqualTo(start);
+
+    board.moveFigure("e2", "e4");
+    assertThat(board.zobristKey()).isEqualTo(zobristKeyOf(generateFen(board)));
+    board.unmakeMove();
+    assertThat(board.zobristKey()).isEqualTo(start);
+  }
+
+  @Test
+  void zobristKey_containsTurnCastlingAndEnPassant() {
+    String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1";
+    long key = zobristKeyOf(fen);
+    assertThat(zobristKeyOf(fen.replace(" w KQkq d6", " b KQkq -")))
+        .isNotEqualTo(zobristKeyOf(fen.replace("d6", "-")));
+    assertThat(zobristKeyOf(fen.replace("KQkq", "Kkq"))).isNotEqualTo(key);
+    assertThat(zobristKeyOf(fen.replace("d6", "-"))).isNotEqualTo(key);
+    assertThat(zobristKeyOf(fen.replace(" 0 1", " 7 30"))).isEqualTo(key);
+  }
+
+  @Test
+  void castlingRights_asBitMask() {
+    FenNotation.parseFEN(board, "r3k2r/8/8/8/8/8/8/R3K2R w Qk - 0 1");
+    assertThat(board.castlingRights())
+        .isEqualTo(Zobrist.WHITE_QUEEN_SIDE | Zobrist.BLACK_KING_SIDE);
+  }
+
+  @Test
+  void copy_isAnIndependentBoardWithTheSamePosition() {
+    String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 3 20";
+    FenNotation.parseFEN(board, fen);
+    Board copy = board.copy();
+    assertThat(generateFen(copy)).isEqualTo(fen);
+    assertThat(copy.zobristKey()).isEqualTo(board.zobristKey());
+    assertThat(copy.castlingRights()).isEqualTo(board.castlingRights());
+    assertThat(copy.canUnmakeMove()).isFalse();
+
+    copy.moveFigure("e1", "g1");
+    assertThat(generateFen(board)).isEqualTo(fen);
+    assertThat(board.findCell("e1").figure().type()).isEqualTo(FigureType.KING);
+    assertThat(board.hasCastlingRight(FigureColor.WHITE, true)).isTrue();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    // undefended and defended pawn
+    "4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1,e4,d5,100",
+    "4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1,e4,d5,0",
+    "4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1,d2,d5,-800",
+    // the second rook of each side is an x-ray attacker
+    "3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1,d2,d5,100",
+    "3rk3/3r4/8/3p4/8/8/8/3RK3 w - - 0 1,d1,d5,-400",
+    "4k3/8/8/3p4/8/5B2/6Q1/4K3 w - - 0 1,f3,d5,100",
+    // the king may only take back on an undefended cell
+    "8/8/4k3/3p4/4P3/8/8/4K3 w - - 0 1,e4,d5,0",
+    "8/8/4k3/3p4/4P3/8/8/3RK3 w - - 0 1,e4,d5,100",
+    "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1,e5,d6,100",
+    "4k3/8/2n5/8/8/8/8/1N2K3 w - - 0 1,b1,a3,0",
+    "4k3/8/8/1n6/8/8/8/1N2K3 w - - 0 1,b1,a3,-320"
+  })
+  void staticExchange_resolvesTheCapturesOnTheCell(String fen, String from, String to, int gain) {
+    FenNotation.parseFEN(board, fen);
+    long key = board.zobristKey();
+    assertThat(board.staticExchange(board.findCell(from), board.findCell(to))).isEqualTo(gain);
+    assertThat(board.zobristKey()).isEqualTo(key);
+    assertThat(generateFen(board)).isEqualTo(fen);
+  }
 }
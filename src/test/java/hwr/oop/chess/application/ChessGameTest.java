@@ -3,6 +3,7 @@ package hwr.oop.chess.application;
 import static hwr.oop.chess.persistence.FenNotation.extractFenKeyParts;
 import static hwr.oop.chess.persistence.FenNotation.generateFen;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import hwr.oop.chess.application.figures.*;
 import hwr.oop.chess.cli.CLIAdapter;
@@ -10,8 +11,10 @@ import hwr.oop.chess.persistence.FenNotation;
 import hwr.oop.chess.persistence.NoPersistence;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.List;
 
 import hwr.oop.chess.persistence.PortableGameNotation;
+import hwr.oop.chess.persistence.State;
 import org.junit.jupiter.api.Test;
 
 class ChessGameTest {
@@ -48,6 +51,37 @@ class ChessGameTest {
     assertThat(cli.game().isThreeFoldRepetition()).isTrue();
   }
 
+  @Test
+  void testThreeFoldRepetitionWithoutSaving() {
+    cli.forGameId("123");
+    cli.initializeGame(true);
+    Board board = cli.game().board();
+
+    for (int i = 0; i < 2; i++) {
+      board.moveFigure("g1", "f3");
+      board.moveFigure("g8", "f6");
+      board.moveFigure("f3", "g1");
+      board.moveFigure("f6", "g8");
+      cli.game().saveGame();
+      assertThat(cli.game().isThreeFoldRepetition()).isFalse();
+    }
+    board.moveFigure("g1", "f3");
+    board.moveFigure("g8", "f6");
+    board.moveFigure("f3", "g1");
+    board.moveFigure("f6", "g8");
+    assertThat(cli.game().isThreeFoldRepetition()).isTrue();
+  }
+
+  @Test
+  void testFenHistoryIsReadOnly() {
+    cli.forGameId("123");
+    cli.initializeGame(true);
+    List<String> fenHistory = cli.game().fenHistory();
+
+    assertThatThrownBy(() -> fenHistory.add("8/8/8/8/8/8/8/8 w - - 0 1"))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
   @Test
   void testGeneratePgn() {
     cli.forGameId("123");
@@ -170,4 +204,43 @@ class ChessGameTest {
     moveFigureAndSave("a8", "b7");
     assertThat(cli.game().pgnHistory().getLast()).isEqualTo("Ba8b7");
   }
+
+  @Test
+  void testEngineOpponent() {
+    cli.forGameId("1");
+    cli.initializeGame(true);
+    Game game = cli.game();
+    assertThat(game.isEngineToMove()).isFalse();
+    assertThatThrownBy(game::performEngineMove).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> game.playAgainstEngine(FigureColor.WHITE, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    game.playAgainstEngine(FigureColor.WHITE, 20);
+    assertThat(game.isEngineToMove()).isTrue();
+    int move = game.performEngineMove();
+    assertThat(game.board().cellAt(Move.to(move)).figure().color()).isEqualTo(FigureColor.WHITE);
+    assertThat(game.board().turn()).isEqualTo(FigureColor.BLACK);
+    assertThat(game.pgnHistory()).hasSize(1);
+    assertThat(game.isEngineToMove()).isFalse();
+
+    game.saveGame();
+    Game loadedGame = cli.initializeGame(false);
+    assertThat(loadedGame.isEngineToMove()).isFalse();
+    loadedGame.stopPlayingAgainstEngine();
+    loadedGame.saveGame();
+    assertThat(cli.persistence().loadState(State.ENGINE_OPPONENT)).isEmpty();
+  }
+
+  @Test
+  void testEnginePromotesItsPawn() {
+    cli.forGameId("1");
+    cli.initializeGame(true);
+    Game game = cli.game();
+    FenNotation.parseFEN(game.board(), "8/4P1k1/8/8/8/8/8/4K3 w - - 0 1");
+    game.playAgainstEngine(FigureColor.WHITE, 50);
+    int move = game.performEngineMove();
+    assertThat(Move.toString(move)).isEqualTo("e7e8q");
+    assertThat(game.board().findCell("e8").figure().type()).isEqualTo(FigureType.QUEEN);
+    assertThat(game.board().isPawnPromotionPossible()).isFalse();
+  }
 }
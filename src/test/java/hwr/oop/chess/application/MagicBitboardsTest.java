@@ -0,0 +1,54 @@
+package hwr.oop.chess.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MagicBitboardsTest {
+  private final Board board = new Board(true);
+
+  private int index(String cell) {
+    return board.findCell(cell).index();
+  }
+
+  private long bits(String... cells) {
+    long bits = 0L;
+    for (String cell : cells) {
+      bits |= Bitboard.bit(index(cell));
+    }
+    return bits;
+  }
+
+  @Test
+  void slidingAttacks_stopAtFirstOccupiedCell() {
+    long occupancy = board.bitboard().occupancy();
+    assertThat(MagicBitboards.rookAttacks(index("a1"), occupancy)).isEqualTo(bits("a2", "b1"));
+    assertThat(MagicBitboards.bishopAttacks(index("c1"), occupancy)).isEqualTo(bits("b2", "d2"));
+    assertThat(MagicBitboards.queenAttacks(index("d1"), occupancy))
+        .isEqualTo(bits("c1", "e1", "c2", "d2", "e2"));
+  }
+
+  @Test
+  void slidingAttacks_onEmptyBoardReachTheEdges() {
+    assertThat(MagicBitboards.bishopAttacks(index("a1"), 0L))
+        .isEqualTo(bits("b2", "c3", "d4", "e5", "f6", "g7", "h8"));
+    assertThat(Long.bitCount(MagicBitboards.rookAttacks(index("e4"), 0L))).isEqualTo(14);
+    assertThat(Long.bitCount(MagicBitboards.queenAttacks(index("d4"), 0L))).isEqualTo(27);
+  }
+
+  @Test
+  void magicLookup_matchesRayWalkForRandomOccupancies() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      long occupancy = random.nextLong() & random.nextLong();
+      for (int square = 0; square < 64; square++) {
+        assertThat(MagicBitboards.rookAttacks(square, occupancy))
+            .isEqualTo(MagicBitboards.rookAttacksSlow(square, occupancy));
+        assertThat(MagicBitboards.bishopAttacks(square, occupancy))
+            .isEqualTo(MagicBitboards.bishopAttacksSlow(square, occupancy));
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.persistence.FenNotation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveGeneratorTest {
+  private Board board;
+  private final MoveList moves = new MoveList();
+
+  @BeforeEach
+  void setUp() {
+    board = new Board(false);
+  }
+
+  private void generate(String fen) {
+    FenNotation.parseFEN(board, fen);
+    MoveGenerator.generateLegalMoves(board, moves);
+  }
+
+  private int move(String from, String to) {
+    return board.createMove(board.findCell(from), board.findCell(to));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1,20",
+    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1,48",
+    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1,14",
+    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1,6",
+    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8,44",
+    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10,46"
+  })
+  void generateLegalMoves_countsMovesOfKnownPositions(String fen, int count) {
+    generate(fen);
+    assertThat(moves.size()).isEqualTo(count);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "4k3/8/8/K1pP3r/8/8/8/8 w - c6 0 1",
+        "4k3/4r3/8/8/8/8/3PN3/4K3 w - - 0 1",
+        "4k3/8/8/8/1b6/8/3P4/4K2r w - - 0 1",
+        "3rk3/8/8/8/8/8/8/R3K2R w KQ - 0 1"
+      })
+  void generateLegalMoves_matchesTheMovesOfTheFigures(String fen) {
+    generate(fen);
+    Set<String> generated = new HashSet<>();
+    for (int i = 0; i < moves.size(); i++) {
+      String move = Move.toString(moves.get(i));
+      generated.add(move.substring(0, 4));
+    }
+
+    Set<String> expected = new HashSet<>();
+    for (Cell startCell : board.cellsWithColor(board.turn())) {
+      for (Cell endCell : board.availableCellsWithoutCheckMoves(startCell)) {
+        expected.add(Move.toString(move(startCell.toCoordinates(), endCell.toCoordinates())));
+      }
+    }
+    assertThat(generated).isEqualTo(expected);
+  }
+
+  @Test
+  void generateLegalMoves_pinnedFiguresStayOnTheLine() {
+    generate("4k3/4r3/8/8/8/8/4R3/4K3 w - - 0 1");
+    assertThat(moves.contains(move("e2", "e7"))).isTrue();
+    assertThat(moves.contains(move("e2", "e5"))).isTrue();
+    assertThat(moves.contains(move("e2", "d2"))).isFalse();
+  }
+
+  @Test
+  void generateLegalMoves_inDoubleCheckOnlyTheKingMoves() {
+    generate("4k3/8/8/8/1b6/8/4r3/R3K3 w Q - 0 1");
+    for (int i = 0; i < moves.size(); i++) {
+      assertThat(Move.from(moves.get(i))).isEqualTo(board.findCell("e1").index());
+    }
+    assertThat(moves.size()).isEqualTo(3);
+  }
+
+  @Test
+  void generateLegalMoves_enPassantMustNotExposeTheKing() {
+    generate("8/8/8/K1pP3r/8/8/8/7k w - c6 0 1");
+    assertThat(moves.contains(move("d5", "c6"))).isFalse();
+    generate("8/8/8/K1pP4/8/8/8/7k w - c6 0 1");
+    assertThat(moves.contains(move("d5", "c6"))).isTrue();
+  }
+
+  @Test
+  void generateLegalMoves_promotesToEveryFigure() {
+    generate("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+    long promotions = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      if (Move.isPromotion(moves.get(i))) {
+        promotions++;
+      }
+    }
+    assertThat(promotions).isEqualTo(4);
+  }
+
+  @Test
+  void generateLegalMoves_forTheOpponent() {
+    FenNotation.parseFEN(board, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    MoveGenerator.generateLegalMoves(board, FigureColor.BLACK, moves);
+    assertThat(moves.size()).isEqualTo(20);
+    assertThat(moves.contains(move("g8", "f6"))).isTrue();
+  }
+}
@@ -0,0 +1,52 @@
+package hwr.oop.chess.application;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoveListTest {
+  @Test
+  void moveList_addAndClear() {
+    MoveList moves = new MoveList();
+    assertThat(moves.isEmpty()).isTrue();
+    moves.add(Move.of(12, 28));
+    moves.add(Move.of(6, 21));
+    assertThat(moves.size()).isEqualTo(2);
+    assertThat(moves.get(1)).isEqualTo(Move.of(6, 21));
+    assertThat(moves.contains(Move.of(12, 28))).isTrue();
+    assertThat(moves.contains(Move.of(12, 20))).isFalse();
+    assertThat(moves).hasToString("[e2e4, g1f3]");
+
+    moves.clear();
+    assertThat(moves.isEmpty()).isTrue();
+    assertThat(moves.contains(Move.of(12, 28))).isFalse();
+  }
+
+  @Test
+  void moveList_growsBeyondItsCapacity() {
+    MoveList moves = new MoveList(2);
+    for (int i = 0; i < 5; i++) {
+      moves.add(Move.of(i, i + 8));
+    }
+    assertThat(moves.size()).isEqualTo(5);
+    assertThat(moves.get(4)).isEqualTo(Move.of(4, 12));
+    assertThat(moves.toArray()).hasSize(5).startsWith(Move.of(0, 8));
+  }
+
+  @Test
+  void moveList_swap() {
+    MoveList moves = new MoveList();
+    moves.add(1);
+    moves.add(2);
+    moves.swap(0, 1);
+    assertThat(moves.toArray()).containsExactly(2, 1);
+  }
+
+  @Test
+  void moveList_indexOutOfBounds() {
+    MoveList moves = new MoveList();
+    assertThatThrownBy(() -> moves.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> moves.set(0, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,43 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveTest {
+  @Test
+  void move_storesCellsAndFlags() {
+    int move = Move.of(12, 28, Move.DOUBLE_PUSH);
+    assertThat(Move.from(move)).isEqualTo(12);
+    assertThat(Move.to(move)).isEqualTo(28);
+    assertThat(Move.isDoublePush(move)).isTrue();
+    assertThat(Move.isCapture(move)).isFalse();
+    assertThat(Move.isEnPassant(move)).isFalse();
+    assertThat(Move.isCastling(move)).isFalse();
+    assertThat(Move.isPromotion(move)).isFalse();
+    assertThat(Move.promotion(move)).isNull();
+    assertThat(Move.toString(move)).isEqualTo("e2e4");
+  }
+
+  @ParameterizedTest
+  @CsvSource({"QUEEN, g7h8q", "ROOK, g7h8r", "BISHOP, g7h8b", "KNIGHT, g7h8n"})
+  void move_withPromotion(FigureType type, String coordinates) {
+    int move = Move.withPromotion(Move.of(54, 63, Move.CAPTURE), type);
+    assertThat(Move.isPromotion(move)).isTrue();
+    assertThat(Move.promotion(move)).isEqualTo(type);
+    assertThat(Move.isCapture(move)).isTrue();
+    assertThat(Move.to(move)).isEqualTo(63);
+    assertThat(Move.toString(move)).isEqualTo(coordinates);
+  }
+
+  @Test
+  void move_hasType() {
+    assertThat(Move.type(Move.of(4, 6, Move.CASTLING))).isEqualTo(MoveType.KING_CASTLING);
+    assertThat(Move.type(Move.of(60, 58, Move.CASTLING))).isEqualTo(MoveType.QUEEN_CASTLING);
+    assertThat(Move.type(Move.of(35, 44, Move.EN_PASSANT))).isEqualTo(MoveType.EN_PASSANT);
+    assertThat(Move.type(Move.of(35, 43, Move.CAPTURE))).isEqualTo(MoveType.NORMAL);
+  }
+}
@@ -0,0 +1,61 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.persistence.FenNotation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PerftTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  // the standard perft positions, with depths which keep the test fast
+  @ParameterizedTest
+  @CsvSource({
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1,3,8902",
+    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1,3,97862",
+    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1,4,43238",
+    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1,3,9467",
+    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8,3,62379",
+    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10,3,89890"
+  })
+  void perft_countsTheNodesOfTheStandardPositions(String fen, int depth, long nodes) {
+    Board board = boardFromFen(fen);
+    assertThat(Perft.perft(board, depth)).isEqualTo(nodes);
+    assertThat(FenNotation.generateFen(board)).isEqualTo(fen);
+  }
+
+  @Test
+  void perft_depthZeroIsThePositionItself() {
+    Perft perft = new Perft(boardFromFen(START), 2);
+    assertThat(perft.count(0)).isEqualTo(1);
+    assertThat(perft.count(1)).isEqualTo(20);
+    assertThat(perft.count(2)).isEqualTo(400);
+  }
+
+  @Test
+  void divide_countsTheNodesPerMove() {
+    Map<String, Long> nodesPerMove = Perft.divide(boardFromFen(KIWIPETE), 2);
+    assertThat(nodesPerMove).hasSize(48).containsEntry("e1g1", 43L).containsEntry("e2a6", 36L);
+    assertThat(nodesPerMove.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(2039);
+  }
+
+  @Test
+  void perft_invalidDepth() {
+    Board board = boardFromFen(START);
+    assertThatThrownBy(() -> new Perft(board, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at least 1");
+    Perft perft = new Perft(board, 1);
+    assertThatThrownBy(() -> perft.count(2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at most 1");
+  }
+}
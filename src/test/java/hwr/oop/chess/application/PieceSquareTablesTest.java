@@ -0,0 +1,52 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PieceSquareTablesTest {
+  @ParameterizedTest
+  @EnumSource(FigureType.class)
+  void blackValuesAreTheNegatedMirrorOfWhiteValues(FigureType type) {
+    for (int square = 0; square < 64; square++) {
+      assertThat(PieceSquareTables.middlegame(FigureColor.BLACK, type, square ^ 56))
+          .isEqualTo(-PieceSquareTables.middlegame(FigureColor.WHITE, type, square));
+      assertThat(PieceSquareTables.endgame(FigureColor.BLACK, type, square ^ 56))
+          .isEqualTo(-PieceSquareTables.endgame(FigureColor.WHITE, type, square));
+    }
+  }
+
+  @Test
+  void valuesIncludeTheMaterial() {
+    // e4 for a white pawn, a1 for a white knight
+    assertThat(PieceSquareTables.middlegame(FigureColor.WHITE, FigureType.PAWN, 28))
+        .isEqualTo(120);
+    assertThat(PieceSquareTables.middlegame(FigureColor.WHITE, FigureType.KNIGHT, 0))
+        .isEqualTo(270);
+    assertThat(PieceSquareTables.value(FigureType.QUEEN)).isEqualTo(900);
+  }
+
+  @Test
+  void kingPrefersTheCornerInTheMiddlegameAndTheCenterInTheEndgame() {
+    int g1 = 6;
+    int e4 = 28;
+    assertThat(PieceSquareTables.middlegame(FigureColor.WHITE, FigureType.KING, g1))
+        .isGreaterThan(PieceSquareTables.middlegame(FigureColor.WHITE, FigureType.KING, e4));
+    assertThat(PieceSquareTables.endgame(FigureColor.WHITE, FigureType.KING, e4))
+        .isGreaterThan(PieceSquareTables.endgame(FigureColor.WHITE, FigureType.KING, g1));
+  }
+
+  @Test
+  void phaseWeightsAddUpToTheMaximum() {
+    int phase =
+        2 * PieceSquareTables.phaseWeight(FigureType.QUEEN)
+            + 4 * PieceSquareTables.phaseWeight(FigureType.ROOK)
+            + 4 * PieceSquareTables.phaseWeight(FigureType.BISHOP)
+            + 4 * PieceSquareTables.phaseWeight(FigureType.KNIGHT);
+    assertThat(phase).isEqualTo(PieceSquareTables.MAX_PHASE);
+  }
+}
@@ -0,0 +1,51 @@
+package hwr.oop.chess.application;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZobristTest {
+  @Test
+  void pieceKeys_areDistinct() {
+    Set<Long> keys = new HashSet<>();
+    for (FigureColor color : FigureColor.values()) {
+      for (FigureType type : FigureType.values()) {
+        for (int square = 0; square < 64; square++) {
+          keys.add(Zobrist.piece(color, type, square));
+        }
+      }
+    }
+    for (int square = 0; square < 8; square++) {
+      keys.add(Zobrist.enPassant(square));
+    }
+    keys.add(Zobrist.blackToMove());
+    assertThat(keys).hasSize(12 * 64 + 8 + 1).doesNotContain(0L);
+  }
+
+  @Test
+  void enPassantKey_dependsOnlyOnTheFile() {
+    assertThat(Zobrist.enPassant(20)).isEqualTo(Zobrist.enPassant(44));
+    assertThat(Zobrist.enPassant(20)).isNotEqualTo(Zobrist.enPassant(21));
+  }
+
+  @Test
+  void castlingKey_combinesTheSides() {
+    assertThat(Zobrist.castling(0)).isZero();
+    int all =
+        Zobrist.WHITE_KING_SIDE
+            | Zobrist.WHITE_QUEEN_SIDE
+            | Zobrist.BLACK_KING_SIDE
+            | Zobrist.BLACK_QUEEN_SIDE;
+    assertThat(Zobrist.castling(all))
+        .isEqualTo(
+            Zobrist.castling(Zobrist.WHITE_KING_SIDE)
+                ^ Zobrist.castling(Zobrist.WHITE_QUEEN_SIDE)
+                ^ Zobrist.castling(Zobrist.BLACK_KING_SIDE)
+                ^ Zobrist.castling(Zobrist.BLACK_QUEEN_SIDE));
+  }
+}
@@ -173,4 +173,38 @@ class KingTest {
     assertThat(blackKing.canPerformKingSideCastling(blackKingCell)).isFalse();
     assertThat(blackKing.canPerformQueenSideCastling(blackKingCell)).isTrue();
   }
+
+  @Test
+  void castling_isNotAllowedOutOfOrThroughCheck() {
+    board = new Board(false);
+    FenNotation.parseFEN(board, "4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1");
+    Cell whiteKingCell = board.findCell("e1");
+    King whiteKing = (King) whiteKingCell.figure();
+    assertThat(whiteKing.canPerformKingSideCastling(whiteKingCell)).isTrue();
+    assertThat(whiteKing.canPerformQueenSideCastling(whiteKingCell)).isTrue();
+
+    // a black rook attacks f1, the king would pass through check
+    board.findCell("f8").setFigure(new Rook(FigureColor.BLACK));
+    assertThat(whiteKing.canPerformKingSideCastling(whiteKingCell)).isFalse();
+    assertThat(whiteKing.canPerformQueenSideCastling(whiteKingCell)).isTrue();
+
+    // the king is in check
+    board.findCell("f8").setFigure(null);
+    board.findCell("e8").setFigure(null);
+    board.findCell("h8").setFigure(new King(FigureColor.BLACK));
+    board.findCell("e5").setFigure(new Queen(FigureColor.BLACK));
+    assertThat(whiteKing.canPerformKingSideCastling(whiteKingCell)).isFalse();
+    assertThat(whiteKing.canPerformQueenSideCastling(whiteKingCell)).isFalse();
+  }
+
+  @Test
+  void castling_isAllowedWhenOnlyTheRookPassesAnAttackedCell() {
+    board = new Board(false);
+    FenNotation.parseFEN(board, "1r2k3/8/8/8/8/8/8/R3K3 w Q - 0 1");
+    Cell whiteKingCell = board.findCell("e1");
+    King whiteKing = (King) whiteKingCell.figure();
+    assertThat(whiteKing.canPerformQueenSideCastling(whiteKingCell)).isTrue();
+    assertThat(board.availableCellsWithoutCheckMoves(whiteKingCell))
+        .contains(board.findCell("c1"));
+  }
 }
@@ -5,15 +5,24 @@ import hwr.oop.chess.application.Cell;
 import hwr.oop.chess.application.EndType;
 import hwr.oop.chess.application.figures.FigureColor;
 import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.engine.PolyglotBook;
+import hwr.oop.chess.engine.PolyglotKey;
+import hwr.oop.chess.engine.TablebaseGenerator;
+import hwr.oop.chess.engine.Tablebases;
 import hwr.oop.chess.persistence.FenNotation;
 import hwr.oop.chess.persistence.NoPersistence;
 import hwr.oop.chess.persistence.State;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -314,6 +323,19 @@ class CLIMenuTest {
             """);
   }
 
+  @Test
+  void showMovesOfQueen_marksLosingCapturesRed() {
+    for (String move : List.of("e2 e4", "e7 e5", "d1 h5", "b8 c6")) {
+      realCLIFromArguments("on " + gameWithDefaultFigures + " move " + move);
+    }
+    outputStream.reset();
+    realCLIFromArguments("on " + gameWithDefaultFigures + " show-moves h5");
+    assertThat(outputStream.toString())
+        .contains("Captures which lose material are marked red: [E5, F7, H7]")
+        .contains("\033[30;1;101mp\033[0m")
+        .doesNotContain("\033[30;1;104mp\033[0m");
+  }
+
   @Test
   void showMovesOfPawn() {
     realCLIFromArguments("on " + gameWithDefaultFigures + " show-moves b2");
@@ -956,4 +978,247 @@ class CLIMenuTest {
             Create a new game with 'chess create <ID>'.
             """);
   }
+
+  @Test
+  void perft_countsThePositions() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " perft 3");
+    assertThat(outputStream.toString())
+        .contains("Counting the positions which can be reached with 3 half move(s).")
+        .contains("Nodes: 8902");
+  }
+
+  @Test
+  void perftDivide_countsThePositionsPerMove() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " perft divide 2");
+    assertThat(outputStream.toString())
+        .contains("e2e4: 20")
+        .contains("g1f3: 20")
+        .contains("Nodes: 400");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"perft 0", "perft x", "perft divide", "perft -1", "perft 100"})
+  void perft_withInvalidDepth(String command) {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " " + command);
+    assertThat(outputStream.toString()).contains("depth");
+  }
+
+  @Test
+  void hint_suggestsAMoveOfThePlayerToMove() {
+    realCLIFromArguments(
+        "on " + NoPersistence.GameIdType.WHITE_CHECKMATE_POSSIBLE.ordinal() + " hint 200");
+    assertThat(outputStream.toString())
+        .contains("The engine suggests to move the ROOK from B4 to A4.")
+        .contains("Score: mate in 1")
+        .contains("Principal variation: b4a4");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"hint 0", "hint x", "hint 1000000", "hint 100 200"})
+  void hint_withInvalidMillis(String command) {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " " + command);
+    assertThat(outputStream.toString()).contains("ERROR");
+  }
+
+  @Test
+  void solveMate_showsTheMatingLine() {
+    realCLIFromArguments(
+        "on " + NoPersistence.GameIdType.WHITE_CHECKMATE_POSSIBLE.ordinal() + " solve-mate 2");
+    assertThat(outputStream.toString())
+        .contains("Searching a forced mate for BLACK in at most 2 move(s).")
+        .contains("BLACK mates in 1.")
+        .contains("Mating line: b4a4");
+  }
+
+  @Test
+  void solveMate_refutesTheMate() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " solve-mate 1");
+    assertThat(outputStream.toString()).contains("There is no forced mate.");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"solve-mate", "solve-mate 0", "solve-mate x", "solve-mate 10"})
+  void solveMate_withInvalidNumberOfMoves(String command) {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " " + command);
+    assertThat(outputStream.toString()).contains("ERROR").contains("number of moves");
+  }
+
+  private void configureTablebases(Path directory) {
+    TablebaseGenerator.generateMissing(directory, List.of("KQvK"));
+    System.setProperty(Tablebases.DIRECTORY_PROPERTY, directory.toString());
+  }
+
+  @Test
+  void tablebase_showsTheResultAndTheBestMove(@TempDir Path directory) {
+    try {
+      configureTablebases(directory);
+      realCLIFromArguments(
+          "on " + NoPersistence.GameIdType.DEAD_POSITION_POSSIBLE.ordinal() + " tablebase");
+      assertThat(outputStream.toString())
+          .contains("WHITE draws with best play.")
+          .contains("Half moves until the next capture or mate: 0")
+          .contains("Best move: a8b7");
+
+      realCLIFromArguments(
+          "on " + NoPersistence.GameIdType.WHITE_STALEMATE_POSSIBLE.ordinal() + " tablebase");
+      assertThat(outputStream.toString())
+          .contains("BLACK wins with best play.")
+          .doesNotContain("Best move: h7c7");
+
+      realCLIFromArguments("on " + gameWithDefaultFigures + " tablebase");
+      assertThat(outputStream.toString()).contains("The position is not in the tablebases.");
+    } finally {
+      System.clearProperty(Tablebases.DIRECTORY_PROPERTY);
+    }
+  }
+
+  @Test
+  void generateTablebases_buildsTheTableAndTheOnesBeforeIt(@TempDir Path directory) {
+    Path tables = directory.resolve("tables");
+    realCLIFromArguments("generate-tablebases " + tables + " KRvK");
+    assertThat(outputStream.toString())
+        .contains("Generating the tablebases KQvK, KRvK.")
+        .contains("Generated KQvK, KRvK in ");
+    assertThat(tables.resolve("KRvK.tb")).exists();
+
+    realCLIFromArguments("generate-tablebases " + tables + " KQvK");
+    assertThat(outputStream.toString()).contains("All of them already exist in '" + tables + "'.");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"generate-tablebases", "generate-tablebases dir KQK"})
+  void generateTablebases_withInvalidArguments(String command) {
+    realCLIFromArguments(command);
+    assertThat(outputStream.toString()).contains("ERROR");
+  }
+
+  @Test
+  void tablebase_withoutConfiguredTablebases() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " tablebase");
+    assertThat(outputStream.toString())
+        .contains("ERROR")
+        .contains("There are no tablebases. Set the property chess.tablebases");
+  }
+
+  // a book with 1.e4 (weight 3) and 1.d4 (weight 1) in the start position
+  private void configureOpeningBook(Path directory) throws IOException {
+    long key = PolyglotKey.key(new Board(true));
+    Path bookFile = directory.resolve("book.bin");
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(bookFile))) {
+      for (int[] moveAndWeight : new int[][] {{12 << 6 | 28, 3}, {11 << 6 | 27, 1}}) {
+        out.writeLong(key);
+        out.writeShort(moveAndWeight[0]);
+        out.writeShort(moveAndWeight[1]);
+        out.writeInt(0);
+      }
+    }
+    System.setProperty(PolyglotBook.BOOK_PROPERTY, bookFile.toString());
+  }
+
+  @Test
+  void book_showsTheMovesWithTheirShare(@TempDir Path directory) throws IOException {
+    try {
+      configureOpeningBook(directory);
+      realCLIFromArguments("on " + gameWithDefaultFigures + " book");
+      assertThat(outputStream.toString())
+          .contains("The opening book knows 2 move(s).")
+          .contains("Opening Book:")
+          .contains("- d2d4:     \033[37mweight 1 (25%)")
+          .contains("- e2e4:     \033[37mweight 3 (75%)");
+
+      realCLIFromArguments("on " + gameWithDefaultFigures + " move e2 e4");
+      realCLIFromArguments("on " + gameWithDefaultFigures + " book");
+      assertThat(outputStream.toString()).contains("The position is not in the opening book.");
+    } finally {
+      System.clearProperty(PolyglotBook.BOOK_PROPERTY);
+    }
+  }
+
+  @Test
+  void book_withoutConfiguredBook() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " book");
+    assertThat(outputStream.toString())
+        .contains("ERROR")
+        .contains("There is no opening book. Set the property chess.book");
+  }
+
+  @Test
+  void engine_playsTheMovesOfTheOpeningBook(@TempDir Path directory) throws IOException {
+    try {
+      configureOpeningBook(directory);
+      realCLIFromArguments("on " + gameWithDefaultFigures + " engine white 50");
+      assertThat(outputStream.toString()).containsPattern("The engine moves WHITE PAWN from [DE]2");
+    } finally {
+      System.clearProperty(PolyglotBook.BOOK_PROPERTY);
+    }
+  }
+
+  @Test
+  void engine_repliesToTheMoveOfTheHuman() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " engine black 50");
+    assertThat(outputStream.toString())
+        .contains("The engine plays BLACK and thinks 50 ms per move.")
+        .doesNotContain("The engine moves");
+    assertThat(persistence.loadState(State.ENGINE_OPPONENT)).isEqualTo("BLACK 50");
+
+    realCLIFromArguments("on " + gameWithDefaultFigures + " move e2 e4");
+    assertThat(outputStream.toString()).contains("The engine moves BLACK ");
+    assertThat(persistence.loadState(State.FEN_HISTORY)).contains(" w KQkq ");
+    assertThat(persistence.loadState(State.PGN_HISTORY)).startsWith("e4,");
+  }
+
+  @Test
+  void engine_movesAtOnceIfItIsItsTurn() {
+    realCLIFromArguments(
+        "on " + NoPersistence.GameIdType.WHITE_CHECKMATE_POSSIBLE.ordinal() + " engine black");
+    assertThat(outputStream.toString())
+        .contains("The engine plays BLACK and thinks 1000 ms per move.")
+        .contains("The engine moves BLACK ROOK from B4 to A4.")
+        .contains("The WHITE king is in checkmate. The game is over.");
+    assertThat(persistence.loadState(State.WINNER)).isEqualTo("BLACK");
+  }
+
+  @Test
+  void engine_canBeTurnedOff() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " engine white 50");
+    assertThat(outputStream.toString()).contains("The engine moves WHITE ");
+    realCLIFromArguments("on " + gameWithDefaultFigures + " engine off");
+    assertThat(outputStream.toString())
+        .contains("The engine stopped playing. Both colors are played by humans.");
+    assertThat(persistence.loadState(State.ENGINE_OPPONENT)).isEmpty();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"engine", "engine red", "engine white x", "engine off 100"})
+  void engine_withInvalidArguments(String command) {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " " + command);
+    assertThat(outputStream.toString()).contains("ERROR");
+    assertThat(persistence.loadState(State.ENGINE_OPPONENT)).isEmpty();
+  }
+
+  @Test
+  void eval_showsTheTermsOfTheEvaluation() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " eval");
+    assertThat(outputStream.toString())
+        .contains("This is how the engine evaluates the position. Positive scores are good for WHITE.")
+        .contains("Evaluation:")
+        .contains("Game phase:")
+        .contains("24 of 24 (all figures on the board)")
+        .contains("Material:")
+        .contains("Pawn structure:")
+        .contains("King safety:")
+        .contains("Mobility:")
+        .contains("Total:")
+        .contains("+0.00")
+        .contains("Pawns of White:")
+        .contains("0 doubled, 0 isolated, 0 passed, 0 backward")
+        .contains("Pawn hash cache:")
+        .contains("1 hits in 2 lookups (50%) in the positions of the game");
+  }
+
+  @Test
+  void eval_withTooManyArguments() {
+    realCLIFromArguments("on " + gameWithDefaultFigures + " eval now");
+    assertThat(outputStream.toString()).contains("argument(s) more than needed");
+  }
 }
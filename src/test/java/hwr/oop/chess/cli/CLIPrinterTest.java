@@ -64,6 +64,12 @@ class CLIPrinterTest {
     assertThat(outputStream.toString()).startsWith("\033[30;1;104mBlue\033[0m");
   }
 
+  @Test
+  void printColor_isRed() {
+    printer.print("Red", CLIColor.RED);
+    assertThat(outputStream.toString()).startsWith("\033[30;1;101mRed\033[0m");
+  }
+
   @Test
   void printlnError_passException() {
     InvalidUserInputException exception = new InvalidUserInputException("ExceptionTest");
@@ -45,7 +45,12 @@ class MainTest {
   void publicStaticMain() {
     Path path = Path.of("./game_123456.csv");
     assertThat(Files.exists(path)).isFalse();
+    Path journal = Path.of("./game_123456.journal");
     assertThatNoException().isThrownBy(() -> Main.main(new String[] {"create", "123456"}));
+    assertThat(Files.exists(journal)).isFalse();
+    assertThatNoException()
+        .isThrownBy(() -> Main.main(new String[] {"on", "123456", "move", "e2", "e4"}));
+    assertThatNoException().isThrownBy(() -> assertThat(Files.deleteIfExists(journal)).isTrue());
     assertThatNoException().isThrownBy(() -> assertThat(Files.deleteIfExists(path)).isTrue());
   }
 
@@ -0,0 +1,126 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.figures.FigureType;
+import hwr.oop.chess.engine.PawnStructure.PawnCounts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvaluationTest {
+  @Test
+  void evaluate_startPositionIsEqual() {
+    Board board = boardFromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    assertThat(Evaluation.evaluate(board)).isZero();
+    EvaluationReport report = Evaluation.report(board);
+    PawnCounts healthy = new PawnCounts(0, 0, 0, 0);
+    assertThat(report)
+        .isEqualTo(new EvaluationReport(24, 0, new PawnStructure(0, healthy, healthy), 0, 0));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "4k3/8/8/8/8/8/8/R3K3",
+        "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR",
+        "8/5pk1/6p1/8/2P5/1P6/P5K1/8"
+      })
+  void evaluate_isFromTheViewOfThePlayerToMove(String position) {
+    int white = Evaluation.evaluate(boardFromFen(position + " w - - 0 1"));
+    int black = Evaluation.evaluate(boardFromFen(position + " b - - 0 1"));
+    assertThat(black).isEqualTo(-white);
+    assertThat(Evaluation.report(boardFromFen(position + " b - - 0 1")).total()).isEqualTo(white);
+  }
+
+  @Test
+  void evaluate_mirroredPositionsHaveTheOppositeScore() {
+    int white = Evaluation.evaluate(boardFromFen("4k3/pp6/8/3N4/8/8/5PPP/6K1 w - - 0 1"));
+    int black = Evaluation.evaluate(boardFromFen("6k1/5ppp/8/8/3n4/8/PP6/4K3 b - - 0 1"));
+    assertThat(white).isEqualTo(black).isPositive();
+  }
+
+  @Test
+  void material_extraRookIsWorthAboutFivePawns() {
+    EvaluationReport report = Evaluation.report(boardFromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1"));
+    assertThat(report.phase()).isEqualTo(2);
+    assertThat(report.material()).isBetween(450, 550);
+    assertThat(Evaluation.value(FigureType.ROOK)).isEqualTo(500);
+  }
+
+  @Test
+  void material_centralKnightIsBetterThanOneOnTheRim() {
+    int center = Evaluation.report(boardFromFen("4k3/8/8/4N3/8/8/8/4K3 w - - 0 1")).material();
+    int rim = Evaluation.report(boardFromFen("4k3/8/8/7N/8/8/8/4K3 w - - 0 1")).material();
+    assertThat(center).isGreaterThan(rim);
+  }
+
+  @Test
+  void pawnStructure_punishesDoubledAndIsolatedPawns() {
+    // doubled and isolated c-pawns against a healthy chain
+    EvaluationReport report =
+        Evaluation.report(boardFromFen("4k3/5ppp/8/8/8/2P5/2P5/4K3 w - - 0 1"));
+    assertThat(report.pawnStructure())
+        .isEqualTo(
+            -Evaluation.DOUBLED_PAWN_PENALTY
+                - 2 * Evaluation.ISOLATED_PAWN_PENALTY
+                + Evaluation.PASSED_PAWN_BONUS[2]
+                - 3 * Evaluation.PASSED_PAWN_BONUS[1]);
+  }
+
+  @Test
+  void pawnStructure_rewardsAdvancedPassedPawns() {
+    EvaluationReport report = Evaluation.report(boardFromFen("4k3/1P6/8/8/8/8/p7/4K3 w - - 0 1"));
+    assertThat(report.pawnStructure())
+        .isEqualTo(Evaluation.PASSED_PAWN_BONUS[6] - Evaluation.PASSED_PAWN_BONUS[6]);
+    report = Evaluation.report(boardFromFen("4k3/1P6/8/8/8/p7/8/4K3 w - - 0 1"));
+    assertThat(report.pawnStructure()).isPositive();
+  }
+
+  @Test
+  void kingSafety_prefersTheKingBehindItsPawns() {
+    int sheltered =
+        Evaluation.report(boardFromFen("rnbq1rk1/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1RK1 w - - 0 1"))
+            .kingSafety();
+    int exposed =
+        Evaluation.report(boardFromFen("rnbq1rk1/pppppppp/8/8/8/8/PPPPP3/RNBQ1RK1 w - - 0 1"))
+            .kingSafety();
+    assertThat(sheltered).isZero();
+    assertThat(exposed).isNegative();
+  }
+
+  @Test
+  void mobility_countsTheReachableCells() {
+    // the white rook on an open file against the black rook in the corner
+    EvaluationReport report =
+        Evaluation.report(boardFromFen("rn2k3/p7/8/8/8/8/8/3RK3 w - - 0 1"));
+    assertThat(report.mobility()).isPositive();
+  }
+
+  @Test
+  void pawnStructure_countsThePawnsOfBothSides() {
+    // white: doubled c-pawns and an isolated e-pawn, black: a passed a-pawn and a backward c-pawn
+    EvaluationReport report =
+        Evaluation.report(boardFromFen("4k3/2p5/3p4/pP2P3/8/2P5/2P5/4K3 w - - 0 1"));
+    assertThat(report.pawns().white()).isEqualTo(new PawnCounts(1, 1, 0, 0));
+    assertThat(report.pawns().black()).isEqualTo(new PawnCounts(0, 1, 1, 1));
+  }
+
+  @Test
+  void pawnStructure_isTakenFromThePawnHashTable() {
+    PawnHashTable pawnHashTable = new PawnHashTable(16);
+    Board board = boardFromFen("4k3/2pp4/8/p3P3/8/2P5/2P5/4K3 w - - 0 1");
+    EvaluationReport uncached = Evaluation.report(board);
+    assertThat(Evaluation.report(board, pawnHashTable)).isEqualTo(uncached);
+    assertThat(pawnHashTable.hits()).isZero();
+
+    // the king moves do not change the pawn structure
+    board.moveFigure("e1", "f1");
+    board.moveFigure("e8", "f8");
+    assertThat(Evaluation.evaluate(board, pawnHashTable)).isEqualTo(Evaluation.evaluate(board));
+    assertThat(pawnHashTable.hits()).isEqualTo(1);
+    assertThat(pawnHashTable.probes()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,32 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MateResultTest {
+  private static final int A2A7 = Move.of(8, 48);
+  private static final int H8G8 = Move.of(63, 62);
+  private static final int B1B8 = Move.of(1, 57);
+
+  @Test
+  void firstMove_isTheFirstMoveOfTheLine() {
+    MateResult result = new MateResult(2, new int[] {A2A7, H8G8, B1B8}, 50);
+    assertThat(result.isMate()).isTrue();
+    assertThat(result.firstMove()).isEqualTo(A2A7);
+    assertThat(result.lineToString()).isEqualTo("a2a7 h8g8 b1b8");
+  }
+
+  @Test
+  void equals_comparesTheLineByContent() {
+    MateResult result = new MateResult(2, new int[] {A2A7, H8G8, B1B8}, 50);
+    MateResult same = new MateResult(2, new int[] {A2A7, H8G8, B1B8}, 50);
+    assertThat(result)
+        .isEqualTo(same)
+        .hasSameHashCodeAs(same)
+        .isNotEqualTo(new MateResult(2, new int[] {A2A7}, 50))
+        .hasToString("MateResult[moves=2, nodes=50, line=a2a7 h8g8 b1b8]");
+    assertThat(new MateResult(0, new int[0], 10).isMate()).isFalse();
+  }
+}
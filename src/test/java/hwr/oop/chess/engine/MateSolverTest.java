@@ -0,0 +1,87 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MateSolverTest {
+  @ParameterizedTest
+  @CsvSource({
+    // back rank mate
+    "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1,1,a1a8",
+    // scholar's mate
+    "r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 0 1,1,h5f7",
+    // the rooks climb up the board like a ladder
+    "7k/8/8/8/8/8/R7/1R4K1 w - - 0 1,2,b1b7 h8g8 a2a8",
+    "r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1,1,a8a1"
+  })
+  void solve_findsTheShortestMate(String fen, int moves, String line) {
+    MateResult result = new MateSolver(boardFromFen(fen)).solve(3);
+    assertThat(result.isMate()).isTrue();
+    assertThat(result.moves()).isEqualTo(moves);
+    assertThat(result.lineToString()).isEqualTo(line);
+  }
+
+  @Test
+  void solve_findsAQuietFirstMove() {
+    // the king has to approach before the rook can mate
+    MateResult result = new MateSolver(boardFromFen("k7/8/2K5/8/8/8/8/7R w - - 0 1")).solve(2);
+    assertThat(result.moves()).isEqualTo(2);
+    assertThat(result.line()).hasSize(3);
+    assertThat(Move.isCapture(result.firstMove())).isFalse();
+  }
+
+  @Test
+  void solve_agreesWithTheSearch() {
+    Board board = boardFromFen("k7/8/3K4/8/8/8/8/7R w - - 0 1");
+    MateResult mate = new MateSolver(board.copy()).solve(4);
+    SearchResult search = new Search(board).search(SearchLimits.depth(2 * mate.moves() + 1));
+    assertThat(search.scoreToString()).isEqualTo("mate in " + mate.moves());
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        // bare kings can never mate
+        "k7/8/1K6/8/8/8/8/8 w - - 0 1",
+        // the mate needs one more move than allowed
+        "7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"
+      })
+  void solve_refutesPositionsWithoutAMate(String fen) {
+    MateResult result = new MateSolver(boardFromFen(fen)).solve(1);
+    assertThat(result.isMate()).isFalse();
+    assertThat(result.line()).isEmpty();
+    assertThat(result.firstMove()).isEqualTo(Move.NONE);
+    assertThat(result.nodes()).isPositive();
+  }
+
+  @Test
+  void solve_leavesTheBoardUnchanged() {
+    Board board = boardFromFen("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+    long key = board.zobristKey();
+    new MateSolver(board).solve(2);
+    assertThat(board.zobristKey()).isEqualTo(key);
+  }
+
+  @Test
+  void solve_defenderMayBeMatedAlready() {
+    MateResult result =
+        new MateSolver(boardFromFen("6k1/5ppp/8/8/8/8/r7/1r4K1 w - - 0 1")).solve(2);
+    assertThat(result.isMate()).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, MateSolver.MAX_MOVES + 1})
+  void solve_withInvalidNumberOfMoves(int moves) {
+    MateSolver solver = new MateSolver(boardFromFen("k7/8/2K5/8/8/8/8/7R w - - 0 1"));
+    assertThatThrownBy(() -> solver.solve(moves)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,83 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.persistence.FenNotation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelSearchTest {
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 4})
+  void search_findsTheMateWithEveryThreadCount(int threads) {
+    Board board = boardFromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    SearchResult result =
+        new ParallelSearch(board, new TranspositionTable(1), threads)
+            .search(SearchLimits.depth(4));
+    assertThat(Move.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.scoreToString()).isEqualTo("mate in 1");
+  }
+
+  @Test
+  void search_leavesTheBoardOfTheCallerUnchanged() {
+    Board board = boardFromFen(KIWIPETE);
+    new ParallelSearch(board, new TranspositionTable(1), 3).search(SearchLimits.depth(3));
+    assertThat(FenNotation.generateFen(board)).isEqualTo(KIWIPETE);
+  }
+
+  @Test
+  void search_countsTheNodesOfAllThreads() {
+    Board board = boardFromFen(KIWIPETE);
+    SearchResult result =
+        new ParallelSearch(board, new TranspositionTable(4), 4).search(SearchLimits.millis(200));
+    assertThat(result.depth()).isPositive();
+    assertThat(board.legalMoves(board.turn()).contains(result.bestMove())).isTrue();
+    assertThat(result.nodes()).isPositive();
+  }
+
+  @Test
+  void search_withADepthLimitStopsTheHelpers() {
+    Board board = boardFromFen(KIWIPETE);
+    long start = System.currentTimeMillis();
+    SearchResult result =
+        new ParallelSearch(board, new TranspositionTable(4), 4).search(SearchLimits.depth(2));
+    assertThat(result.depth()).isEqualTo(2);
+    assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+  }
+
+  @Test
+  void constructor_rejectsInvalidThreadCounts() {
+    Board board = boardFromFen(KIWIPETE);
+    TranspositionTable table = new TranspositionTable(1);
+    assertThatThrownBy(() -> new ParallelSearch(board, table, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The number of search threads must be between 1 and 256.");
+    assertThatThrownBy(() -> new ParallelSearch(board, table, 257))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void withConfiguredSettings_readsTheThreadCount() {
+    Board board = boardFromFen(KIWIPETE);
+    try {
+      System.clearProperty(ParallelSearch.THREADS_PROPERTY);
+      assertThat(ParallelSearch.withConfiguredSettings(board).threadCount()).isEqualTo(1);
+      System.setProperty(ParallelSearch.THREADS_PROPERTY, "3");
+      assertThat(ParallelSearch.withConfiguredSettings(board).threadCount()).isEqualTo(3);
+      System.setProperty(ParallelSearch.THREADS_PROPERTY, "all");
+      assertThatThrownBy(ParallelSearch::configuredThreadCount)
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("'all'");
+    } finally {
+      System.clearProperty(ParallelSearch.THREADS_PROPERTY);
+    }
+  }
+}
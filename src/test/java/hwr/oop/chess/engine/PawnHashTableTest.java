@@ -0,0 +1,46 @@
+package hwr.oop.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PawnHashTableTest {
+  @Test
+  void probe_findsStoredEntriesAndCountsTheHits() {
+    PawnHashTable table = new PawnHashTable(8);
+    assertThat(table.probe(42)).isEqualTo(PawnHashTable.NO_ENTRY);
+    table.store(42, 1234);
+    assertThat(table.probe(42)).isEqualTo(1234);
+    assertThat(table.probe(42 + 8)).isEqualTo(PawnHashTable.NO_ENTRY);
+    assertThat(table.probes()).isEqualTo(3);
+    assertThat(table.hits()).isEqualTo(1);
+    assertThat(table.hitRate()).isEqualTo(1 / 3.0);
+    assertThat(table).hasToString("1 hits in 3 lookups (33%)");
+  }
+
+  @Test
+  void store_replacesTheEntryWithTheSameIndex() {
+    PawnHashTable table = new PawnHashTable(8);
+    table.store(3, 1);
+    table.store(3 + 8, 2);
+    assertThat(table.probe(3)).isEqualTo(PawnHashTable.NO_ENTRY);
+    assertThat(table.probe(3 + 8)).isEqualTo(2);
+    assertThat(table.capacity()).isEqualTo(8);
+  }
+
+  @Test
+  void hitRate_withoutLookupsIsZero() {
+    assertThat(new PawnHashTable(1).hitRate()).isZero();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 3, -4})
+  void constructor_needsAPowerOfTwo(int entries) {
+    assertThatThrownBy(() -> new PawnHashTable(entries))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("power of two");
+  }
+}
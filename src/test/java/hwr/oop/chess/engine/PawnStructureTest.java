@@ -0,0 +1,26 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.engine.PawnStructure.PawnCounts;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PawnStructureTest {
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, -1, 245, -32768, 32767})
+  void pack_canBeUnpackedAgain(int score) {
+    PawnStructure structure =
+        new PawnStructure(score, new PawnCounts(1, 2, 3, 4), new PawnCounts(8, 7, 6, 5));
+    long packed = structure.pack();
+    assertThat(PawnStructure.unpack(packed)).isEqualTo(structure);
+    assertThat(PawnStructure.score(packed)).isEqualTo(score);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, -20, 100})
+  void pack_isNeverEmpty(int score) {
+    PawnCounts none = new PawnCounts(0, 0, 0, 0);
+    assertThat(new PawnStructure(score, none, none).pack()).isNotEqualTo(PawnHashTable.NO_ENTRY);
+  }
+}
@@ -0,0 +1,132 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PolyglotBookTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  @TempDir Path directory;
+
+  private static int bookMove(int from, int to) {
+    return from << 6 | to;
+  }
+
+  // entries of {key, move, weight}, written sorted by the unsigned key like a real book
+  private Path writeBook(long[]... entries) throws IOException {
+    Path file = directory.resolve("book.bin");
+    long[][] sorted = entries.clone();
+    Arrays.sort(sorted, Comparator.comparing(entry -> entry[0], Long::compareUnsigned));
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+      for (long[] entry : sorted) {
+        out.writeLong(entry[0]);
+        out.writeShort((int) entry[1]);
+        out.writeShort((int) entry[2]);
+        out.writeInt(0);
+      }
+    }
+    return file;
+  }
+
+  @Test
+  void moves_findsAllEntriesOfThePosition() throws IOException {
+    Board board = boardFromFen(START);
+    long key = PolyglotKey.key(board);
+    Path file =
+        writeBook(
+            new long[] {key - 1, bookMove(12, 28), 9},
+            new long[] {key, bookMove(12, 28), 3},
+            new long[] {key, bookMove(11, 27), 1},
+            new long[] {key + 1, bookMove(11, 27), 9},
+            new long[] {Long.MIN_VALUE, bookMove(6, 21), 9});
+    PolyglotBook book = new PolyglotBook(file);
+    assertThat(book.size()).isEqualTo(5);
+    assertThat(book.moves(board))
+        .containsExactly(
+            new BookMove(Move.of(12, 28, Move.DOUBLE_PUSH), 3),
+            new BookMove(Move.of(11, 27, Move.DOUBLE_PUSH), 1));
+    assertThat(book.moves(boardFromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"))).isEmpty();
+  }
+
+  @Test
+  void moves_convertsCastlingAndPromotions() throws IOException {
+    Board castling = boardFromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    Board promotion = boardFromFen("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+    Path file =
+        writeBook(
+            new long[] {PolyglotKey.key(castling), bookMove(4, 7), 2},
+            new long[] {PolyglotKey.key(castling), bookMove(4, 0), 1},
+            new long[] {PolyglotKey.key(promotion), 4 << 12 | bookMove(48, 56), 1},
+            // not a legal move of the position
+            new long[] {PolyglotKey.key(promotion), bookMove(48, 40), 1});
+    PolyglotBook book = new PolyglotBook(file);
+    assertThat(book.moves(castling))
+        .extracting(move -> Move.toString(move.move()))
+        .containsExactly("e1g1", "e1c1");
+    assertThat(book.moves(promotion))
+        .extracting(move -> Move.toString(move.move()))
+        .containsExactly("a7a8q");
+  }
+
+  @Test
+  void pick_choosesByWeight() throws IOException {
+    Board board = boardFromFen(START);
+    long key = PolyglotKey.key(board);
+    Path file =
+        writeBook(new long[] {key, bookMove(12, 28), 0}, new long[] {key, bookMove(11, 27), 5});
+    PolyglotBook book = new PolyglotBook(file);
+    Random random = new Random(1);
+    for (int i = 0; i < 20; i++) {
+      assertThat(Move.toString(book.pick(board, random))).isEqualTo("d2d4");
+    }
+    assertThat(book.pick(boardFromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), random))
+        .isEqualTo(Move.NONE);
+  }
+
+  @Test
+  void pick_takesTheFirstMoveWithoutWeights() throws IOException {
+    Board board = boardFromFen(START);
+    PolyglotBook book =
+        new PolyglotBook(writeBook(new long[] {PolyglotKey.key(board), bookMove(6, 21), 0}));
+    assertThat(Move.toString(book.pick(board, new Random(1)))).isEqualTo("g1f3");
+  }
+
+  @Test
+  void constructor_withInvalidFile() throws IOException {
+    Path broken = Files.write(directory.resolve("broken.bin"), new byte[20]);
+    assertThatThrownBy(() -> new PolyglotBook(broken))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("Polyglot format");
+    Path missing = directory.resolve("missing.bin");
+    assertThatThrownBy(() -> new PolyglotBook(missing))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("could not be read");
+  }
+
+  @Test
+  void configured_readsTheProperty() throws IOException {
+    Path file = writeBook(new long[] {PolyglotKey.key(boardFromFen(START)), bookMove(12, 28), 1});
+    try {
+      System.clearProperty(PolyglotBook.BOOK_PROPERTY);
+      assertThat(PolyglotBook.configured()).isNull();
+      System.setProperty(PolyglotBook.BOOK_PROPERTY, file.toString());
+      assertThat(PolyglotBook.configured().moves(boardFromFen(START))).hasSize(1);
+    } finally {
+      System.clearProperty(PolyglotBook.BOOK_PROPERTY);
+    }
+  }
+}
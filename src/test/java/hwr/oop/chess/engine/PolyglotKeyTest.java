@@ -0,0 +1,77 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolyglotKeyTest {
+  private final long[] randoms = PolyglotRandoms.RANDOM64;
+
+  private long keyOf(String fen) {
+    return PolyglotKey.key(boardFromFen(fen));
+  }
+
+  // the example keys of the Polyglot specification
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = ';',
+      value = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 463b96181691fc9c",
+        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1; 823c9b50fd114196",
+        "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2; 0756b94461c50fb0",
+        "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2; 662fafb965db29d4",
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3; 22a48b5a8e47ff78",
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3; 652a607ca3f242c1",
+        "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4; 00fdd303c946bdd9",
+        "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3; 3c8123ea7b067637",
+        "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4; 5c3f9b829b279560"
+      })
+  void key_matchesTheSpecification(String fen, String key) {
+    assertThat(keyOf(fen)).isEqualTo(Long.parseUnsignedLong(key, 16));
+  }
+
+  @Test
+  void key_ofTheStartPosition() {
+    assertThat(PolyglotKey.key(new Board(true))).isEqualTo(0x463b96181691fc9cL);
+  }
+
+  @Test
+  void key_combinesFiguresAndTurn() {
+    // white king is kind 11 on e1, black king kind 10 on e8
+    assertThat(keyOf("4k3/8/8/8/8/8/8/4K3 w - - 0 1"))
+        .isEqualTo(randoms[64 * 11 + 4] ^ randoms[64 * 10 + 60] ^ randoms[780]);
+    assertThat(keyOf("4k3/8/8/8/8/8/8/4K3 b - - 0 1"))
+        .isEqualTo(randoms[64 * 11 + 4] ^ randoms[64 * 10 + 60]);
+    // a black pawn is kind 0, a white knight kind 3
+    assertThat(keyOf("4k3/8/8/8/8/8/p7/1N2K3 b - - 0 1") ^ keyOf("4k3/8/8/8/8/8/8/4K3 b - - 0 1"))
+        .isEqualTo(randoms[8] ^ randoms[64 * 3 + 1]);
+  }
+
+  @Test
+  void key_containsTheCastlingRights() {
+    String position = "r3k2r/8/8/8/8/8/8/R3K2R w ";
+    assertThat(keyOf(position + "KQkq - 0 1") ^ keyOf(position + "- - 0 1"))
+        .isEqualTo(randoms[768] ^ randoms[769] ^ randoms[770] ^ randoms[771]);
+    assertThat(keyOf(position + "Q - 0 1") ^ keyOf(position + "- - 0 1")).isEqualTo(randoms[769]);
+    assertThat(keyOf(position + "k - 0 1") ^ keyOf(position + "- - 0 1")).isEqualTo(randoms[770]);
+  }
+
+  @Test
+  void key_containsTheEnPassantFileOnlyIfAPawnCanCapture() {
+    assertThat(keyOf("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1") ^ keyOf("4k3/8/8/3pP3/8/8/8/4K3 w - - 0 1"))
+        .isEqualTo(randoms[772 + 3]);
+    assertThat(keyOf("4k3/8/8/3p3P/8/8/8/4K3 w - d6 0 1"))
+        .isEqualTo(keyOf("4k3/8/8/3p3P/8/8/8/4K3 w - - 0 1"));
+  }
+
+  @Test
+  void randoms_areTheWholeArrayOfTheSpecification() {
+    assertThat(randoms).hasSize(781).doesNotHaveDuplicates();
+    assertThat(randoms[0]).isEqualTo(0x9D39247E33776D41L);
+    assertThat(randoms[780]).isEqualTo(0xF8D626AAAF278509L);
+  }
+}
@@ -0,0 +1,25 @@
+package hwr.oop.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchLimitsTest {
+  @Test
+  void factories_setOnlyOneLimit() {
+    assertThat(SearchLimits.depth(5)).isEqualTo(new SearchLimits(5, 0, 0));
+    assertThat(SearchLimits.millis(100))
+        .isEqualTo(new SearchLimits(SearchLimits.MAX_DEPTH, 100, 0));
+    assertThat(SearchLimits.nodes(1000))
+        .isEqualTo(new SearchLimits(SearchLimits.MAX_DEPTH, 0, 1000));
+  }
+
+  @Test
+  void invalidLimitsAreRejected() {
+    assertThatThrownBy(() -> SearchLimits.depth(0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SearchLimits.depth(65)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SearchLimits.millis(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
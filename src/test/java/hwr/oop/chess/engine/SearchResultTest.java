@@ -0,0 +1,44 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultTest {
+  private static final int E2E4 = Move.of(12, 28, Move.DOUBLE_PUSH);
+  private static final int E7E5 = Move.of(52, 36, Move.DOUBLE_PUSH);
+
+  @Test
+  void bestMove_isTheFirstMoveOfThePrincipalVariation() {
+    SearchResult result = new SearchResult(35, 4, 100, new int[] {E2E4, E7E5});
+    assertThat(result.bestMove()).isEqualTo(E2E4);
+    assertThat(result.principalVariationToString()).isEqualTo("e2e4 e7e5");
+    assertThat(new SearchResult(0, 1, 1, new int[0]).bestMove()).isEqualTo(Move.NONE);
+  }
+
+  @Test
+  void scoreToString_showsPawnsOrMoves() {
+    assertThat(new SearchResult(35, 1, 1, new int[0]).scoreToString()).isEqualTo("+0.35");
+    assertThat(new SearchResult(-120, 1, 1, new int[0]).scoreToString()).isEqualTo("-1.20");
+    assertThat(new SearchResult(Search.MATE - 3, 1, 1, new int[0]).scoreToString())
+        .isEqualTo("mate in 2");
+    assertThat(new SearchResult(-Search.MATE + 2, 1, 1, new int[0]).scoreToString())
+        .isEqualTo("mated in 1");
+    assertThat(new SearchResult(Search.TABLEBASE_WIN, 1, 1, new int[0]).scoreToString())
+        .isEqualTo("tablebase win");
+    assertThat(new SearchResult(-Search.TABLEBASE_WIN, 1, 1, new int[0]).scoreToString())
+        .isEqualTo("tablebase loss");
+  }
+
+  @Test
+  void equals_comparesThePrincipalVariationByContent() {
+    SearchResult result = new SearchResult(35, 4, 100, new int[] {E2E4, E7E5});
+    SearchResult same = new SearchResult(35, 4, 100, new int[] {E2E4, E7E5});
+    assertThat(result)
+        .isEqualTo(same)
+        .hasSameHashCodeAs(same)
+        .isNotEqualTo(new SearchResult(35, 4, 100, new int[] {E2E4}))
+        .hasToString("SearchResult[score=+0.35, depth=4, nodes=100, pv=e2e4 e7e5]");
+  }
+}
@@ -0,0 +1,177 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.persistence.FenNotation;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  @ParameterizedTest
+  @CsvSource({
+    // back rank mate
+    "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1,a1a8",
+    // scholar's mate
+    "r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 0 1,h5f7",
+    "r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1,a8a1"
+  })
+  void search_findsMateInOne(String fen, String mate) {
+    Board board = boardFromFen(fen);
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertThat(Move.toString(result.bestMove())).isEqualTo(mate);
+    assertThat(result.isMate()).isTrue();
+    assertThat(result.score()).isEqualTo(Search.MATE - 1);
+    assertThat(result.scoreToString()).isEqualTo("mate in 1");
+  }
+
+  @Test
+  void search_findsMateInTwo() {
+    // the rooks climb up the board like a ladder
+    Board board = boardFromFen("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(5));
+    assertThat(result.scoreToString()).isEqualTo("mate in 2");
+    assertThat(result.principalVariation()).hasSize(3);
+  }
+
+  @Test
+  void search_seesTheMateAgainstItself() {
+    Board board = boardFromFen("6k1/5ppp/8/8/8/8/r7/1r4K1 w - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertThat(result.score()).isEqualTo(-Search.MATE);
+    assertThat(result.principalVariation()).isEmpty();
+    assertThat(result.scoreToString()).isEqualTo("mated in 0");
+  }
+
+  @Test
+  void search_capturesTheHangingQueen() {
+    Board board = boardFromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(2));
+    assertThat(Move.toString(result.bestMove())).isEqualTo("d2d5");
+    assertThat(result.score()).isGreaterThan(400);
+  }
+
+  @Test
+  void search_doesNotTakeAProtectedPawnWithTheQueen() {
+    Board board = boardFromFen("4k3/2p5/3p4/8/8/8/8/3QK3 w - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertThat(Move.toString(result.bestMove())).isNotEqualTo("d1d6");
+  }
+
+  @Test
+  void search_promotesThePawn() {
+    Board board = boardFromFen("8/4P1k1/8/8/8/8/8/4K3 w - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertThat(Move.toString(result.bestMove())).isEqualTo("e7e8q");
+  }
+
+  @Test
+  void search_stalemateIsADraw() {
+    Board board = boardFromFen("k7/8/1QK5/8/8/8/8/8 b - - 0 1");
+    SearchResult result = new Search(board).search(SearchLimits.depth(4));
+    assertThat(result.score()).isZero();
+    assertThat(result.bestMove()).isEqualTo(Move.NONE);
+  }
+
+  @Test
+  void search_leavesTheBoardUnchanged() {
+    Board board = boardFromFen(START);
+    long key = board.zobristKey();
+    new Search(board).search(SearchLimits.depth(4));
+    assertThat(board.zobristKey()).isEqualTo(key);
+    assertThat(FenNotation.generateFen(board)).isEqualTo(START);
+    assertThat(board.canUnmakeMove()).isFalse();
+  }
+
+  @Test
+  void search_stopsAtTheNodeLimit() {
+    Board board = boardFromFen(START);
+    Search search = new Search(board);
+    SearchResult result = search.search(SearchLimits.nodes(5000));
+    assertThat(search.nodes()).isEqualTo(5000);
+    assertThat(result.nodes()).isLessThanOrEqualTo(5000);
+    assertThat(result.bestMove()).isNotEqualTo(Move.NONE);
+    assertThat(board.legalMoves(board.turn()).contains(result.bestMove())).isTrue();
+  }
+
+  @Test
+  void search_withATinyNodeLimitStillReturnsALegalMove() {
+    Board board = boardFromFen(START);
+    SearchResult result = new Search(board).search(SearchLimits.nodes(1));
+    assertThat(board.legalMoves(board.turn()).contains(result.bestMove())).isTrue();
+  }
+
+  @Test
+  void search_stopsWhenTheTimeIsOver() {
+    Board board = boardFromFen(START);
+    long start = System.currentTimeMillis();
+    SearchResult result = new Search(board).search(SearchLimits.millis(50));
+    assertThat(System.currentTimeMillis() - start).isLessThan(1000);
+    assertThat(result.depth()).isPositive();
+    assertThat(board.legalMoves(board.turn()).contains(result.bestMove())).isTrue();
+  }
+
+  @Test
+  void search_principalVariationIsPlayable() {
+    Board board = boardFromFen(START);
+    SearchResult result = new Search(board).search(SearchLimits.depth(4));
+    assertThat(result.depth()).isEqualTo(4);
+    assertThat(result.principalVariation()).hasSizeGreaterThanOrEqualTo(4);
+    for (int move : result.principalVariation()) {
+      assertThat(board.legalMoves(board.turn()).contains(move)).isTrue();
+      board.makeMove(move);
+    }
+  }
+
+  @Test
+  void quiescence_inCheckAtTheLastPlyEvaluates() {
+    Board board = boardFromFen("4k3/8/8/8/8/8/8/4RK2 b - - 0 1");
+    int score = new Search(board).quiescence(Search.MAX_PLY - 1, SearchLimits.depth(1));
+    assertThat(score).isEqualTo(Evaluation.evaluate(board));
+    assertThat(FenNotation.generateFen(board)).isEqualTo("4k3/8/8/8/8/8/8/4RK2 b - - 0 1");
+  }
+
+  @Test
+  void search_fiftyMoveRuleIsADraw() {
+    Board board = boardFromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertThat(result.score()).isZero();
+  }
+
+  private static Tablebases queenTablebases(Path directory) {
+    TablebaseGenerator generator =
+        new TablebaseGenerator(new TablebaseIndex("KQvK"), Tablebases.NONE);
+    generator.generate();
+    generator.write(directory);
+    return Tablebases.fromDirectory(directory);
+  }
+
+  @Test
+  void search_playsTheMoveOfTheTablebases(@TempDir Path directory) {
+    Tablebases tablebases = queenTablebases(directory);
+    Board board = boardFromFen("8/8/2k5/8/8/8/8/3QK3 w - - 0 1");
+    TranspositionTable table = new TranspositionTable(1);
+    SearchResult result = new Search(board, table, tablebases).search(SearchLimits.depth(10));
+    assertThat(result.score()).isEqualTo(Search.TABLEBASE_WIN);
+    assertThat(result.depth()).isEqualTo(1);
+    assertThat(result.bestMove()).isEqualTo(tablebases.bestMove(board));
+  }
+
+  @Test
+  void search_stopsAtThePositionsOfTheTablebases(@TempDir Path directory) {
+    Tablebases tablebases = queenTablebases(directory);
+    // taking the rook leads into a won endgame of the tablebases
+    Board board = boardFromFen("8/8/3k4/8/8/8/1r6/KQ6 w - - 0 1");
+    TranspositionTable table = new TranspositionTable(1);
+    SearchResult result = new Search(board, table, tablebases).search(SearchLimits.depth(3));
+    assertThat(Move.toString(result.bestMove())).endsWith("b2");
+    assertThat(result.scoreToString()).isEqualTo("tablebase win");
+  }
+}
@@ -0,0 +1,116 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TablebaseFileTest {
+  @TempDir Path directory;
+
+  private Path writeKingsOnly() {
+    TablebaseIndex index = new TablebaseIndex("KvK");
+    byte[] wdl = new byte[index.size()];
+    byte[] dtz = new byte[index.size()];
+    for (int position = 0; position < index.size(); position++) {
+      wdl[position] = (byte) (position % 4);
+      dtz[position] = (byte) position;
+    }
+    Path path = directory.resolve("KvK" + TablebaseFile.EXTENSION);
+    TablebaseFile.write(path, index, wdl, dtz);
+    return path;
+  }
+
+  @Test
+  void open_readsWhatWasWritten() {
+    TablebaseFile file = TablebaseFile.open(writeKingsOnly());
+    assertThat(file.index().signature()).isEqualTo("KvK");
+    assertThat(file.wdl(0)).isZero();
+    assertThat(file.wdl(6)).isEqualTo(2);
+    assertThat(file.dtz(6)).isEqualTo(6);
+    assertThat(file.dtz(255)).isEqualTo(255);
+    assertThat(file.probe(5)).isEqualTo(new TablebaseResult(Wdl.DRAW, 5));
+    assertThat(file.probe(258)).isEqualTo(new TablebaseResult(Wdl.WIN, 2));
+  }
+
+  @Test
+  void write_packsTheDtzIntoAsFewBitsAsNeeded() throws IOException {
+    TablebaseIndex index = new TablebaseIndex("KvK");
+    byte[] wdl = new byte[index.size()];
+    byte[] dtz = new byte[index.size()];
+    for (int position = 0; position < index.size(); position++) {
+      dtz[position] = (byte) (position % 5);
+    }
+    Path path = directory.resolve("KvK" + TablebaseFile.EXTENSION);
+    TablebaseFile.write(path, index, wdl, dtz);
+    // a header of 32 bytes, 2 bits of the result and 3 bits of dtz per position
+    assertThat(Files.size(path)).isEqualTo(32 + index.size() * 5 / 8);
+    TablebaseFile file = TablebaseFile.open(path);
+    for (int position = 0; position < index.size(); position++) {
+      assertThat(file.dtz(position)).isEqualTo(position % 5);
+    }
+  }
+
+  @Test
+  void probe_ofAnInvalidPositionIsNull() {
+    TablebaseFile file = TablebaseFile.open(writeKingsOnly());
+    assertThat(file.wdl(7)).isEqualTo(TablebaseFile.INVALID);
+    assertThat(file.probe(7)).isNull();
+  }
+
+  @Test
+  void open_rejectsOtherFiles() throws IOException {
+    Path path = Files.writeString(directory.resolve("KQvK.tb"), "no tablebase at all, just text");
+    assertThatThrownBy(() -> TablebaseFile.open(path))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("is not a tablebase");
+  }
+
+  @Test
+  void open_rejectsIncompleteFiles() throws IOException {
+    Path path = writeKingsOnly();
+    byte[] content = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(content, content.length - 1));
+    assertThatThrownBy(() -> TablebaseFile.open(path))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("is incomplete");
+  }
+
+  @Test
+  void write_replacesABrokenTableWithoutLeavingATemporaryFile() throws IOException {
+    Path path = writeKingsOnly();
+    byte[] content = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(content, content.length / 2));
+    assertThat(writeKingsOnly()).isEqualTo(path);
+    assertThat(Files.readAllBytes(path)).isEqualTo(content);
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).containsExactly(path);
+    }
+  }
+
+  @Test
+  void open_rejectsUnknownMaterial() throws IOException {
+    Path path = writeKingsOnly();
+    byte[] content = Files.readAllBytes(path);
+    content[16] = (byte) 'X';
+    Files.write(path, content);
+    assertThatThrownBy(() -> TablebaseFile.open(path))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("has an unknown material");
+  }
+
+  @Test
+  void open_missingFile() {
+    Path path = directory.resolve("KRvK.tb");
+    assertThatThrownBy(() -> TablebaseFile.open(path))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("could not be read");
+  }
+}
@@ -0,0 +1,105 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TablebaseGeneratorTest {
+  @TempDir static Path directory;
+
+  @BeforeAll
+  static void generateTables() {
+    TablebaseGenerator.generateMissing(directory, List.of("KQvK", "KRvK", "KPvK"));
+  }
+
+  private static int longestWin(String signature) {
+    TablebaseFile file = TablebaseFile.open(directory.resolve(signature + TablebaseFile.EXTENSION));
+    int longest = 0;
+    for (int position = 0; position < file.index().size() / 2; position++) {
+      if (file.wdl(position) == Wdl.WIN.ordinal()) {
+        longest = Math.max(longest, file.dtz(position));
+      }
+    }
+    return longest;
+  }
+
+  private static TablebaseResult probe(String signature, FigureColor turn, int... squares) {
+    TablebaseFile file = TablebaseFile.open(directory.resolve(signature + TablebaseFile.EXTENSION));
+    return file.probe(file.index().index(squares, turn));
+  }
+
+  @Test
+  void generate_findsTheLongestWins() {
+    // the queen mates in at most 10 moves and the rook in at most 16 moves
+    assertThat(longestWin("KQvK")).isEqualTo(19);
+    assertThat(longestWin("KRvK")).isEqualTo(31);
+    // the pawn needs at most 19 moves until it promotes or mates
+    assertThat(longestWin("KPvK")).isEqualTo(37);
+  }
+
+  @Test
+  void generate_knowsCheckmateAndStalemate() {
+    // white king b6, queen h8, black king a8
+    assertThat(probe("KQvK", FigureColor.BLACK, 41, 63, 56))
+        .isEqualTo(new TablebaseResult(Wdl.LOSS, 0));
+    // white king b6, queen c7, black king a8
+    assertThat(probe("KQvK", FigureColor.BLACK, 41, 50, 56))
+        .isEqualTo(new TablebaseResult(Wdl.DRAW, 0));
+  }
+
+  @Test
+  void generate_knowsTheMateInOne() {
+    // white king b6, rook h1, black king a8
+    assertThat(probe("KRvK", FigureColor.WHITE, 41, 7, 56))
+        .isEqualTo(new TablebaseResult(Wdl.WIN, 1));
+  }
+
+  @Test
+  void generate_capturingTheQueenIsADraw() {
+    // white king e2, queen d5, black king e6 to move
+    assertThat(probe("KQvK", FigureColor.BLACK, 12, 35, 44).wdl()).isEqualTo(Wdl.DRAW);
+    // with the white king on e4 the queen is protected
+    assertThat(probe("KQvK", FigureColor.BLACK, 28, 35, 42).wdl()).isEqualTo(Wdl.LOSS);
+  }
+
+  @Test
+  void generate_winsWithTheKingInFrontOfThePawn() {
+    // white king e6, pawn e5, black king e8
+    assertThat(probe("KPvK", FigureColor.WHITE, 44, 36, 60).wdl()).isEqualTo(Wdl.WIN);
+    assertThat(probe("KPvK", FigureColor.BLACK, 44, 36, 60).wdl()).isEqualTo(Wdl.LOSS);
+  }
+
+  @Test
+  void generate_rookPawnIsADrawWithTheKingInTheCorner() {
+    // white king b5, pawn a4, black king a8
+    assertThat(probe("KPvK", FigureColor.BLACK, 33, 24, 56).wdl()).isEqualTo(Wdl.DRAW);
+    assertThat(probe("KPvK", FigureColor.WHITE, 33, 24, 56).wdl()).isEqualTo(Wdl.DRAW);
+  }
+
+  @Test
+  void generate_promotionLeavesTheTable() {
+    // white king d6, pawn e7, black king h7
+    assertThat(probe("KPvK", FigureColor.WHITE, 43, 52, 55))
+        .isEqualTo(new TablebaseResult(Wdl.WIN, 1));
+  }
+
+  @Test
+  void generate_needsTheTablesAfterCapturesAndPromotions() {
+    TablebaseGenerator generator =
+        new TablebaseGenerator(new TablebaseIndex("KPvK"), Tablebases.NONE);
+    assertThatThrownBy(generator::generate)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("needs the tables");
+  }
+
+  @Test
+  void generateMissing_skipsExistingTables() {
+    assertThat(TablebaseGenerator.generateMissing(directory, List.of("KQvK", "KRvK"))).isEmpty();
+  }
+}
@@ -0,0 +1,99 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.figures.FigureColor;
+import hwr.oop.chess.application.figures.FigureType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TablebaseIndexTest {
+  private static int[] mirrored(int[] squares, int mirror) {
+    int[] result = new int[squares.length];
+    for (int piece = 0; piece < squares.length; piece++) {
+      result[piece] = squares[piece] ^ mirror;
+    }
+    return result;
+  }
+
+  private static int[] flippedAtTheDiagonal(int[] squares) {
+    int[] result = new int[squares.length];
+    for (int piece = 0; piece < squares.length; piece++) {
+      result[piece] = (squares[piece] % 8) * 8 + squares[piece] / 8;
+    }
+    return result;
+  }
+
+  @Test
+  void signature_knowsTheFigures() {
+    TablebaseIndex index = new TablebaseIndex("KRvKN");
+    assertThat(index.signature()).isEqualTo("KRvKN");
+    assertThat(index.pieceCount()).isEqualTo(4);
+    assertThat(index.hasPawns()).isFalse();
+    assertThat(index.type(1)).isEqualTo(FigureType.ROOK);
+    assertThat(index.color(1)).isEqualTo(FigureColor.WHITE);
+    assertThat(index.type(3)).isEqualTo(FigureType.KNIGHT);
+    assertThat(index.color(3)).isEqualTo(FigureColor.BLACK);
+  }
+
+  @Test
+  void size_usesTheSymmetriesOfTheBoard() {
+    // 10 cells of the white king without pawns, 32 with pawns, then 64 cells per figure
+    assertThat(new TablebaseIndex("KQvK").size()).isEqualTo(2 * 10 * 64 * 64);
+    assertThat(new TablebaseIndex("KPvK").size()).isEqualTo(2 * 32 * 64 * 64);
+    assertThat(new TablebaseIndex("KPvK").hasPawns()).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"KQK", "QvK", "KQQvK", "KRQvK", "KvKvK", "KXvK", "KQRBvKN", ""})
+  void signature_mustBeValid(String signature) {
+    assertThatThrownBy(() -> new TablebaseIndex(signature))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void index_decodesToTheSamePosition() {
+    TablebaseIndex index = new TablebaseIndex("KRvKN");
+    // white king b1, rook h7, black king e5, knight c3
+    int[] squares = {1, 55, 36, 18};
+    int position = index.index(squares, FigureColor.BLACK);
+    int[] decoded = new int[4];
+    assertThat(index.decode(position, decoded)).isEqualTo(FigureColor.BLACK);
+    assertThat(decoded).containsExactly(squares);
+    assertThat(position).isGreaterThanOrEqualTo(index.size() / 2);
+  }
+
+  @Test
+  void index_isTheSameForMirroredPositions() {
+    TablebaseIndex index = new TablebaseIndex("KQvK");
+    int[] squares = {50, 12, 33};
+    int position = index.index(squares, FigureColor.WHITE);
+    assertThat(index.index(mirrored(squares, 7), FigureColor.WHITE)).isEqualTo(position);
+    assertThat(index.index(mirrored(squares, 56), FigureColor.WHITE)).isEqualTo(position);
+    assertThat(index.index(flippedAtTheDiagonal(squares), FigureColor.WHITE)).isEqualTo(position);
+    assertThat(index.index(squares, FigureColor.BLACK)).isNotEqualTo(position);
+  }
+
+  @Test
+  void index_withTheKingOnTheDiagonalDependsOnTheOtherFigures() {
+    TablebaseIndex index = new TablebaseIndex("KQvK");
+    // white king c3, the queen above and below the diagonal
+    int[] squares = {18, 43, 5};
+    int position = index.index(squares, FigureColor.WHITE);
+    assertThat(index.index(flippedAtTheDiagonal(squares), FigureColor.WHITE)).isEqualTo(position);
+    int[] decoded = new int[3];
+    index.decode(position, decoded);
+    assertThat(index.index(decoded, FigureColor.WHITE)).isEqualTo(position);
+  }
+
+  @Test
+  void index_withPawnsOnlyMirrorsTheFiles() {
+    TablebaseIndex index = new TablebaseIndex("KPvK");
+    int[] squares = {6, 13, 60};
+    int position = index.index(squares, FigureColor.WHITE);
+    assertThat(index.index(mirrored(squares, 7), FigureColor.WHITE)).isEqualTo(position);
+    assertThat(index.index(mirrored(squares, 56), FigureColor.WHITE)).isNotEqualTo(position);
+  }
+}
@@ -0,0 +1,126 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static hwr.oop.chess.application.BoardFixtures.boardFromFen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TablebasesTest {
+  @TempDir static Path directory;
+  private static Tablebases tablebases;
+
+  @BeforeAll
+  static void generateTables() {
+    for (String signature : new String[] {"KQvK", "KRvK"}) {
+      TablebaseGenerator generator =
+          new TablebaseGenerator(new TablebaseIndex(signature), Tablebases.NONE);
+      generator.generate();
+      generator.write(directory);
+    }
+    tablebases = Tablebases.fromDirectory(directory);
+  }
+
+  @Test
+  void fromDirectory_readsAllTables() {
+    assertThat(tablebases.maxPieces()).isEqualTo(3);
+    assertThat(tablebases.contains("KQvK")).isTrue();
+    assertThat(tablebases.contains("KRvK")).isTrue();
+    assertThat(tablebases.contains("KBNvK")).isFalse();
+    assertThat(Tablebases.NONE.maxPieces()).isZero();
+  }
+
+  @Test
+  void fromDirectory_missingDirectory() {
+    Path missing = directory.resolve("missing");
+    assertThatThrownBy(() -> Tablebases.fromDirectory(missing))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("could not be read");
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "k7/8/1K6/8/8/8/8/6Q1 w - - 0 1, WIN, 1",
+    "k6Q/8/1K6/8/8/8/8/8 b - - 0 1, LOSS, 0",
+    "k1Q5/8/1K6/8/8/8/8/8 b - - 0 1, LOSS, 0",
+    "k7/2Q5/1K6/8/8/8/8/8 b - - 0 1, DRAW, 0",
+    // the colors are swapped, so the table KQvK is used
+    "K6q/8/1k6/8/8/8/8/8 w - - 0 1, LOSS, 0",
+    "K7/8/1k6/8/8/8/8/6q1 b - - 0 1, WIN, 1",
+    // no mate is possible, even without a table
+    "k7/8/8/8/8/8/8/KB6 w - - 0 1, DRAW, 0",
+    "k7/8/8/8/8/8/8/K7 b - - 0 1, DRAW, 0",
+  })
+  void probe_findsTheResult(String fen, Wdl wdl, int dtz) {
+    assertThat(tablebases.probe(boardFromFen(fen))).isEqualTo(new TablebaseResult(wdl, dtz));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    // castling rights are not part of the tables
+    "4k3/8/8/8/8/8/8/4K2R w K - 0 1",
+    // there is no table of the material or more figures than the tables have
+    "k7/8/8/8/8/8/P7/K7 w - - 0 1",
+    "k7/8/8/8/8/8/8/KBN5 w - - 0 1",
+    "k7/8/8/8/8/8/8/KQR5 w - - 0 1",
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+  })
+  void probe_unknownPositions(String fen) {
+    assertThat(tablebases.probe(boardFromFen(fen))).isNull();
+  }
+
+  @Test
+  void probe_withoutCastlingRightsFindsTheRook() {
+    Board board = boardFromFen("4k3/8/8/8/8/8/8/4K2R w - - 0 1");
+    assertThat(tablebases.probe(board).wdl()).isEqualTo(Wdl.WIN);
+  }
+
+  @Test
+  void bestMove_mates() {
+    Board board = boardFromFen("k7/8/1K6/8/8/8/8/6Q1 w - - 0 1");
+    board.makeMove(tablebases.bestMove(board));
+    assertThat(board.legalMoves(board.turn()).isEmpty()).isTrue();
+    assertThat(board.isCheck(board.turn())).isTrue();
+  }
+
+  @Test
+  void bestMove_keepsTheWinUntilTheMate() {
+    Board board = boardFromFen("8/8/8/3k4/8/8/8/R3K3 w - - 0 1");
+    int dtz = tablebases.probe(board).dtz();
+    for (int halfMove = 0; halfMove < dtz; halfMove++) {
+      TablebaseResult before = tablebases.probe(board);
+      board.makeMove(tablebases.bestMove(board));
+      TablebaseResult after = tablebases.probe(board);
+      assertThat(after.wdl()).isEqualTo(before.wdl().ofOpponent());
+      assertThat(after.dtz()).isEqualTo(before.dtz() - 1);
+    }
+    assertThat(board.legalMoves(board.turn()).isEmpty()).isTrue();
+  }
+
+  @Test
+  void bestMove_ofAnUnknownPosition() {
+    Board board = boardFromFen("k7/8/8/8/8/8/8/KBN5 w - - 0 1");
+    assertThat(tablebases.bestMove(board)).isEqualTo(Move.NONE);
+  }
+
+  @Test
+  void configured_readsTheDirectoryOfTheProperty() {
+    assertThat(Tablebases.configured()).isSameAs(Tablebases.NONE);
+    try {
+      System.setProperty(Tablebases.DIRECTORY_PROPERTY, directory.toString());
+      Tablebases configured = Tablebases.configured();
+      assertThat(configured.contains("KQvK")).isTrue();
+      assertThat(Tablebases.configured()).isSameAs(configured);
+    } finally {
+      System.clearProperty(Tablebases.DIRECTORY_PROPERTY);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.application.Board;
+import hwr.oop.chess.application.Move;
+import hwr.oop.chess.persistence.FenNotation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TranspositionTableTest {
+  private static final int E2E4 = Move.of(12, 28, Move.DOUBLE_PUSH);
+  private static final int G1F3 = Move.of(6, 21);
+
+  @ParameterizedTest
+  @CsvSource({"1,1,65536", "16,16,1048576", "20,16,1048576", "63,32,2097152"})
+  void constructor_usesThePowerOfTwoBelowTheBudget(int megabytes, int used, int capacity) {
+    TranspositionTable table = new TranspositionTable(megabytes);
+    assertThat(table.megabytes()).isEqualTo(used);
+    assertThat(table.capacity()).isEqualTo(capacity);
+  }
+
+  @Test
+  void constructor_rejectsInvalidSizes() {
+    assertThatThrownBy(() -> new TranspositionTable(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The size of the transposition table must be between 1 and 8192 MB.");
+    assertThatThrownBy(() -> new TranspositionTable(8193))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void configured_readsTheSystemProperty() {
+    try {
+      System.clearProperty(TranspositionTable.SIZE_PROPERTY);
+      assertThat(TranspositionTable.configured().megabytes())
+          .isEqualTo(TranspositionTable.DEFAULT_MEGABYTES);
+      System.setProperty(TranspositionTable.SIZE_PROPERTY, "2");
+      assertThat(TranspositionTable.configured().megabytes()).isEqualTo(2);
+      System.setProperty(TranspositionTable.SIZE_PROPERTY, "much");
+      assertThatThrownBy(TranspositionTable::configured)
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("'much'");
+    } finally {
+      System.clearProperty(TranspositionTable.SIZE_PROPERTY);
+    }
+  }
+
+  @Test
+  void configured_isKeptForAllSearches() {
+    TranspositionTable table = TranspositionTable.configured();
+    assertThat(TranspositionTable.configured()).isSameAs(table);
+    try {
+      System.setProperty(TranspositionTable.SIZE_PROPERTY, "1");
+      assertThat(TranspositionTable.configured()).isNotSameAs(table);
+    } finally {
+      System.clearProperty(TranspositionTable.SIZE_PROPERTY);
+    }
+  }
+
+  @Test
+  void store_entryCanBeProbedWithItsKey() {
+    TranspositionTable table = new TranspositionTable(1);
+    long key = 0x123456789ABCDEFL;
+    assertThat(table.probe(key)).isEqualTo(TranspositionTable.NO_ENTRY);
+
+    table.store(key, E2E4, -Search.MATE + 3, 7, TranspositionTable.BOUND_LOWER);
+    long entry = table.probe(key);
+    assertThat(TranspositionTable.move(entry)).isEqualTo(E2E4);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-Search.MATE + 3);
+    assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.BOUND_LOWER);
+    assertThat(table.probe(key + 1)).isEqualTo(TranspositionTable.NO_ENTRY);
+  }
+
+  @Test
+  void store_keepsTheMoveIfTheNewResultHasNone() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(42, G1F3, 10, 3, TranspositionTable.BOUND_EXACT);
+    table.store(42, Move.NONE, -20, 4, TranspositionTable.BOUND_UPPER);
+    long entry = table.probe(42);
+    assertThat(TranspositionTable.move(entry)).isEqualTo(G1F3);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-20);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.BOUND_UPPER);
+  }
+
+  @Test
+  void store_deepEntriesAreOnlyReplacedByLaterSearches() {
+    TranspositionTable table = new TranspositionTable(1);
+    long bucketSize = table.capacity() / 2;
+    long deep = 5;
+    long shallow = deep + bucketSize;
+    long other = deep + 2 * bucketSize;
+
+    table.store(deep, E2E4, 0, 10, TranspositionTable.BOUND_EXACT);
+    table.store(shallow, G1F3, 0, 2, TranspositionTable.BOUND_EXACT);
+    table.store(other, G1F3, 0, 3, TranspositionTable.BOUND_EXACT);
+    assertThat(table.probe(deep)).isNotEqualTo(TranspositionTable.NO_ENTRY);
+    assertThat(table.probe(shallow)).isEqualTo(TranspositionTable.NO_ENTRY);
+    assertThat(table.probe(other)).isNotEqualTo(TranspositionTable.NO_ENTRY);
+
+    table.newSearch();
+    table.store(shallow, G1F3, 0, 1, TranspositionTable.BOUND_EXACT);
+    assertThat(table.probe(deep)).isEqualTo(TranspositionTable.NO_ENTRY);
+    assertThat(table.probe(shallow)).isNotEqualTo(TranspositionTable.NO_ENTRY);
+  }
+
+  @Test
+  void hashfull_countsTheEntriesOfTheCurrentSearch() {
+    TranspositionTable table = new TranspositionTable(1);
+    assertThat(table.hashfull()).isZero();
+    for (int key = 0; key < 250; key++) {
+      table.store(key, E2E4, 0, 1, TranspositionTable.BOUND_EXACT);
+    }
+    assertThat(table.hashfull()).isEqualTo(250);
+    table.newSearch();
+    assertThat(table.hashfull()).isZero();
+    table.clear();
+    assertThat(table.probe(0)).isEqualTo(TranspositionTable.NO_ENTRY);
+  }
+
+  @Test
+  void search_secondSearchProfitsFromTheTable() {
+    Board board = new Board(false);
+    FenNotation.parseFEN(
+        board, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+    TranspositionTable table = new TranspositionTable(4);
+    Search search = new Search(board, table);
+    SearchResult first = search.search(SearchLimits.depth(4));
+    SearchResult second = search.search(SearchLimits.depth(4));
+    assertThat(second.nodes()).isLessThan(first.nodes() / 2);
+    assertThat(second.bestMove()).isEqualTo(first.bestMove());
+  }
+
+  @Test
+  void concurrentStoresNeverReturnMixedEntries() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int thread = 0; thread < 4; thread++) {
+      int depth = thread + 1;
+      threads.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < 100_000; i++) {
+                  table.store(i % 64, E2E4, depth * 100, depth, TranspositionTable.BOUND_EXACT);
+                }
+              }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (long key = 0; key < 64; key++) {
+      long entry = table.probe(key);
+      assertThat(TranspositionTable.score(entry)).isEqualTo(TranspositionTable.depth(entry) * 100);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import hwr.oop.chess.cli.CLIAdapter;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import hwr.oop.chess.cli.Main;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryFilePersistenceTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0";
+  private static final String AFTER_E4 =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 0";
+
+  @TempDir Path directory;
+
+  private BinaryFilePersistence persistence(int gameId) {
+    BinaryFilePersistence persistence = new BinaryFilePersistence(directory);
+    persistence.setGameId(gameId);
+    return persistence;
+  }
+
+  private BinaryFilePersistence loadedGame() {
+    BinaryFilePersistence persistence = persistence(3);
+    persistence.loadGame();
+    return persistence;
+  }
+
+  @Test
+  void loadGame_returnsTheSavedStates() {
+    BinaryFilePersistence persistence = persistence(3);
+    persistence.storeState(State.FEN_HISTORY, START + "," + AFTER_E4);
+    persistence.storeState(State.PGN_HISTORY, "e4");
+    persistence.storeState(State.END_TYPE, "NOT_END");
+    persistence.storeState(State.ENGINE_OPPONENT, "");
+    persistence.storeState(State.WINNER, null);
+    persistence.saveGame();
+
+    BinaryFilePersistence loaded = loadedGame();
+    assertThat(loaded.loadState(State.FEN_HISTORY)).isEqualTo(START + "," + AFTER_E4);
+    assertThat(loaded.loadState(State.PGN_HISTORY)).isEqualTo("e4");
+    assertThat(loaded.loadState(State.END_TYPE)).isEqualTo("NOT_END");
+    assertThat(loaded.loadState(State.ENGINE_OPPONENT)).isEmpty();
+    assertThat(loaded.loadState(State.WINNER)).isNull();
+    assertThat(directory.resolve("game_3.bin.tmp")).doesNotExist();
+  }
+
+  @Test
+  void saveGame_packsTheHistory() throws IOException {
+    StringBuilder history = new StringBuilder(START);
+    for (int i = 0; i < 100; i++) {
+      history.append(',').append(AFTER_E4).append(',').append(START);
+    }
+    BinaryFilePersistence persistence = persistence(3);
+    persistence.storeState(State.FEN_HISTORY, history.toString());
+    persistence.saveGame();
+
+    assertThat(Files.size(persistence.file()) * 8).isLessThan(history.length());
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(history.toString());
+  }
+
+  @Test
+  void saveGame_keepsAHistoryWhichCannotBePackedAsText() {
+    BinaryFilePersistence persistence = persistence(3);
+    persistence.storeState(State.FEN_HISTORY, "2PP4/8/8/8/7k/8/PP6/7K w - - 0 1,not a position");
+    persistence.saveGame();
+
+    assertThat(loadedGame().loadState(State.FEN_HISTORY))
+        .isEqualTo("2PP4/8/8/8/7k/8/PP6/7K w - - 0 1,not a position");
+  }
+
+  @Test
+  void loadGame_withoutFile() {
+    BinaryFilePersistence persistence = persistence(3);
+    persistence.storeState(State.END_TYPE, "NOT_END");
+
+    assertThatThrownBy(persistence::loadGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The Game #3 could not be started.")
+        .hasMessageContaining("game_3.bin");
+    assertThat(persistence.loadState(State.END_TYPE)).isNull();
+  }
+
+  @Test
+  void loadGame_rejectsOtherFiles() throws IOException {
+    Files.writeString(directory.resolve("game_3.bin"), "FEN_HISTORY," + START);
+
+    assertThatThrownBy(this::loadedGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("This is not a game file of version 1.");
+  }
+
+  @Test
+  void negativeGameId() {
+    BinaryFilePersistence persistence = new BinaryFilePersistence();
+    assertThatThrownBy(() -> persistence.setGameId(-1))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The game ID must be a positive integer (1 or larger).");
+  }
+
+  @Test
+  void writeFileIsLocked() throws IOException {
+    Files.createDirectories(directory.resolve("game_3.bin").resolve("locked"));
+    BinaryFilePersistence persistence = persistence(3);
+
+    assertThatThrownBy(persistence::saveGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining(
+            "The Game #3 could not be saved. Please verify that the current folder is not protected.");
+    assertThat(directory.resolve("game_3.bin.tmp")).doesNotExist();
+  }
+
+  @Test
+  void cli_playsAGameFromTheBinaryFile() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Main.mainWithCli(
+        new String[] {"create", "3"},
+        new CLIAdapter(outputStream, new BinaryFilePersistence(directory)));
+    Main.mainWithCli(
+        new String[] {"on", "3", "move", "e2", "e4"},
+        new CLIAdapter(outputStream, new BinaryFilePersistence(directory)));
+
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).contains(",").contains("/4P3/");
+  }
+}
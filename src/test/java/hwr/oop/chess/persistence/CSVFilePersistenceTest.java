@@ -2,6 +2,7 @@ package hwr.oop.chess.persistence;
 
 import static org.assertj.core.api.Assertions.*;
 
+import hwr.oop.chess.cli.CLIAdapter;
 import hwr.oop.chess.cli.InvalidUserInputException;
 import hwr.oop.chess.cli.Main;
 import org.junit.jupiter.api.AfterEach;
@@ -60,13 +61,18 @@ class CSVFilePersistenceTest {
   }
 
   private void createGame(int gameId) {
-    Main.main(new String[] {"create", String.valueOf(gameId)});
+    main("create", String.valueOf(gameId));
+  }
+
+  // Main itself uses the journal, the commands are run with csv files only here
+  private void main(String... args) {
+    Main.mainWithCli(args, new CLIAdapter(System.out, new CSVFilePersistence()));
   }
 
   @Test
   void checkIfMoveEventOnBoardSavesChanges() {
-    Main.main(new String[] {"create", "9999"});
-    Main.main(new String[] {"on", "9999", "move", "b2", "b3"});
+    main("create", "9999");
+    main("on", "9999", "move", "b2", "b3");
 
     persistence.setGameId(9999);
     persistence.loadGame();
@@ -77,14 +83,14 @@ class CSVFilePersistenceTest {
 
   @Test
   void checkIfPromotionOnBoardSavesChanges() {
-    Main.main(new String[] {"create", "9999"});
+    main("create", "9999");
 
     persistence.setGameId(9999);
     persistence.loadGame();
     persistence.storeState(State.FEN_HISTORY, "2PP4/8/8/8/7k/8/PP6/7K w - - 0 1");
     persistence.saveGame();
 
-    Main.main(new String[] {"on", "9999", "promote", "c8", "ROOK"});
+    main("on", "9999", "promote", "c8", "ROOK");
 
     persistence.loadGame();
     assertThat(persistence.loadState(State.FEN_HISTORY))
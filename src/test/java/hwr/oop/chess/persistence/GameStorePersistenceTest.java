@@ -0,0 +1,98 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import hwr.oop.chess.cli.CLIAdapter;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import hwr.oop.chess.cli.Main;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameStorePersistenceTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0";
+
+  @TempDir Path directory;
+
+  @Test
+  void loadGame_returnsTheSavedStatesOfEachGame() throws IOException {
+    try (GameStore store = GameStore.open(directory.resolve("games.store"))) {
+      GameStorePersistence persistence = new GameStorePersistence(store);
+      for (int gameId = 1; gameId <= 3; gameId++) {
+        persistence.setGameId(gameId);
+        persistence.storeState(State.FEN_HISTORY, START);
+        persistence.storeState(State.WHITE_ELO, String.valueOf(1200 + gameId));
+        persistence.saveGame();
+      }
+
+      GameStorePersistence loaded = new GameStorePersistence(store);
+      loaded.setGameId(2);
+      loaded.loadGame();
+      assertThat(loaded.loadState(State.FEN_HISTORY)).isEqualTo(START);
+      assertThat(loaded.loadState(State.WHITE_ELO)).isEqualTo("1202");
+      assertThat(loaded.gameId()).isEqualTo(2);
+      assertThat(store.gameCount()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void loadGame_withoutTheGame() throws IOException {
+    try (GameStore store = GameStore.open(directory.resolve("games.store"))) {
+      GameStorePersistence persistence = new GameStorePersistence(store);
+      persistence.setGameId(5);
+      persistence.storeState(State.END_TYPE, "NOT_END");
+
+      assertThatThrownBy(persistence::loadGame)
+          .isInstanceOf(InvalidUserInputException.class)
+          .hasMessageContaining("The Game #5 could not be started.")
+          .hasMessageContaining("games.store");
+      assertThat(persistence.loadState(State.END_TYPE)).isNull();
+    }
+  }
+
+  @Test
+  void loadGame_fromAFileWhichIsNoStore() throws IOException {
+    Path path = directory.resolve("games.store");
+    Files.writeString(path, "no store");
+    GameStorePersistence persistence = new GameStorePersistence(path);
+    persistence.setGameId(5);
+
+    assertThatThrownBy(persistence::loadGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("is a game store");
+    assertThatThrownBy(persistence::saveGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The Game #5 could not be saved.");
+  }
+
+  @Test
+  void negativeGameId() {
+    GameStorePersistence persistence = new GameStorePersistence();
+    assertThatThrownBy(() -> persistence.setGameId(0))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The game ID must be a positive integer (1 or larger).");
+  }
+
+  @Test
+  void cli_keepsAllGamesInOneFile() {
+    Path path = directory.resolve("games.store");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Main.mainWithCli(
+        new String[] {"create", "1"}, new CLIAdapter(outputStream, new GameStorePersistence(path)));
+    Main.mainWithCli(
+        new String[] {"create", "2"}, new CLIAdapter(outputStream, new GameStorePersistence(path)));
+    Main.mainWithCli(
+        new String[] {"on", "2", "move", "e2", "e4"},
+        new CLIAdapter(outputStream, new GameStorePersistence(path)));
+
+    GameStorePersistence persistence = new GameStorePersistence(path);
+    persistence.setGameId(2);
+    persistence.loadGame();
+    assertThat(persistence.loadState(State.FEN_HISTORY)).contains("/4P3/");
+    assertThat(directory).isDirectoryContaining(file -> file.endsWith("games.store"));
+    assertThat(directory.resolve("game_2.csv")).doesNotExist();
+  }
+}
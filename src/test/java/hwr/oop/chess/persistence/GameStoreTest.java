@@ -0,0 +1,86 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameStoreTest {
+  @TempDir Path directory;
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void read_returnsTheLastWrittenRecord() throws IOException {
+    try (GameStore store = GameStore.open(directory.resolve("games.store"))) {
+      store.write(1, bytes("first"));
+      store.write(2, bytes("second"));
+      store.write(1, bytes("first, again"));
+
+      assertThat(store.read(1)).isEqualTo(bytes("first, again"));
+      assertThat(store.read(2)).isEqualTo(bytes("second"));
+      assertThat(store.read(3)).isNull();
+      assertThat(store.gameCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void open_keepsTheGamesOfTheFile() throws IOException {
+    Path path = directory.resolve("games.store");
+    try (GameStore store = GameStore.open(path)) {
+      store.write(7, bytes("seven"));
+    }
+    try (GameStore store = GameStore.open(path)) {
+      assertThat(store.read(7)).isEqualTo(bytes("seven"));
+      assertThat(store.path()).isEqualTo(path);
+    }
+  }
+
+  @Test
+  void write_reusesTheSlotsOfReplacedRecords() throws IOException {
+    Path path = directory.resolve("games.store");
+    try (GameStore store = GameStore.open(path)) {
+      store.write(1, new byte[100]);
+      store.write(1, new byte[101]);
+      long size = Files.size(path);
+      for (int i = 0; i < 100; i++) {
+        store.write(1, new byte[100 + i % 2]);
+      }
+      assertThat(Files.size(path)).isEqualTo(size);
+
+      store.write(1, new byte[1000]);
+      assertThat(store.read(1)).hasSize(1000);
+    }
+  }
+
+  @Test
+  void write_growsTheIndexForManyGames() throws IOException {
+    int games = GameStore.INITIAL_INDEX_SLOTS * 2;
+    try (GameStore store = GameStore.open(directory.resolve("games.store"))) {
+      for (int gameId = 1; gameId <= games; gameId++) {
+        store.write(gameId, bytes("game " + gameId));
+      }
+      for (int gameId = 1; gameId <= games; gameId++) {
+        assertThat(store.read(gameId)).isEqualTo(bytes("game " + gameId));
+      }
+      assertThat(store.read(games + 1)).isNull();
+      assertThat(store.gameCount()).isEqualTo(games);
+    }
+  }
+
+  @Test
+  void open_rejectsOtherFiles() throws IOException {
+    Path path = directory.resolve("game_1.csv");
+    Files.writeString(path, "FEN_HISTORY,8/8/8/8/8/8/8/8 w - - 0 1\n".repeat(200));
+
+    assertThatThrownBy(() -> GameStore.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("is not a game store of version 1.");
+  }
+}
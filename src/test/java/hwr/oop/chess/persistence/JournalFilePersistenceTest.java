@@ -0,0 +1,212 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import hwr.oop.chess.cli.CLIAdapter;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import hwr.oop.chess.cli.Main;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalFilePersistenceTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0";
+  private static final String AFTER_E4 =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 0";
+
+  @TempDir Path directory;
+
+  private JournalFilePersistence persistence(int gameId) {
+    JournalFilePersistence persistence = new JournalFilePersistence(directory);
+    persistence.setGameId(gameId);
+    return persistence;
+  }
+
+  private JournalFilePersistence createdGame() {
+    JournalFilePersistence persistence = persistence(7);
+    persistence.storeState(State.FEN_HISTORY, START);
+    persistence.storeState(State.END_TYPE, "NOT_END");
+    persistence.saveGame();
+    return persistence;
+  }
+
+  private JournalFilePersistence loadedGame() {
+    JournalFilePersistence persistence = persistence(7);
+    persistence.loadGame();
+    return persistence;
+  }
+
+  @Test
+  void saveGame_startsWithASnapshot() {
+    JournalFilePersistence persistence = createdGame();
+
+    assertThat(persistence.snapshotFile()).exists();
+    assertThat(persistence.journalFile()).doesNotExist();
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(START);
+  }
+
+  @Test
+  void saveGame_appendsOnlyTheNewMove() throws IOException {
+    JournalFilePersistence persistence = createdGame();
+    persistence.storeState(State.FEN_HISTORY, START + "," + AFTER_E4);
+    persistence.saveGame();
+
+    assertThat(Files.readAllLines(persistence.journalFile()))
+        .containsExactly("1,A,FEN_HISTORY," + (AFTER_E4.length() + 1) + "," + "," + AFTER_E4);
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(START + "," + AFTER_E4);
+    assertThat(loadedGame().loadState(State.END_TYPE)).isEqualTo("NOT_END");
+  }
+
+  @Test
+  void saveGame_replacesValuesWhichDoNotGrow() throws IOException {
+    JournalFilePersistence persistence = createdGame();
+    persistence.storeState(State.END_TYPE, "CHECKMATE");
+    persistence.storeState(State.WINNER, "WHITE");
+    persistence.saveGame();
+
+    // the sequence numbers 1 and 2 follow the order of the map
+    assertThat(Files.readAllLines(persistence.journalFile()))
+        .map(line -> line.substring(2))
+        .containsExactlyInAnyOrder("S,END_TYPE,9,CHECKMATE", "S,WINNER,5,WHITE");
+    assertThat(loadedGame().loadState(State.END_TYPE)).isEqualTo("CHECKMATE");
+    assertThat(loadedGame().loadState(State.WINNER)).isEqualTo("WHITE");
+  }
+
+  @Test
+  void saveGame_withoutChangesWritesNothing() {
+    JournalFilePersistence persistence = loadedGameAfterCreation();
+    persistence.saveGame();
+
+    assertThat(persistence.journalFile()).doesNotExist();
+  }
+
+  private JournalFilePersistence loadedGameAfterCreation() {
+    createdGame();
+    return loadedGame();
+  }
+
+  @Test
+  void saveGame_foldsTheJournalIntoANewSnapshot() throws IOException {
+    JournalFilePersistence persistence = createdGame();
+    String history = START;
+    for (int i = 0; i < JournalFilePersistence.SNAPSHOT_INTERVAL; i++) {
+      history += "," + AFTER_E4;
+      persistence.storeState(State.FEN_HISTORY, history);
+      persistence.saveGame();
+    }
+    assertThat(Files.readAllLines(persistence.journalFile()))
+        .hasSize(JournalFilePersistence.SNAPSHOT_INTERVAL);
+
+    history += "," + START;
+    persistence.storeState(State.FEN_HISTORY, history);
+    persistence.saveGame();
+
+    assertThat(persistence.journalFile()).doesNotExist();
+    assertThat(Files.readAllLines(persistence.snapshotFile()))
+        .contains("FEN_HISTORY," + history, "JOURNAL_SEQUENCE,64");
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(history);
+
+    persistence.storeState(State.END_TYPE, "DRAW");
+    persistence.saveGame();
+    assertThat(Files.readAllLines(persistence.journalFile()))
+        .containsExactly("65,S,END_TYPE,4,DRAW");
+    assertThat(loadedGame().loadState(State.END_TYPE)).isEqualTo("DRAW");
+  }
+
+  @Test
+  void loadGame_skipsTheRecordsWhichAreInTheSnapshot() throws IOException {
+    JournalFilePersistence persistence = createdGame();
+    Files.write(
+        persistence.snapshotFile(),
+        List.of("FEN_HISTORY," + START + "," + AFTER_E4, "JOURNAL_SEQUENCE,1"));
+    Files.write(
+        persistence.journalFile(),
+        List.of("1,A,FEN_HISTORY," + (AFTER_E4.length() + 1) + "," + "," + AFTER_E4));
+
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(START + "," + AFTER_E4);
+  }
+
+  @Test
+  void loadGame_ignoresATornRecordAndRewritesTheSnapshot() throws IOException {
+    JournalFilePersistence persistence = createdGame();
+    persistence.storeState(State.END_TYPE, "DRAW");
+    persistence.saveGame();
+    Files.writeString(
+        persistence.journalFile(), "2,A,FEN_HISTORY,60,,rnbq", StandardOpenOption.APPEND);
+
+    JournalFilePersistence loaded = loadedGame();
+    assertThat(loaded.loadState(State.FEN_HISTORY)).isEqualTo(START);
+    assertThat(loaded.loadState(State.END_TYPE)).isEqualTo("DRAW");
+
+    loaded.storeState(State.FEN_HISTORY, START + "," + AFTER_E4);
+    loaded.saveGame();
+    assertThat(loaded.journalFile()).doesNotExist();
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(START + "," + AFTER_E4);
+  }
+
+  @Test
+  void loadGame_readsTheFilesOfCSVFilePersistence() throws IOException {
+    Files.write(directory.resolve("game_7.csv"), List.of("FEN_HISTORY," + START));
+
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).isEqualTo(START);
+  }
+
+  @Test
+  void loadGame_withoutFile() {
+    JournalFilePersistence persistence = persistence(7);
+    persistence.storeState(State.END_TYPE, "NOT_END");
+
+    assertThatThrownBy(persistence::loadGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The Game #7 could not be started.")
+        .hasMessageContaining("game_7.csv");
+    assertThat(persistence.loadState(State.END_TYPE)).isNull();
+  }
+
+  @Test
+  void setGameId_toAnotherGameStartsWithASnapshot() {
+    JournalFilePersistence persistence = loadedGameAfterCreation();
+    persistence.setGameId(8);
+    persistence.saveGame();
+
+    assertThat(directory.resolve("game_8.csv")).exists();
+    assertThat(persistence.gameId()).isEqualTo(8);
+  }
+
+  @Test
+  void negativeGameId() {
+    JournalFilePersistence persistence = new JournalFilePersistence();
+    assertThatThrownBy(() -> persistence.setGameId(0))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The game ID must be a positive integer (1 or larger).");
+  }
+
+  @Test
+  void writeFileIsLocked() throws IOException {
+    Files.createDirectories(directory.resolve("game_7.csv").resolve("locked"));
+    JournalFilePersistence persistence = persistence(7);
+
+    assertThatThrownBy(persistence::saveGame)
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining(
+            "The Game #7 could not be saved. Please verify that the current folder is not protected.");
+    assertThat(directory.resolve("game_7.csv.tmp")).doesNotExist();
+  }
+
+  @Test
+  void cli_savesTheMovesInTheJournal() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    CLIAdapter cli = new CLIAdapter(outputStream, new JournalFilePersistence(directory));
+    Main.mainWithCli(new String[] {"create", "7"}, cli);
+    cli = new CLIAdapter(outputStream, new JournalFilePersistence(directory));
+    Main.mainWithCli(new String[] {"on", "7", "move", "e2", "e4"}, cli);
+
+    assertThat(directory.resolve("game_7.journal")).exists();
+    assertThat(loadedGame().loadState(State.FEN_HISTORY)).contains("/4P3/");
+  }
+}
@@ -0,0 +1,96 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import hwr.oop.chess.cli.CLIAdapter;
+import hwr.oop.chess.cli.InvalidUserInputException;
+import hwr.oop.chess.cli.Main;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KeyValuePersistenceTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0";
+
+  @TempDir Path directory;
+
+  @Test
+  void loadGame_returnsTheStatesOfTheLastSave() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      KeyValuePersistence persistence = new KeyValuePersistence(store);
+      persistence.setGameId(4);
+      persistence.storeState(State.FEN_HISTORY, START);
+      persistence.storeState(State.WINNER, "BLACK");
+      persistence.saveGame();
+      persistence.storeState(State.WINNER, null);
+      persistence.storeState(State.END_TYPE, "NOT_END");
+      persistence.saveGame();
+
+      KeyValuePersistence loaded = new KeyValuePersistence(store);
+      loaded.setGameId(4);
+      loaded.loadGame();
+      assertThat(loaded.loadState(State.FEN_HISTORY)).isEqualTo(START);
+      assertThat(loaded.loadState(State.END_TYPE)).isEqualTo("NOT_END");
+      assertThat(loaded.loadState(State.WINNER)).isNull();
+      assertThat(loaded.gameId()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void loadGame_withoutTheGame() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      KeyValuePersistence persistence = new KeyValuePersistence(store);
+      persistence.setGameId(4);
+
+      assertThatThrownBy(persistence::loadGame)
+          .isInstanceOf(InvalidUserInputException.class)
+          .hasMessageContaining("The Game #4 could not be started.")
+          .hasMessageContaining("it was created in");
+    }
+  }
+
+  @Test
+  void loadGameAndSaveGame_withAStoreInUse() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      KeyValuePersistence persistence = new KeyValuePersistence(directory);
+      persistence.setGameId(4);
+
+      assertThatThrownBy(persistence::loadGame)
+          .isInstanceOf(InvalidUserInputException.class)
+          .hasMessageContaining("can be read. (Error: ");
+      assertThatThrownBy(persistence::saveGame)
+          .isInstanceOf(InvalidUserInputException.class)
+          .hasMessageContaining("The Game #4 could not be saved.");
+      assertThat(store.get("4/END_TYPE")).isNull();
+    }
+  }
+
+  @Test
+  void negativeGameId() {
+    KeyValuePersistence persistence = new KeyValuePersistence();
+    assertThatThrownBy(() -> persistence.setGameId(-3))
+        .isInstanceOf(InvalidUserInputException.class)
+        .hasMessageContaining("The game ID must be a positive integer (1 or larger).");
+  }
+
+  @Test
+  void cli_savesTheGamesInTheStore() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      Main.mainWithCli(
+          new String[] {"create", "4"}, new CLIAdapter(outputStream, new KeyValuePersistence(store)));
+      Main.mainWithCli(
+          new String[] {"on", "4", "move", "e2", "e4"},
+          new CLIAdapter(outputStream, new KeyValuePersistence(store)));
+    }
+
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("4/FEN_HISTORY")).contains("/4P3/");
+      assertThat(store.get("4/END_TYPE")).isEqualTo("NOT_END");
+    }
+    assertThat(Files.exists(directory.resolve(KeyValueStore.LOG_FILE))).isTrue();
+  }
+}
@@ -0,0 +1,216 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KeyValueStoreTest {
+  @TempDir Path directory;
+
+  private static Map<String, String> pairs(String... keysAndValues) {
+    Map<String, String> pairs = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      pairs.put(keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return pairs;
+  }
+
+  @Test
+  void get_returnsTheLastCommittedValue() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      store.commit(pairs("1/END_TYPE", "NOT_END", "1/FEN_HISTORY", "8/8/8/8/8/8/8/8 w - - 0 1"));
+      store.commit(pairs("1/END_TYPE", "CHECKMATE"));
+
+      assertThat(store.get("1/END_TYPE")).isEqualTo("CHECKMATE");
+      assertThat(store.get("1/FEN_HISTORY")).isEqualTo("8/8/8/8/8/8/8/8 w - - 0 1");
+      assertThat(store.get("2/END_TYPE")).isNull();
+      assertThat(store.directory()).isEqualTo(directory);
+    }
+  }
+
+  @Test
+  void commit_withNullDeletesTheKey() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      store.commit(pairs("1/WINNER", "WHITE"));
+      store.flush();
+      store.commit(pairs("1/WINNER", null));
+
+      assertThat(store.get("1/WINNER")).isNull();
+      store.flush();
+      assertThat(store.get("1/WINNER")).isNull();
+    }
+  }
+
+  @Test
+  void open_replaysTheLog() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      store.commit(pairs("1/END_TYPE", "NOT_END"));
+      store.commit(pairs("2/END_TYPE", "DRAW", "1/END_TYPE", "CHECKMATE"));
+    }
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("1/END_TYPE")).isEqualTo("CHECKMATE");
+      assertThat(store.get("2/END_TYPE")).isEqualTo("DRAW");
+    }
+  }
+
+  @Test
+  void open_dropsATornCommit() throws IOException {
+    Path log = directory.resolve(KeyValueStore.LOG_FILE);
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      store.commit(pairs("1/END_TYPE", "NOT_END"));
+      store.commit(pairs("1/END_TYPE", "CHECKMATE", "1/WINNER", "WHITE"));
+    }
+    long size = Files.size(log);
+    try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 3);
+    }
+
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("1/END_TYPE")).isEqualTo("NOT_END");
+      assertThat(store.get("1/WINNER")).isNull();
+      store.commit(pairs("1/END_TYPE", "DRAW"));
+    }
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("1/END_TYPE")).isEqualTo("DRAW");
+    }
+  }
+
+  @Test
+  void open_dropsACommitWithAWrongChecksum() throws IOException {
+    Path log = directory.resolve(KeyValueStore.LOG_FILE);
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      store.commit(pairs("1/END_TYPE", "NOT_END"));
+    }
+    byte[] bytes = Files.readAllBytes(log);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(log, bytes);
+
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("1/END_TYPE")).isNull();
+    }
+  }
+
+  @Test
+  void commit_flushesTheLogIntoTablesAndMergesThem() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory, 256, Duration.ZERO)) {
+      for (int i = 0; i < 100; i++) {
+        store.commit(pairs(i % 10 + "/PGN_HISTORY", "e4 e5 Nf3 Nc6 move " + i));
+        assertThat(store.tableCount()).isLessThanOrEqualTo(KeyValueStore.MAX_TABLES);
+      }
+      assertThat(Files.size(directory.resolve(KeyValueStore.LOG_FILE))).isLessThan(256);
+      assertThat(store.get("3/PGN_HISTORY")).isEqualTo("e4 e5 Nf3 Nc6 move 93");
+    }
+    try (KeyValueStore store = KeyValueStore.open(directory, 256, Duration.ZERO)) {
+      for (int gameId = 0; gameId < 10; gameId++) {
+        assertThat(store.get(gameId + "/PGN_HISTORY")).isEqualTo("e4 e5 Nf3 Nc6 move 9" + gameId);
+      }
+    }
+  }
+
+  @Test
+  void open_deletesUnfinishedTables() throws IOException {
+    Files.writeString(directory.resolve("table-7.sst.tmp"), "half a table");
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("1/END_TYPE")).isNull();
+    }
+    assertThat(directory.resolve("table-7.sst.tmp")).doesNotExist();
+  }
+
+  @Test
+  void open_onlyOnceAtATime() throws IOException {
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThatThrownBy(() -> KeyValueStore.open(directory))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("is already in use.");
+    }
+    assertThatNoException().isThrownBy(() -> KeyValueStore.open(directory).close());
+  }
+
+  @Test
+  void open_rejectsBrokenTables() throws IOException {
+    Files.writeString(directory.resolve("table-1.sst"), "no table");
+
+    assertThatThrownBy(() -> KeyValueStore.open(directory))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("is not a sorted table.");
+    assertThatNoException().isThrownBy(() -> Files.delete(directory.resolve("table-1.sst")));
+    assertThatNoException().isThrownBy(() -> KeyValueStore.open(directory).close());
+  }
+
+  @Test
+  void commit_groupsTheCommitsOfConcurrentCallersIntoOneSync() throws Exception {
+    int threads = 8;
+    int commitsPerThread = 5;
+    try (KeyValueStore store = KeyValueStore.open(directory, 1 << 20, Duration.ofMillis(20))) {
+      List<Thread> savers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int gameId = t;
+        Thread saver =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < commitsPerThread; i++) {
+                    try {
+                      store.commit(pairs(gameId + "/END_TYPE", "MOVE " + i));
+                    } catch (IOException e) {
+                      throw new IllegalStateException(e);
+                    }
+                  }
+                });
+        saver.start();
+        savers.add(saver);
+      }
+      for (Thread saver : savers) {
+        saver.join();
+      }
+
+      for (int gameId = 0; gameId < threads; gameId++) {
+        assertThat(store.get(gameId + "/END_TYPE")).isEqualTo("MOVE " + (commitsPerThread - 1));
+      }
+      assertThat(store.syncCount()).isLessThan(threads * commitsPerThread);
+    }
+  }
+
+  @Test
+  void commitAsync_completesWhenTheCommitIsDurable() throws IOException {
+    List<CompletableFuture<Void>> durable = new ArrayList<>();
+    try (KeyValueStore store = KeyValueStore.open(directory, 1 << 20, Duration.ofSeconds(10))) {
+      for (int gameId = 1; gameId <= 10; gameId++) {
+        durable.add(store.commitAsync(pairs(gameId + "/END_TYPE", "NOT_END")));
+      }
+      assertThat(store.get("1/END_TYPE")).isNull();
+    }
+    // closing the store writes the waiting commits
+    assertThat(durable).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+
+    try (KeyValueStore store = KeyValueStore.open(directory)) {
+      assertThat(store.get("10/END_TYPE")).isEqualTo("NOT_END");
+    }
+  }
+
+  @Test
+  void commitAsync_afterClose() throws IOException {
+    KeyValueStore store = KeyValueStore.open(directory);
+    store.close();
+    store.close();
+
+    assertThatThrownBy(() -> store.commitAsync(pairs("1/END_TYPE", "NOT_END")).join())
+        .isInstanceOf(CompletionException.class)
+        .hasMessageContaining("is closed.");
+    assertThatThrownBy(() -> store.commit(pairs("1/END_TYPE", "NOT_END")))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("is closed.");
+  }
+}
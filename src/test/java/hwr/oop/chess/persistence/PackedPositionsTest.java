@@ -0,0 +1,89 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PackedPositionsTest {
+  private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+  private static final List<String> GAME =
+      List.of(
+          START,
+          "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+          "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2",
+          "rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2",
+          "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+          "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+          "r1bqkb1r/pppp1ppp/2n2n2/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+          "r1bqkb1r/pppp1ppp/2n2n2/1B2p3/4P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 5 4");
+
+  @Test
+  void unpack_returnsThePackedPositions() throws IOException {
+    assertThat(PackedPositions.unpack(PackedPositions.pack(GAME))).isEqualTo(GAME);
+  }
+
+  @Test
+  void pack_storesOnlyTheChangedCellsOfAMove() {
+    int textBytes = String.join(",", GAME).length();
+    byte[] packed = PackedPositions.pack(GAME);
+
+    // 35 bytes for the first position, at most 10 for each move (castling changes four cells)
+    assertThat(packed).hasSizeLessThanOrEqualTo(1 + 35 + 10 * (GAME.size() - 1));
+    assertThat(packed.length * 6).isLessThan(textBytes);
+  }
+
+  @Test
+  void pack_storesPositionsWithManyChangesAsFullBoard() throws IOException {
+    List<String> positions = List.of(START, "8/8/8/4k3/8/8/8/4K3 b - - 0 60", START);
+
+    assertThat(PackedPositions.unpack(PackedPositions.pack(positions))).isEqualTo(positions);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "rnbqkbnr/pppppppp/44/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w QK - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 00 1",
+        "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e9 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0",
+        ""
+      })
+  void pack_refusesPositionsWhichWouldChange(String fen) {
+    assertThat(PackedPositions.pack(List.of(START, fen))).isNull();
+  }
+
+  @Test
+  void unpack_rejectsBrokenBytes() {
+    byte[] packed = PackedPositions.pack(GAME);
+
+    assertThatThrownBy(() -> PackedPositions.unpack(new byte[] {1, 0, 0, 0, 0}))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("all cells");
+    assertThatThrownBy(() -> PackedPositions.unpack(Arrays.copyOf(packed, packed.length - 1)))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void varInt_keepsEveryInt() throws IOException {
+    for (int value : new int[] {0, 127, 128, 300, Integer.MAX_VALUE, -1}) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PackedPositions.writeVarInt(new DataOutputStream(bytes), value);
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+      assertThat(PackedPositions.readVarInt(in)).isEqualTo(value);
+    }
+  }
+}
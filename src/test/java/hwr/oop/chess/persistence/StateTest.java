@@ -7,7 +7,7 @@ class StateTest {
   @Test
   void testState() {
     State[] states = State.values();
-    assertEquals(11, states.length);
+    assertEquals(12, states.length);
     assertArrayEquals(
         new State[] {
           State.FEN_HISTORY,
@@ -20,7 +20,8 @@ class StateTest {
           State.BLACK_GAME_COUNT,
           State.END_TYPE,
           State.IS_DRAW_OFFERED,
-          State.PGN_HISTORY
+          State.PGN_HISTORY,
+          State.ENGINE_OPPONENT
         },
         states);
   }
@@ -38,5 +39,6 @@ class StateTest {
     assertEquals(State.END_TYPE, State.valueOf("END_TYPE"));
     assertEquals(State.IS_DRAW_OFFERED, State.valueOf("IS_DRAW_OFFERED"));
     assertEquals(State.PGN_HISTORY, State.valueOf("PGN_HISTORY"));
+    assertEquals(State.ENGINE_OPPONENT, State.valueOf("ENGINE_OPPONENT"));
   }
 }
@@ -0,0 +1,35 @@
+package hwr.oop.chess.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class StorageFormatTest {
+  @Test
+  void create_returnsThePersistenceOfTheFormat() {
+    assertThat(StorageFormat.JOURNAL.create()).isInstanceOf(JournalFilePersistence.class);
+    assertThat(StorageFormat.CSV.create()).isInstanceOf(CSVFilePersistence.class);
+    assertThat(StorageFormat.BINARY.create()).isInstanceOf(BinaryFilePersistence.class);
+    assertThat(StorageFormat.STORE.create()).isInstanceOf(GameStorePersistence.class);
+    assertThat(StorageFormat.DATABASE.create()).isInstanceOf(KeyValuePersistence.class);
+  }
+
+  @Test
+  void configured_readsTheSystemProperty() {
+    try {
+      System.clearProperty(StorageFormat.PROPERTY);
+      assertThat(StorageFormat.configured()).isEqualTo(StorageFormat.JOURNAL);
+      System.setProperty(StorageFormat.PROPERTY, "binary");
+      assertThat(StorageFormat.configured()).isEqualTo(StorageFormat.BINARY);
+      System.setProperty(StorageFormat.PROPERTY, " CSV ");
+      assertThat(StorageFormat.configured()).isEqualTo(StorageFormat.CSV);
+      System.setProperty(StorageFormat.PROPERTY, "paper");
+      assertThatThrownBy(StorageFormat::configured)
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("[journal, csv, binary, store, database]")
+          .hasMessageContaining("'paper'");
+    } finally {
+      System.clearProperty(StorageFormat.PROPERTY);
+    }
+  }
+}